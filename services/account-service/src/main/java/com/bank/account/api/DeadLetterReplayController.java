@@ -0,0 +1,49 @@
+package com.bank.account.api;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.bank.account.service.DeadLetterReplayService;
+
+@RestController
+@RequestMapping("/internal/v1/dead-letters")
+public class DeadLetterReplayController {
+
+    private final DeadLetterReplayService deadLetterReplayService;
+    private final String internalApiKey;
+
+    public DeadLetterReplayController(
+        DeadLetterReplayService deadLetterReplayService,
+        @Value("${app.internal-api-key:}") String internalApiKey
+    ) {
+        this.deadLetterReplayService = deadLetterReplayService;
+        this.internalApiKey = internalApiKey;
+    }
+
+    // Fails closed: with no key configured the internal endpoints refuse every caller.
+    private void verifyApiKey(String providedKey) {
+        if (internalApiKey == null || internalApiKey.isBlank() || !internalApiKey.equals(providedKey)) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid or missing API key");
+        }
+    }
+
+    @PostMapping("/replay")
+    public DeadLetterReplayResponse replay(
+        @RequestHeader(name = "X-Internal-Api-Key", required = false) String apiKey,
+        @RequestParam("topic") String topic,
+        @RequestParam(name = "limit", defaultValue = "1000") int limit
+    ) {
+        verifyApiKey(apiKey);
+        int replayed = deadLetterReplayService.replay(topic, limit);
+        return new DeadLetterReplayResponse(topic, replayed);
+    }
+
+    public record DeadLetterReplayResponse(String topic, int replayed) {
+    }
+}
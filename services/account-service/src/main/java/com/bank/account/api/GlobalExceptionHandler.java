@@ -1,6 +1,7 @@
 package com.bank.account.api;
 
 import com.bank.account.service.LimitExceededException;
+import com.bank.account.service.TransferRejectedException;
 import com.bank.account.security.DpopSecurityException;
 import jakarta.servlet.http.HttpServletRequest;
 import java.time.Instant;
@@ -65,6 +66,14 @@ public class GlobalExceptionHandler {
         return buildResponse(HttpStatus.valueOf(422), ex.getMessage(), request.getRequestURI());
     }
 
+    @ExceptionHandler(TransferRejectedException.class)
+    public ResponseEntity<ApiErrorResponse> handleTransferRejectedException(
+        TransferRejectedException ex,
+        HttpServletRequest request
+    ) {
+        return buildResponse(HttpStatus.valueOf(422), ex.getMessage(), request.getRequestURI());
+    }
+
     @ExceptionHandler(IllegalStateException.class)
     public ResponseEntity<ApiErrorResponse> handleIllegalStateException(
         IllegalStateException ex,
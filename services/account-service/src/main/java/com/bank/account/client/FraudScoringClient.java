@@ -0,0 +1,139 @@
+package com.bank.account.client;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.bank.account.service.TransferCommand;
+import com.bank.account.service.TransferRejectedException;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Inline pre-transfer risk check against fraud-service. The whole call, including connection setup,
+ * must finish within {@code banking.fraud-scoring.timeout-ms}; when it does not, or fraud-service
+ * fails, the configured fail mode decides: OPEN lets the transfer through, CLOSED rejects it.
+ */
+@Component
+public class FraudScoringClient {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FraudScoringClient.class);
+    private static final String BLOCK = "BLOCK";
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final URI scoreUri;
+    private final long timeoutMs;
+    private final boolean failClosed;
+    private final String internalApiKey;
+
+    public FraudScoringClient(
+        ObjectMapper objectMapper,
+        @Value("${banking.fraud-scoring.enabled:true}") boolean enabled,
+        @Value("${banking.fraud-scoring.base-url:http://fraud-service:8080}") String baseUrl,
+        @Value("${banking.fraud-scoring.timeout-ms:15}") long timeoutMs,
+        @Value("${banking.fraud-scoring.fail-mode:OPEN}") String failMode,
+        @Value("${app.internal-api-key:}") String internalApiKey
+    ) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.scoreUri = URI.create(baseUrl + "/internal/v1/risk/score");
+        this.timeoutMs = timeoutMs;
+        this.failClosed = "CLOSED".equalsIgnoreCase(failMode);
+        this.internalApiKey = internalApiKey;
+        this.httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofMillis(Math.max(timeoutMs, 1)))
+            .build();
+    }
+
+    public void requireAllowed(TransferCommand command) {
+        if (!enabled) {
+            return;
+        }
+
+        RiskScore score;
+        CompletableFuture<HttpResponse<byte[]>> pending = null;
+        try {
+            HttpRequest.Builder request = HttpRequest.newBuilder(scoreUri)
+                .timeout(Duration.ofMillis(timeoutMs))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(new ScoreRequest(
+                    command.userId(),
+                    command.fromAccountId(),
+                    command.toAccountId(),
+                    command.amount(),
+                    command.normalizedCurrency()
+                ))));
+            if (internalApiKey != null && !internalApiKey.isBlank()) {
+                request.header("X-Internal-Api-Key", internalApiKey);
+            }
+
+            pending = httpClient.sendAsync(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+            HttpResponse<byte[]> response = pending.get(timeoutMs, TimeUnit.MILLISECONDS);
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("fraud-service answered " + response.statusCode());
+            }
+            score = objectMapper.readValue(response.body(), RiskScore.class);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            cancel(pending);
+            onUnavailable(command, ex);
+            return;
+        } catch (TimeoutException | ExecutionException | IOException | RuntimeException ex) {
+            cancel(pending);
+            onUnavailable(command, ex);
+            return;
+        }
+
+        if (BLOCK.equals(score.decision())) {
+            LOGGER.warn("Transfer blocked by risk scoring for userId={}: {}", command.userId(), score.reasons());
+            throw new TransferRejectedException("Transfer rejected by risk checks");
+        }
+    }
+
+    // Aborts the exchange (HttpClient honours cancellation since JDK 16) instead of leaving it to run
+    // to its own request timeout after the caller has given up.
+    private static void cancel(CompletableFuture<?> pending) {
+        if (pending != null) {
+            pending.cancel(true);
+        }
+    }
+
+    private void onUnavailable(TransferCommand command, Exception cause) {
+        if (failClosed) {
+            LOGGER.warn("Risk scoring unavailable, rejecting transfer for userId={}: {}",
+                command.userId(), cause.toString());
+            throw new TransferRejectedException("Transfer temporarily unavailable, please try again");
+        }
+        LOGGER.debug("Risk scoring unavailable, allowing transfer for userId={}", command.userId(), cause);
+    }
+
+    private record ScoreRequest(
+        String userId,
+        Long fromAccountId,
+        Long toAccountId,
+        BigDecimal amount,
+        String currency
+    ) {
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    private record RiskScore(String decision, List<String> reasons) {
+    }
+}
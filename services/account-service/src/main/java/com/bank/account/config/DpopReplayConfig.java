@@ -0,0 +1,60 @@
+package com.bank.account.config;
+
+import java.nio.charset.StandardCharsets;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.SubscriptionListener;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import com.bank.account.service.DpopReplayGuard;
+
+@Configuration
+@ConditionalOnProperty(name = "banking.dpop.replay.mode", havingValue = "LOCAL_FIRST")
+public class DpopReplayConfig {
+
+    @Bean
+    public RedisMessageListenerContainer dpopReplayListenerContainer(
+        RedisConnectionFactory connectionFactory,
+        DpopReplayGuard replayGuard
+    ) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(
+            new PeerFingerprintListener(replayGuard),
+            new ChannelTopic(DpopReplayGuard.CHANNEL)
+        );
+        return container;
+    }
+
+    // The container reports (re)subscriptions to listeners that are also SubscriptionListeners; the guard
+    // reloads the window on each one, since messages sent while unsubscribed are lost.
+    private static final class PeerFingerprintListener implements MessageListener, SubscriptionListener {
+
+        private final DpopReplayGuard replayGuard;
+
+        PeerFingerprintListener(DpopReplayGuard replayGuard) {
+            this.replayGuard = replayGuard;
+        }
+
+        @Override
+        public void onMessage(Message message, byte[] pattern) {
+            replayGuard.recordPeerFingerprints(new String(message.getBody(), StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public void onChannelSubscribed(byte[] channel, long count) {
+            replayGuard.onPeerFeedSubscribed();
+        }
+
+        @Override
+        public void onChannelUnsubscribed(byte[] channel, long count) {
+            replayGuard.onPeerFeedLost();
+        }
+    }
+}
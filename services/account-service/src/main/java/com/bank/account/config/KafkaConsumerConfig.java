@@ -1,9 +1,12 @@
 package com.bank.account.config;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.apache.kafka.clients.consumer.Consumer;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -11,6 +14,14 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.util.backoff.FixedBackOff;
+
+import com.bank.account.inbox.ProcessedEventStore;
 
 @Configuration
 public class KafkaConsumerConfig {
@@ -31,13 +42,95 @@ public class KafkaConsumerConfig {
         return new DefaultKafkaConsumerFactory<>(config);
     }
 
+    /** Publishes a failed record to its next retry tier, or to the DLT once tiers are exhausted. */
+    @Bean
+    public DeadLetterPublishingRecoverer kafkaRetryRecoverer(
+        KafkaTemplate<String, String> retryKafkaTemplate,
+        KafkaRetryTopics kafkaRetryTopics
+    ) {
+        DeadLetterPublishingRecoverer recoverer =
+            new DeadLetterPublishingRecoverer(retryKafkaTemplate, kafkaRetryTopics::destinationFor);
+        recoverer.setHeadersFunction(kafkaRetryTopics::dueAtHeaders);
+        recoverer.setAppendOriginalHeaders(false);
+        return recoverer;
+    }
+
+    /**
+     * No in-place retries: a failed record is handed to the next retry tier (or the DLT) at once, so
+     * the partition keeps moving. For batch listeners the records before the failed one are committed
+     * and the ones after it are redelivered.
+     */
+    @Bean
+    public DefaultErrorHandler kafkaErrorHandler(DeadLetterPublishingRecoverer kafkaRetryRecoverer) {
+        return new DefaultErrorHandler(kafkaRetryRecoverer, new FixedBackOff(0L, 0L));
+    }
+
     @Bean(name = "kafkaListenerContainerFactory")
     public ConcurrentKafkaListenerContainerFactory<String, String> kafkaListenerContainerFactory(
-        ConsumerFactory<String, String> consumerFactory
+        ConsumerFactory<String, String> consumerFactory,
+        DefaultErrorHandler kafkaErrorHandler,
+        @Value("${banking.kafka.consumer.concurrency:1}") int concurrency
+    ) {
+        ConcurrentKafkaListenerContainerFactory<String, String> factory =
+            new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory);
+        factory.setCommonErrorHandler(kafkaErrorHandler);
+        factory.setConcurrency(concurrency);
+        return factory;
+    }
+
+    /**
+     * Records handed over in a rebalance may already have been processed by their previous owner, so
+     * the dedup filter catches up with the processed-events table before the first fetch.
+     */
+    @Bean
+    public ConsumerAwareRebalanceListener processedEventsRebalanceListener(ProcessedEventStore processedEventStore) {
+        return new ConsumerAwareRebalanceListener() {
+            @Override
+            public void onPartitionsAssigned(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+                if (!partitions.isEmpty()) {
+                    processedEventStore.refresh();
+                }
+            }
+        };
+    }
+
+    @Bean(name = "batchKafkaListenerContainerFactory")
+    public ConcurrentKafkaListenerContainerFactory<String, String> batchKafkaListenerContainerFactory(
+        ConsumerFactory<String, String> consumerFactory,
+        DefaultErrorHandler kafkaErrorHandler,
+        ConsumerAwareRebalanceListener processedEventsRebalanceListener,
+        @Value("${banking.kafka.consumer.max-poll-records:500}") int maxPollRecords,
+        @Value("${banking.kafka.consumer.concurrency:1}") int concurrency
+    ) {
+        ConcurrentKafkaListenerContainerFactory<String, String> factory =
+            new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory);
+        factory.setCommonErrorHandler(kafkaErrorHandler);
+        factory.setConcurrency(concurrency);
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setConsumerRebalanceListener(processedEventsRebalanceListener);
+        factory.getContainerProperties().getKafkaConsumerProperties()
+            .setProperty(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, Integer.toString(maxPollRecords));
+        return factory;
+    }
+
+    /**
+     * Record listeners for the {@code .retry.N} tiers, one container per tier. Manual acks let a
+     * listener pause its consumer with {@code nack(delay)} until the head record is due.
+     */
+    @Bean(name = "retryKafkaListenerContainerFactory")
+    public ConcurrentKafkaListenerContainerFactory<String, String> retryKafkaListenerContainerFactory(
+        ConsumerFactory<String, String> consumerFactory,
+        DefaultErrorHandler kafkaErrorHandler,
+        ConsumerAwareRebalanceListener processedEventsRebalanceListener
     ) {
         ConcurrentKafkaListenerContainerFactory<String, String> factory =
             new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(consumerFactory);
+        factory.setCommonErrorHandler(kafkaErrorHandler);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.getContainerProperties().setConsumerRebalanceListener(processedEventsRebalanceListener);
         return factory;
     }
 }
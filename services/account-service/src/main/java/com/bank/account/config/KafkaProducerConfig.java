@@ -4,6 +4,7 @@ import java.util.HashMap;
 import java.util.Map;
 
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
@@ -12,17 +13,14 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.core.ProducerFactory;
-import org.springframework.kafka.support.serializer.JsonSerializer;
 import org.springframework.util.StringUtils;
 
-import com.bank.account.outbox.TransactionCompletedEvent;
-
 @Configuration
 @EnableConfigurationProperties(KafkaTopicsProperties.class)
 public class KafkaProducerConfig {
 
     @Bean
-    public ProducerFactory<String, TransactionCompletedEvent> producerFactory(
+    public ProducerFactory<String, byte[]> producerFactory(
         @Value("${spring.kafka.bootstrap-servers:localhost:9092}") String bootstrapServers,
         @Value("${spring.kafka.producer.transaction-id-prefix:account-service-tx-}") String txPrefix,
         @Value("${spring.kafka.properties.security.protocol:PLAINTEXT}") String securityProtocol
@@ -30,13 +28,13 @@ public class KafkaProducerConfig {
         Map<String, Object> config = new HashMap<>();
         config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
         config.put(ProducerConfig.ACKS_CONFIG, "all");
         config.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
         config.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5);
         config.put("security.protocol", securityProtocol);
 
-        DefaultKafkaProducerFactory<String, TransactionCompletedEvent> factory =
+        DefaultKafkaProducerFactory<String, byte[]> factory =
             new DefaultKafkaProducerFactory<>(config);
 
         factory.setTransactionIdPrefix(StringUtils.hasText(txPrefix) ? txPrefix : "account-service-tx-");
@@ -45,9 +43,29 @@ public class KafkaProducerConfig {
     }
 
     @Bean
-    public KafkaTemplate<String, TransactionCompletedEvent> kafkaTemplate(
-        ProducerFactory<String, TransactionCompletedEvent> producerFactory
+    public KafkaTemplate<String, byte[]> kafkaTemplate(
+        ProducerFactory<String, byte[]> producerFactory
     ) {
         return new KafkaTemplate<>(producerFactory);
     }
+
+    /**
+     * Plain, non-transactional template used to forward failed records to retry and dead-letter
+     * topics. Its producer factory is deliberately not a bean so the transactional factory above
+     * stays the only one Spring Kafka's transaction manager sees.
+     */
+    @Bean
+    public KafkaTemplate<String, String> retryKafkaTemplate(
+        @Value("${spring.kafka.bootstrap-servers:localhost:9092}") String bootstrapServers,
+        @Value("${spring.kafka.properties.security.protocol:PLAINTEXT}") String securityProtocol
+    ) {
+        Map<String, Object> config = new HashMap<>();
+        config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        config.put(ProducerConfig.ACKS_CONFIG, "all");
+        config.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        config.put("security.protocol", securityProtocol);
+        return new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(config));
+    }
 }
@@ -0,0 +1,121 @@
+package com.bank.account.config;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Arrays;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import com.bank.account.service.InvalidEventPayloadException;
+
+/**
+ * Routing for non-blocking retries. A failed record from {@code <topic>} moves to
+ * {@code <topic>.retry.1}, then {@code .retry.2} and {@code .retry.3} with growing delays, and finally
+ * to {@code <topic>.dlt}. Invalid payloads go to the DLT directly. Records carry the time they become
+ * due, and retry listeners hold them back until then without blocking the main topic.
+ */
+@Component
+public class KafkaRetryTopics {
+
+    public static final int RETRY_TIERS = 3;
+    public static final String DUE_AT_HEADER = "banking-retry-due-at";
+
+    private static final String RETRY_SUFFIX = ".retry.";
+    private static final String DEAD_LETTER_SUFFIX = ".dlt";
+
+    private final long[] delaysMs;
+
+    public KafkaRetryTopics(@Value("${banking.kafka.retry.delays-ms:10000,60000,300000}") long[] delaysMs) {
+        if (delaysMs.length != RETRY_TIERS) {
+            throw new IllegalStateException(
+                "banking.kafka.retry.delays-ms must list exactly " + RETRY_TIERS + " delays, got "
+                    + Arrays.toString(delaysMs)
+            );
+        }
+        this.delaysMs = delaysMs.clone();
+    }
+
+    public static String baseTopic(String topic) {
+        int retryIndex = topic.lastIndexOf(RETRY_SUFFIX);
+        if (retryIndex > 0) {
+            return topic.substring(0, retryIndex);
+        }
+        if (topic.endsWith(DEAD_LETTER_SUFFIX)) {
+            return topic.substring(0, topic.length() - DEAD_LETTER_SUFFIX.length());
+        }
+        return topic;
+    }
+
+    public static String deadLetterTopic(String topic) {
+        return baseTopic(topic) + DEAD_LETTER_SUFFIX;
+    }
+
+    /**
+     * Destination for a record that failed on {@code record.topic()}; partition -1 lets the producer
+     * pick the partition from the key, so per-user ordering carries over into the retry topics.
+     */
+    public TopicPartition destinationFor(ConsumerRecord<?, ?> record, Exception failure) {
+        int nextTier = tierOf(record.topic()) + 1;
+        if (isInvalidPayload(failure) || nextTier > RETRY_TIERS) {
+            return new TopicPartition(deadLetterTopic(record.topic()), -1);
+        }
+        return new TopicPartition(baseTopic(record.topic()) + RETRY_SUFFIX + nextTier, -1);
+    }
+
+    public Headers dueAtHeaders(ConsumerRecord<?, ?> record, Exception failure) {
+        Headers headers = new RecordHeaders();
+        int nextTier = tierOf(record.topic()) + 1;
+        if (!isInvalidPayload(failure) && nextTier <= RETRY_TIERS) {
+            long dueAt = System.currentTimeMillis() + delaysMs[nextTier - 1];
+            headers.add(DUE_AT_HEADER, ByteBuffer.allocate(Long.BYTES).putLong(dueAt).array());
+        }
+        return headers;
+    }
+
+    /**
+     * Pauses the tier's consumer until the record is due. Returns {@code true} when the record was
+     * deferred and must not be processed yet; it is redelivered after the remaining delay. Every record
+     * in a tier waits the same delay, so the head record is always the next one due and the pause never
+     * holds back a record of another tier; each tier has its own listener container for that reason.
+     */
+    public boolean deferIfNotDue(ConsumerRecord<?, ?> record, Acknowledgment acknowledgment) {
+        Header dueAtHeader = record.headers().lastHeader(DUE_AT_HEADER);
+        if (dueAtHeader == null || dueAtHeader.value() == null || dueAtHeader.value().length != Long.BYTES) {
+            return false;
+        }
+        long remainingMs = ByteBuffer.wrap(dueAtHeader.value()).getLong() - System.currentTimeMillis();
+        if (remainingMs <= 0) {
+            return false;
+        }
+        acknowledgment.nack(Duration.ofMillis(remainingMs));
+        return true;
+    }
+
+    private static int tierOf(String topic) {
+        int retryIndex = topic.lastIndexOf(RETRY_SUFFIX);
+        if (retryIndex < 0) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(topic.substring(retryIndex + RETRY_SUFFIX.length()));
+        } catch (NumberFormatException ex) {
+            return 0;
+        }
+    }
+
+    private static boolean isInvalidPayload(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof InvalidEventPayloadException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -1,14 +1,18 @@
 package com.bank.account.config;
 
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 
 import javax.crypto.SecretKey;
 import javax.crypto.spec.SecretKeySpec;
 
+import com.bank.account.security.CachingJwtDecoder;
 import com.bank.account.security.DpopSignatureVerificationFilter;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
@@ -24,10 +28,16 @@ public class SecurityConfig {
 
     private final String jwtSecret;
     private final DpopSignatureVerificationFilter dpopSignatureVerificationFilter;
+    private final int jwtCacheMaxSize;
+    private final Duration jwtCacheMaxTtl;
 
     public SecurityConfig(
         @Value("${spring.security.oauth2.resourceserver.jwt.secret-value}") String jwtSecret,
-        DpopSignatureVerificationFilter dpopSignatureVerificationFilter
+        DpopSignatureVerificationFilter dpopSignatureVerificationFilter,
+        @Value("${banking.security.jwt-cache.max-size:50000}") int jwtCacheMaxSize,
+        @Value("${banking.security.jwt-cache.max-ttl:15m}") Duration jwtCacheMaxTtl,
+        @Value("${app.internal-api-key:}") String internalApiKey,
+        Environment environment
     ) {
         if (jwtSecret == null || jwtSecret.isBlank() || jwtSecret.startsWith("change-this")) {
             throw new IllegalStateException(
@@ -35,8 +45,17 @@ public class SecurityConfig {
                 + "Never use the default placeholder in production."
             );
         }
+        // /internal/** is permitted here and guarded only by the key check in each internal controller.
+        if ((internalApiKey == null || internalApiKey.isBlank()) && !environment.acceptsProfiles(Profiles.of("dev"))) {
+            throw new IllegalStateException(
+                "INTERNAL_API_KEY must be set: it is the only guard on /internal/** endpoints. "
+                + "Only the dev profile may start without one."
+            );
+        }
         this.jwtSecret = jwtSecret;
         this.dpopSignatureVerificationFilter = dpopSignatureVerificationFilter;
+        this.jwtCacheMaxSize = jwtCacheMaxSize;
+        this.jwtCacheMaxTtl = jwtCacheMaxTtl;
     }
 
     @Bean
@@ -51,6 +70,7 @@ public class SecurityConfig {
             )
             .authorizeHttpRequests(authorize -> authorize
                 .requestMatchers("/actuator/**").permitAll()
+                .requestMatchers("/internal/**").permitAll()
                 .requestMatchers("/api/v1/transfers/**").authenticated()
                 .anyRequest().authenticated()
             )
@@ -61,8 +81,9 @@ public class SecurityConfig {
     }
 
     @Bean
-    public JwtDecoder jwtDecoder() {
+    public CachingJwtDecoder jwtDecoder() {
         SecretKey key = new SecretKeySpec(jwtSecret.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
-        return NimbusJwtDecoder.withSecretKey(key).macAlgorithm(MacAlgorithm.HS256).build();
+        JwtDecoder nimbusDecoder = NimbusJwtDecoder.withSecretKey(key).macAlgorithm(MacAlgorithm.HS256).build();
+        return new CachingJwtDecoder(nimbusDecoder, jwtCacheMaxSize, jwtCacheMaxTtl);
     }
 }
@@ -0,0 +1,251 @@
+package com.bank.account.inbox;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Array;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Consumer-side deduplication for at-least-once delivery. Every handled record is recorded in
+ * {@code processed_events} inside the listener's transaction, keyed by consumer scope and event id.
+ * A time-bucketed Bloom filter sits in front of the table: a negative answer skips the lookup
+ * entirely, so only likely duplicates cost a query.
+ *
+ * <p>The filter is topped up from the table whenever partitions are assigned, which is exactly when
+ * records processed by the previous owner get redelivered.
+ *
+ * <p>The filter only spans {@code buckets x bucket-minutes}, while rows are kept for
+ * {@code retention-days}. A record first written before the filter window may have been processed
+ * before it too, so such records (DLT replays, consumers catching up on old lag) always go to the
+ * table; the filter only vouches for records young enough that their processing falls inside it.
+ */
+@Component
+public class ProcessedEventStore {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ProcessedEventStore.class);
+
+    public static final String EVENT_ID_HEADER = "eventId";
+
+    // Rows committed shortly before the previous refresh may become visible only after it.
+    private static final Duration REFRESH_OVERLAP = Duration.ofMinutes(1);
+    private static final int CLEANUP_BATCH_SIZE = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TimeBucketedBloomFilter filter;
+    private final Duration retention;
+    private Instant refreshedUntil;
+
+    public ProcessedEventStore(
+        JdbcTemplate jdbcTemplate,
+        @Value("${banking.kafka.dedup.bucket-minutes:60}") long bucketMinutes,
+        @Value("${banking.kafka.dedup.buckets:24}") int buckets,
+        @Value("${banking.kafka.dedup.expected-per-bucket:100000}") int expectedPerBucket,
+        @Value("${banking.kafka.dedup.false-positive-rate:0.01}") double falsePositiveRate,
+        @Value("${banking.kafka.dedup.retention-days:7}") long retentionDays
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.filter = new TimeBucketedBloomFilter(
+            Duration.ofMinutes(bucketMinutes),
+            buckets,
+            expectedPerBucket,
+            falsePositiveRate
+        );
+        this.retention = Duration.ofDays(retentionDays);
+        this.refreshedUntil = Instant.now().minus(filter.window());
+    }
+
+    /**
+     * Returns the records of {@code batch} that {@code scope} has not processed yet, in their original
+     * order. Duplicates inside the batch itself are dropped as well.
+     */
+    public <K, V> List<ConsumerRecord<K, V>> filterUnprocessed(String scope, List<ConsumerRecord<K, V>> batch) {
+        Map<String, ConsumerRecord<K, V>> byEventId = new LinkedHashMap<>();
+        List<String> suspects = new ArrayList<>();
+        long filterHorizon = System.currentTimeMillis() - filter.window().toMillis();
+        for (ConsumerRecord<K, V> record : batch) {
+            String key = filterKey(scope, eventIdOf(record));
+            if (byEventId.putIfAbsent(key, record) == null
+                && (firstWrittenAt(record) < filterHorizon || filter.mightContain(key))) {
+                suspects.add(eventIdOf(record));
+            }
+        }
+
+        if (!suspects.isEmpty()) {
+            for (String processedId : findProcessed(scope, suspects)) {
+                byEventId.remove(filterKey(scope, processedId));
+            }
+        }
+        return new ArrayList<>(byEventId.values());
+    }
+
+    /**
+     * Records the events as processed in the current transaction. The filter learns about them only
+     * after commit, so a rollback leaves no trace.
+     */
+    public void markProcessed(String scope, List<? extends ConsumerRecord<?, ?>> records) {
+        if (records.isEmpty()) {
+            return;
+        }
+        String[] eventIds = records.stream().map(ProcessedEventStore::eventIdOf).toArray(String[]::new);
+
+        jdbcTemplate.update(
+            """
+            INSERT INTO processed_events (consumer_scope, event_id, processed_at)
+            SELECT ?, event_id, now() FROM unnest(CAST(? AS VARCHAR[])) AS event_id
+            ON CONFLICT DO NOTHING
+            """,
+            statement -> {
+                statement.setString(1, scope);
+                Array array = statement.getConnection().createArrayOf("varchar", eventIds);
+                statement.setArray(2, array);
+            }
+        );
+
+        Runnable remember = () -> {
+            for (String eventId : eventIds) {
+                filter.add(filterKey(scope, eventId));
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remember.run();
+                }
+            });
+        } else {
+            remember.run();
+        }
+    }
+
+    /**
+     * Loads events processed since the previous refresh (by any instance) into the filter.
+     */
+    public synchronized void refresh() {
+        Instant since = refreshedUntil.minus(REFRESH_OVERLAP);
+        Instant[] newest = {refreshedUntil};
+        try {
+            jdbcTemplate.query(
+                "SELECT consumer_scope, event_id, processed_at FROM processed_events WHERE processed_at >= ?",
+                resultSet -> {
+                    Instant processedAt = resultSet.getTimestamp("processed_at").toInstant();
+                    filter.add(
+                        filterKey(resultSet.getString("consumer_scope"), resultSet.getString("event_id")),
+                        processedAt.toEpochMilli()
+                    );
+                    if (processedAt.isAfter(newest[0])) {
+                        newest[0] = processedAt;
+                    }
+                },
+                Timestamp.from(since)
+            );
+            refreshedUntil = newest[0];
+        } catch (RuntimeException ex) {
+            LOGGER.warn("Failed to refresh processed-event filter", ex);
+        }
+    }
+
+    @Scheduled(
+        fixedDelayString = "${banking.kafka.dedup.cleanup-interval:3600000}",
+        initialDelayString = "${banking.kafka.dedup.cleanup-initial-delay:60000}"
+    )
+    public void purgeExpired() {
+        Timestamp cutoff = Timestamp.from(Instant.now().minus(retention));
+        int deleted;
+        int total = 0;
+        do {
+            deleted = jdbcTemplate.update(
+                """
+                DELETE FROM processed_events
+                WHERE ctid IN (SELECT ctid FROM processed_events WHERE processed_at < ? LIMIT ?)
+                """,
+                cutoff,
+                CLEANUP_BATCH_SIZE
+            );
+            total += deleted;
+        } while (deleted == CLEANUP_BATCH_SIZE);
+
+        if (total > 0) {
+            LOGGER.info("Purged {} processed events older than {}", total, retention);
+        }
+    }
+
+    private Set<String> findProcessed(String scope, List<String> eventIds) {
+        Set<String> processed = new HashSet<>();
+        jdbcTemplate.query(
+            """
+            SELECT event_id FROM processed_events
+            WHERE consumer_scope = ? AND event_id = ANY(CAST(? AS VARCHAR[]))
+            """,
+            statement -> {
+                statement.setString(1, scope);
+                statement.setArray(2, statement.getConnection().createArrayOf("varchar", eventIds.toArray()));
+            },
+            resultSet -> {
+                processed.add(resultSet.getString("event_id"));
+            }
+        );
+        return processed;
+    }
+
+    /**
+     * Stable id of the event carried by {@code record}: the producer's {@code eventId} header when
+     * present, otherwise the coordinates where the record was first written. Records forwarded to
+     * retry topics keep the coordinates of the original record. Coordinates only catch redeliveries;
+     * producer-side duplicates land at new offsets, which is why auth-service and fraud-service set
+     * the header on user-registered events and fraud alerts.
+     */
+    static String eventIdOf(ConsumerRecord<?, ?> record) {
+        Header eventId = record.headers().lastHeader(EVENT_ID_HEADER);
+        if (eventId != null && eventId.value() != null && eventId.value().length > 0) {
+            return new String(eventId.value(), StandardCharsets.UTF_8);
+        }
+
+        Header originalTopic = record.headers().lastHeader(KafkaHeaders.DLT_ORIGINAL_TOPIC);
+        Header originalPartition = record.headers().lastHeader(KafkaHeaders.DLT_ORIGINAL_PARTITION);
+        Header originalOffset = record.headers().lastHeader(KafkaHeaders.DLT_ORIGINAL_OFFSET);
+        if (originalTopic != null && originalPartition != null && originalOffset != null) {
+            return new String(originalTopic.value(), StandardCharsets.UTF_8)
+                + "-" + ByteBuffer.wrap(originalPartition.value()).getInt()
+                + "@" + ByteBuffer.wrap(originalOffset.value()).getLong();
+        }
+
+        return record.topic() + "-" + record.partition() + "@" + record.offset();
+    }
+
+    /**
+     * When the event was first written to Kafka: the original record's timestamp for records forwarded
+     * to retry topics or the DLT, otherwise the record's own. Unknown timestamps count as oldest.
+     */
+    private static long firstWrittenAt(ConsumerRecord<?, ?> record) {
+        Header originalTimestamp = record.headers().lastHeader(KafkaHeaders.DLT_ORIGINAL_TIMESTAMP);
+        if (originalTimestamp != null && originalTimestamp.value() != null && originalTimestamp.value().length == 8) {
+            return Math.min(record.timestamp(), ByteBuffer.wrap(originalTimestamp.value()).getLong());
+        }
+        return record.timestamp();
+    }
+
+    private static String filterKey(String scope, String eventId) {
+        return scope + '|' + eventId;
+    }
+}
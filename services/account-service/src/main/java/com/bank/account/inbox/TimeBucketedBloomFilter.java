@@ -0,0 +1,169 @@
+package com.bank.account.inbox;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter over a sliding time window. The window is split into buckets; an entry is added to the
+ * bucket of its timestamp and the oldest bucket is wiped when time moves past it, so memory stays
+ * bounded without ever rebuilding the filter. {@link #mightContain(String)} never returns a false
+ * negative for an entry added within the window.
+ */
+public final class TimeBucketedBloomFilter {
+
+    private final Clock clock;
+    private final long bucketMillis;
+    private final int bitCount;
+    private final int hashCount;
+    private final Bucket[] buckets;
+
+    public TimeBucketedBloomFilter(
+        Duration bucketDuration,
+        int bucketCount,
+        int expectedEntriesPerBucket,
+        double falsePositiveRate
+    ) {
+        this(bucketDuration, bucketCount, expectedEntriesPerBucket, falsePositiveRate, Clock.systemUTC());
+    }
+
+    TimeBucketedBloomFilter(
+        Duration bucketDuration,
+        int bucketCount,
+        int expectedEntriesPerBucket,
+        double falsePositiveRate,
+        Clock clock
+    ) {
+        if (bucketDuration.toMillis() <= 0 || bucketCount <= 0 || expectedEntriesPerBucket <= 0) {
+            throw new IllegalArgumentException("Bucket duration, count and expected entries must be positive");
+        }
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("False positive rate must be in (0, 1)");
+        }
+
+        double ln2 = Math.log(2);
+        long bits = (long) Math.ceil(-expectedEntriesPerBucket * Math.log(falsePositiveRate) / (ln2 * ln2));
+        this.bitCount = (int) Math.min(Math.max(bits, Long.SIZE), (long) Integer.MAX_VALUE - Long.SIZE);
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedEntriesPerBucket * ln2));
+        this.bucketMillis = bucketDuration.toMillis();
+        this.clock = clock;
+        this.buckets = new Bucket[bucketCount];
+        for (int i = 0; i < bucketCount; i++) {
+            buckets[i] = new Bucket((bitCount + Long.SIZE - 1) / Long.SIZE);
+        }
+    }
+
+    public void add(String key) {
+        add(key, clock.millis());
+    }
+
+    /**
+     * Adds an entry observed at {@code timestampMillis}. Entries older than the window are ignored and
+     * future timestamps count as now.
+     */
+    public void add(String key, long timestampMillis) {
+        long currentEpoch = clock.millis() / bucketMillis;
+        long epoch = Math.min(timestampMillis / bucketMillis, currentEpoch);
+        if (epoch <= currentEpoch - buckets.length) {
+            return;
+        }
+
+        Bucket bucket = bucketFor(epoch);
+        long hash = hash(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashCount; i++) {
+            bucket.set(index(h1, h2, i));
+        }
+    }
+
+    public boolean mightContain(String key) {
+        long hash = hash(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        long currentEpoch = clock.millis() / bucketMillis;
+
+        for (int age = 0; age < buckets.length; age++) {
+            long epoch = currentEpoch - age;
+            Bucket bucket = buckets[Math.floorMod(epoch, buckets.length)];
+            if (bucket.epoch != epoch) {
+                continue;
+            }
+            boolean present = true;
+            for (int i = 0; i < hashCount && present; i++) {
+                present = bucket.get(index(h1, h2, i));
+            }
+            if (present) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public Duration window() {
+        return Duration.ofMillis(bucketMillis * buckets.length);
+    }
+
+    private Bucket bucketFor(long epoch) {
+        Bucket bucket = buckets[Math.floorMod(epoch, buckets.length)];
+        if (bucket.epoch != epoch) {
+            synchronized (bucket) {
+                if (bucket.epoch < epoch) {
+                    bucket.clear();
+                    bucket.epoch = epoch;
+                }
+            }
+        }
+        return bucket;
+    }
+
+    // Kirsch-Mitzenmacher double hashing: k indexes from one 64-bit hash.
+    private int index(int h1, int h2, int i) {
+        return Math.floorMod(h1 + i * h2, bitCount);
+    }
+
+    // FNV-1a followed by the MurmurHash3 finalizer to spread the bits over both halves.
+    private static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    private static final class Bucket {
+
+        private final AtomicLongArray words;
+        private volatile long epoch = Long.MIN_VALUE;
+
+        private Bucket(int wordCount) {
+            this.words = new AtomicLongArray(wordCount);
+        }
+
+        private void set(int bit) {
+            long mask = 1L << bit;
+            int word = bit >>> 6;
+            long current = words.get(word);
+            while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask)) {
+                current = words.get(word);
+            }
+        }
+
+        private boolean get(int bit) {
+            return (words.get(bit >>> 6) & (1L << bit)) != 0;
+        }
+
+        private void clear() {
+            for (int i = 0; i < words.length(); i++) {
+                words.set(i, 0L);
+            }
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package com.bank.account.outbox;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -16,6 +18,10 @@ import jakarta.persistence.Table;
 @Table(name = "outbox_events")
 public class OutboxEvent {
 
+    private static final int MAX_ATTEMPTS = 10;
+    private static final Duration BASE_RETRY_DELAY = Duration.ofSeconds(2);
+    private static final Duration MAX_RETRY_DELAY = Duration.ofMinutes(10);
+
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
@@ -26,11 +32,17 @@ public class OutboxEvent {
     @Column(name = "aggregate_id", nullable = false, length = 128)
     private String aggregateId;
 
+    @Column(name = "message_key", length = 128)
+    private String messageKey;
+
     @Column(name = "event_type", nullable = false, length = 128)
     private String eventType;
 
-    @Column(nullable = false, columnDefinition = "TEXT")
-    private String payload;
+    @Column(nullable = false, columnDefinition = "BYTEA")
+    private byte[] payload;
+
+    @Column(name = "relay_partition", nullable = false)
+    private int relayPartition;
 
     @Enumerated(EnumType.STRING)
     @Column(nullable = false, length = 16)
@@ -45,29 +57,48 @@ public class OutboxEvent {
     @Column(name = "created_at", nullable = false)
     private Instant createdAt;
 
+    @Column(name = "next_attempt_at", nullable = false)
+    private Instant nextAttemptAt;
+
     @Column(name = "published_at")
     private Instant publishedAt;
 
     protected OutboxEvent() {
     }
 
-    private OutboxEvent(String aggregateType, String aggregateId, String eventType, String payload) {
+    private OutboxEvent(
+        String aggregateType,
+        String aggregateId,
+        String messageKey,
+        String eventType,
+        byte[] payload,
+        int relayPartition
+    ) {
         this.aggregateType = aggregateType;
         this.aggregateId = aggregateId;
+        this.messageKey = messageKey;
         this.eventType = eventType;
         this.payload = payload;
+        this.relayPartition = relayPartition;
         this.status = OutboxEventStatus.PENDING;
         this.attemptCount = 0;
         this.createdAt = Instant.now();
+        this.nextAttemptAt = this.createdAt;
     }
 
+    /**
+     * @param messageKey Kafka record key; events sharing it stay ordered, so it should also be the
+     *                   key the relay partition was derived from
+     */
     public static OutboxEvent pending(
         String aggregateType,
         String aggregateId,
+        String messageKey,
         String eventType,
-        String payload
+        byte[] payload,
+        int relayPartition
     ) {
-        return new OutboxEvent(aggregateType, aggregateId, eventType, payload);
+        return new OutboxEvent(aggregateType, aggregateId, messageKey, eventType, payload, relayPartition);
     }
 
     public void markProcessed() {
@@ -77,14 +108,22 @@ public class OutboxEvent {
         this.lastError = null;
     }
 
-    private static final int MAX_ATTEMPTS = 10;
-
     public void registerPublishFailure(String errorMessage) {
         this.attemptCount += 1;
         this.lastError = truncate(errorMessage, 2048);
         if (this.attemptCount >= MAX_ATTEMPTS) {
             this.status = OutboxEventStatus.FAILED;
+            return;
         }
+        this.nextAttemptAt = Instant.now().plus(retryDelay(attemptCount, ThreadLocalRandom.current().nextDouble()));
+    }
+
+    // Exponential backoff capped at MAX_RETRY_DELAY, jittered into [delay/2, delay) so rows that
+    // failed together do not all come back in the same poll.
+    static Duration retryDelay(int attemptCount, double jitter) {
+        int exponent = Math.min(Math.max(attemptCount - 1, 0), 20);
+        long cappedMillis = Math.min(BASE_RETRY_DELAY.toMillis() << exponent, MAX_RETRY_DELAY.toMillis());
+        return Duration.ofMillis(cappedMillis / 2 + (long) (cappedMillis / 2 * jitter));
     }
 
     private static String truncate(String text, int maxLength) {
@@ -106,14 +145,23 @@ public class OutboxEvent {
         return aggregateId;
     }
 
+    // Rows written before message_key existed were keyed by their aggregate id.
+    public String getMessageKey() {
+        return messageKey != null ? messageKey : aggregateId;
+    }
+
     public String getEventType() {
         return eventType;
     }
 
-    public String getPayload() {
+    public byte[] getPayload() {
         return payload;
     }
 
+    public int getRelayPartition() {
+        return relayPartition;
+    }
+
     public OutboxEventStatus getStatus() {
         return status;
     }
@@ -130,6 +178,10 @@ public class OutboxEvent {
         return createdAt;
     }
 
+    public Instant getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
     public Instant getPublishedAt() {
         return publishedAt;
     }
@@ -9,13 +9,67 @@ import org.springframework.data.repository.query.Param;
 
 public interface OutboxEventRepository extends JpaRepository<OutboxEvent, UUID> {
 
+    @Query(value = "SELECT pg_try_advisory_xact_lock(:namespace, :partition)", nativeQuery = true)
+    boolean tryLockPartition(@Param("namespace") int namespace, @Param("partition") int partition);
+
+    /**
+     * Relay partitions that still hold unpublished rows, including ones beyond the current partition
+     * count that were written before it was lowered.
+     */
     @Query(value = """
-        SELECT *
+        SELECT DISTINCT relay_partition
         FROM outbox_events
         WHERE status = 'PENDING'
-        ORDER BY created_at ASC
-        FOR UPDATE SKIP LOCKED
+          AND attempt_count = 0
+        """, nativeQuery = true)
+    List<Integer> findPendingPartitions();
+
+    /**
+     * Partition head in creation order. Rows whose ordering key still has an earlier row waiting in the
+     * retry lane are held back, so a failed publish cannot be overtaken by later events of the same key.
+     */
+    @Query(value = """
+        SELECT *
+        FROM outbox_events e
+        WHERE e.status = 'PENDING'
+          AND e.attempt_count = 0
+          AND e.relay_partition = :partition
+          AND NOT EXISTS (
+              SELECT 1
+              FROM outbox_events r
+              WHERE r.status = 'PENDING'
+                AND r.attempt_count > 0
+                AND r.relay_partition = e.relay_partition
+                AND COALESCE(r.message_key, r.aggregate_id) = COALESCE(e.message_key, e.aggregate_id)
+                AND r.created_at < e.created_at
+          )
+        ORDER BY e.created_at ASC
+        LIMIT :batchSize
+        FOR UPDATE OF e
+        """, nativeQuery = true)
+    List<OutboxEvent> lockPendingPartitionBatch(
+        @Param("partition") int partition,
+        @Param("batchSize") int batchSize
+    );
+
+    /** Due retries, each only once no earlier PENDING row of its ordering key is left. */
+    @Query(value = """
+        SELECT *
+        FROM outbox_events e
+        WHERE e.status = 'PENDING'
+          AND e.attempt_count > 0
+          AND e.next_attempt_at <= now()
+          AND NOT EXISTS (
+              SELECT 1
+              FROM outbox_events p
+              WHERE p.status = 'PENDING'
+                AND p.relay_partition = e.relay_partition
+                AND COALESCE(p.message_key, p.aggregate_id) = COALESCE(e.message_key, e.aggregate_id)
+                AND p.created_at < e.created_at
+          )
+        ORDER BY e.next_attempt_at ASC
         LIMIT :batchSize
+        FOR UPDATE OF e SKIP LOCKED
         """, nativeQuery = true)
-    List<OutboxEvent> lockPendingBatch(@Param("batchSize") int batchSize);
+    List<OutboxEvent> lockDueRetryBatch(@Param("batchSize") int batchSize);
 }
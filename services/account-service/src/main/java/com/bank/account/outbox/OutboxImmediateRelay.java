@@ -0,0 +1,110 @@
+package com.bank.account.outbox;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Fast path of the outbox: right after the business transaction commits, the partition that
+ * received the event is drained from memory, so consumers see it within milliseconds instead of
+ * waiting for the next poll. Anything this path misses (partition held by another pod, Kafka
+ * error, pod crash) is still PENDING in the table and gets swept by
+ * {@link OutboxKafkaPublisher#publishPendingEvents()}.
+ */
+@Component
+public class OutboxImmediateRelay {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OutboxImmediateRelay.class);
+
+    private static final int IDLE = 0;
+    private static final int DRAINING = 1;
+    private static final int DRAINING_DIRTY = 2;
+
+    private final OutboxKafkaPublisher outboxKafkaPublisher;
+    private final boolean enabled;
+    private final AtomicIntegerArray partitionStates;
+    private final ExecutorService worker = Executors.newVirtualThreadPerTaskExecutor();
+
+    public OutboxImmediateRelay(
+        OutboxKafkaPublisher outboxKafkaPublisher,
+        OutboxPartitioner outboxPartitioner,
+        @Value("${banking.outbox.immediate-relay.enabled:true}") boolean enabled
+    ) {
+        this.outboxKafkaPublisher = outboxKafkaPublisher;
+        this.enabled = enabled;
+        this.partitionStates = new AtomicIntegerArray(outboxPartitioner.partitionCount());
+    }
+
+    /**
+     * Schedules a drain of the event's relay partition once the surrounding transaction commits.
+     * Rolled-back transactions never trigger a drain.
+     */
+    public void publishAfterCommit(OutboxEvent outboxEvent) {
+        if (!enabled || outboxEvent == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+
+        int partition = outboxEvent.getRelayPartition();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                requestDrain(partition);
+            }
+        });
+    }
+
+    private void requestDrain(int partition) {
+        if (partition < 0 || partition >= partitionStates.length()) {
+            return;
+        }
+
+        while (true) {
+            int state = partitionStates.get(partition);
+            if (state == DRAINING_DIRTY) {
+                return;
+            }
+            int next = state == IDLE ? DRAINING : DRAINING_DIRTY;
+            if (partitionStates.compareAndSet(partition, state, next)) {
+                if (state == IDLE) {
+                    submitDrain(partition);
+                }
+                return;
+            }
+        }
+    }
+
+    private void submitDrain(int partition) {
+        try {
+            worker.execute(() -> drain(partition));
+        } catch (RuntimeException ex) {
+            partitionStates.set(partition, IDLE);
+            LOGGER.debug("Immediate relay rejected drain of partition={}", partition, ex);
+        }
+    }
+
+    private void drain(int partition) {
+        while (true) {
+            outboxKafkaPublisher.drainPartition(partition);
+
+            // Commits that arrived while draining marked the partition dirty: run one more pass.
+            if (partitionStates.compareAndSet(partition, DRAINING, IDLE)) {
+                return;
+            }
+            partitionStates.set(partition, DRAINING);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        worker.shutdown();
+    }
+}
@@ -1,8 +1,14 @@
 package com.bank.account.outbox;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
+import org.apache.kafka.clients.producer.ProducerRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -13,36 +19,44 @@ import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.support.TransactionTemplate;
 
 import com.bank.account.config.KafkaTopicsProperties;
-import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PreDestroy;
 
 @Component
 public class OutboxKafkaPublisher {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(OutboxKafkaPublisher.class);
+    private static final String EVENT_TYPE_HEADER = "eventType";
+    private static final String EVENT_ID_HEADER = "eventId";
+    private static final int PARTITION_LOCK_NAMESPACE = 0x0B0C;
 
     private final OutboxEventRepository outboxEventRepository;
-    private final KafkaTemplate<String, TransactionCompletedEvent> kafkaTemplate;
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
     private final KafkaTopicsProperties kafkaTopicsProperties;
-    private final ObjectMapper objectMapper;
+    private final OutboxMetrics outboxMetrics;
     private final TransactionTemplate transactionTemplate;
+    private final ExecutorService relayWorkers = Executors.newVirtualThreadPerTaskExecutor();
     private final int batchSize;
+    private final int retryBatchSize;
     private final long publishTimeoutSeconds;
 
     public OutboxKafkaPublisher(
         OutboxEventRepository outboxEventRepository,
-        KafkaTemplate<String, TransactionCompletedEvent> kafkaTemplate,
+        KafkaTemplate<String, byte[]> kafkaTemplate,
         KafkaTopicsProperties kafkaTopicsProperties,
-        ObjectMapper objectMapper,
+        OutboxMetrics outboxMetrics,
         PlatformTransactionManager transactionManager,
         @Value("${banking.outbox.batch-size:100}") int batchSize,
+        @Value("${banking.outbox.retry-batch-size:20}") int retryBatchSize,
         @Value("${banking.outbox.publish-timeout-seconds:10}") long publishTimeoutSeconds
     ) {
         this.outboxEventRepository = outboxEventRepository;
         this.kafkaTemplate = kafkaTemplate;
         this.kafkaTopicsProperties = kafkaTopicsProperties;
-        this.objectMapper = objectMapper;
+        this.outboxMetrics = outboxMetrics;
         this.transactionTemplate = new TransactionTemplate(transactionManager);
         this.batchSize = batchSize;
+        this.retryBatchSize = retryBatchSize;
         this.publishTimeoutSeconds = publishTimeoutSeconds;
     }
 
@@ -51,42 +65,122 @@ public class OutboxKafkaPublisher {
         initialDelayString = "${banking.outbox.initial-delay:5000}"
     )
     public void publishPendingEvents() {
+        // Partitions come from the table rather than 0..count, so rows written under an earlier,
+        // larger partition count are still swept.
+        List<Integer> pendingPartitions = outboxEventRepository.findPendingPartitions();
+        List<CompletableFuture<Void>> relays = new ArrayList<>(pendingPartitions.size());
+        for (int partition : pendingPartitions) {
+            relays.add(CompletableFuture.runAsync(() -> drainPartition(partition), relayWorkers));
+        }
+        CompletableFuture.allOf(relays.toArray(CompletableFuture[]::new)).join();
+    }
+
+    /**
+     * Publishes the partition head in creation order until it is empty, a publish fails, or another
+     * relay (this pod or another one) holds the partition lock.
+     */
+    public void drainPartition(int partition) {
+        try {
+            int processed;
+            do {
+                Integer batchResult = transactionTemplate.execute(ignored -> publishPartitionBatchInCurrentTx(partition));
+                processed = batchResult == null ? 0 : batchResult;
+            } while (processed == batchSize);
+        } catch (RuntimeException ex) {
+            LOGGER.error("Outbox relay failed for partition={}", partition, ex);
+        }
+    }
+
+    private int publishPartitionBatchInCurrentTx(int partition) {
+        if (!outboxEventRepository.tryLockPartition(PARTITION_LOCK_NAMESPACE, partition)) {
+            return 0;
+        }
+
+        long startedAt = System.nanoTime();
+        List<OutboxEvent> pendingEvents = outboxEventRepository.lockPendingPartitionBatch(partition, batchSize);
+
+        try {
+            for (OutboxEvent outboxEvent : pendingEvents) {
+                if (!publishSingle(outboxEvent)) {
+                    // The failed event moves to the retry lane; stop here so a broken broker does not
+                    // cost one publish timeout per remaining row.
+                    return 0;
+                }
+            }
+            return pendingEvents.size();
+        } finally {
+            outboxMetrics.recordBatch(pendingEvents.size(), startedAt);
+        }
+    }
+
+    @Scheduled(
+        fixedDelayString = "${banking.outbox.retry-poll-interval:5000}",
+        initialDelayString = "${banking.outbox.initial-delay:5000}"
+    )
+    public void publishDueRetries() {
         int processed;
         do {
-            Integer batchResult = transactionTemplate.execute(ignored -> publishOneBatchInCurrentTx());
+            Integer batchResult = transactionTemplate.execute(ignored -> publishRetryBatchInCurrentTx());
             processed = batchResult == null ? 0 : batchResult;
-        } while (processed == batchSize);
+        } while (processed == retryBatchSize);
     }
 
-    private int publishOneBatchInCurrentTx() {
-        List<OutboxEvent> pendingEvents = outboxEventRepository.lockPendingBatch(batchSize);
+    private int publishRetryBatchInCurrentTx() {
+        long startedAt = System.nanoTime();
+        List<OutboxEvent> dueEvents = outboxEventRepository.lockDueRetryBatch(retryBatchSize);
 
-        for (OutboxEvent outboxEvent : pendingEvents) {
-            publishSingle(outboxEvent);
+        try {
+            for (OutboxEvent outboxEvent : dueEvents) {
+                if (!publishSingle(outboxEvent)) {
+                    return 0;
+                }
+            }
+            return dueEvents.size();
+        } finally {
+            outboxMetrics.recordBatch(dueEvents.size(), startedAt);
         }
-
-        return pendingEvents.size();
     }
 
-    private void publishSingle(OutboxEvent outboxEvent) {
+    private boolean publishSingle(OutboxEvent outboxEvent) {
         try {
-            TransactionCompletedEvent eventPayload = objectMapper.readValue(
-                outboxEvent.getPayload(),
-                TransactionCompletedEvent.class
+            ProducerRecord<String, byte[]> record = new ProducerRecord<>(
+                kafkaTopicsProperties.getAccountEvents(),
+                outboxEvent.getMessageKey(),
+                outboxEvent.getPayload()
             );
+            record.headers().add(EVENT_TYPE_HEADER, outboxEvent.getEventType().getBytes(StandardCharsets.UTF_8));
+            record.headers().add(EVENT_ID_HEADER, String.valueOf(outboxEvent.getId()).getBytes(StandardCharsets.UTF_8));
 
-            kafkaTemplate
-                .send(kafkaTopicsProperties.getAccountEvents(), eventPayload.transferId(), eventPayload)
-                .get(publishTimeoutSeconds, TimeUnit.SECONDS);
+            kafkaTemplate.send(record).get(publishTimeoutSeconds, TimeUnit.SECONDS);
 
             outboxEvent.markProcessed();
+            outboxMetrics.recordProcessed();
+            return true;
+        } catch (InterruptedException ex) {
+            // Shutting down: keep the flag set so the worker stops, and let the retry lane resend the row.
+            Thread.currentThread().interrupt();
+            registerFailure(outboxEvent, ex);
+            return false;
         } catch (Exception ex) {
-            outboxEvent.registerPublishFailure(ex.getMessage());
-            LOGGER.error("Outbox publish failed for eventId={} transferId={}",
-                outboxEvent.getId(),
-                outboxEvent.getAggregateId(),
-                ex
-            );
+            registerFailure(outboxEvent, ex);
+            return false;
         }
     }
+
+    private void registerFailure(OutboxEvent outboxEvent, Exception ex) {
+        outboxEvent.registerPublishFailure(ex.getMessage());
+        outboxMetrics.recordFailure(outboxEvent);
+        LOGGER.error("Outbox publish failed for eventId={} transferId={} attempt={} nextAttemptAt={}",
+            outboxEvent.getId(),
+            outboxEvent.getAggregateId(),
+            outboxEvent.getAttemptCount(),
+            outboxEvent.getNextAttemptAt(),
+            ex
+        );
+    }
+
+    @PreDestroy
+    void shutdown() {
+        relayWorkers.shutdown();
+    }
 }
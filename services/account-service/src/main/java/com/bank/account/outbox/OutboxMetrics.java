@@ -0,0 +1,123 @@
+package com.bank.account.outbox;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Outbox relay health for {@code /actuator/prometheus}. The backlog gauges read a snapshot that is
+ * refreshed on a schedule through the PENDING partial index, so scrapes never hit the database.
+ */
+@Component
+public class OutboxMetrics {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OutboxMetrics.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AtomicLong pendingCount = new AtomicLong();
+    private final AtomicReference<Instant> oldestPendingCreatedAt = new AtomicReference<>();
+    private final Counter processedCounter;
+    private final Counter failedCounter;
+    private final Counter terminalFailedCounter;
+    private final Counter maintenanceFailedCounter;
+    private final DistributionSummary batchSize;
+    private final Timer batchPublishLatency;
+
+    public OutboxMetrics(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+
+        Gauge.builder("banking.outbox.pending", pendingCount, AtomicLong::get)
+            .description("PENDING outbox events at the last sample")
+            .register(meterRegistry);
+        Gauge.builder("banking.outbox.oldest.pending.age", this, OutboxMetrics::oldestPendingAgeSeconds)
+            .description("Age of the oldest PENDING outbox event")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+
+        this.processedCounter = Counter.builder("banking.outbox.events.processed")
+            .description("Outbox events published to Kafka")
+            .register(meterRegistry);
+        this.failedCounter = Counter.builder("banking.outbox.events.failed")
+            .description("Outbox publish attempts that failed")
+            .register(meterRegistry);
+        this.terminalFailedCounter = Counter.builder("banking.outbox.events.failed.terminal")
+            .description("Outbox events that exhausted their attempts and became FAILED")
+            .register(meterRegistry);
+        this.maintenanceFailedCounter = Counter.builder("banking.outbox.partition.maintenance.failed")
+            .description("Outbox partition maintenance steps that failed; any increase needs an operator")
+            .register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("banking.outbox.batch.size")
+            .description("Events locked per relay batch")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+        this.batchPublishLatency = Timer.builder("banking.outbox.batch.publish.latency")
+            .description("Time to publish one relay batch")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+    }
+
+    public void recordProcessed() {
+        processedCounter.increment();
+    }
+
+    public void recordFailure(OutboxEvent outboxEvent) {
+        failedCounter.increment();
+        if (outboxEvent.getStatus() == OutboxEventStatus.FAILED) {
+            terminalFailedCounter.increment();
+        }
+    }
+
+    public void recordMaintenanceFailure() {
+        maintenanceFailedCounter.increment();
+    }
+
+    public void recordBatch(int size, long startedAtNanos) {
+        if (size == 0) {
+            return;
+        }
+        batchSize.record(size);
+        batchPublishLatency.record(System.nanoTime() - startedAtNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Scheduled(
+        fixedDelayString = "${banking.outbox.metrics.sample-interval:15000}",
+        initialDelayString = "${banking.outbox.initial-delay:5000}"
+    )
+    public void sampleBacklog() {
+        try {
+            jdbcTemplate.query(
+                "SELECT count(*) AS pending, min(created_at) AS oldest FROM outbox_events WHERE status = 'PENDING'",
+                resultSet -> {
+                    pendingCount.set(resultSet.getLong("pending"));
+                    Timestamp oldest = resultSet.getTimestamp("oldest");
+                    oldestPendingCreatedAt.set(oldest == null ? null : oldest.toInstant());
+                }
+            );
+        } catch (RuntimeException ex) {
+            LOGGER.warn("Failed to sample outbox backlog", ex);
+        }
+    }
+
+    private double oldestPendingAgeSeconds() {
+        Instant oldest = oldestPendingCreatedAt.get();
+        if (oldest == null) {
+            return 0;
+        }
+        return Math.max(Duration.between(oldest, Instant.now()).toMillis(), 0) / 1000.0;
+    }
+}
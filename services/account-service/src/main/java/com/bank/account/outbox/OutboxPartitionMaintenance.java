@@ -0,0 +1,202 @@
+package com.bank.account.outbox;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Keeps the day-partitioned {@code outbox_events} table bounded: creates partitions ahead of time
+ * and detaches (and by default drops) old partitions once none of their rows are PENDING or FAILED.
+ *
+ * <p>If maintenance fell behind, rows for a day without a partition sit in the default partition, and
+ * {@code CREATE TABLE ... PARTITION OF} would fail on them every run. A new partition is therefore
+ * built as a plain table, those rows are moved into it, and only then is it attached; the default
+ * partition is locked meanwhile so no new row for that day can land there.
+ *
+ * <p>{@code DETACH PARTITION ... CONCURRENTLY} is not allowed while the table has a default partition,
+ * so detaching takes an ACCESS EXCLUSIVE lock on {@code outbox_events}. Holding it is brief, but a
+ * waiting request queues every outbox insert behind it. That wait, and the wait for the default
+ * partition's lock when creating one, is capped by {@code banking.outbox.retention.detach-lock-timeout-ms};
+ * a step that times out is retried on the next run.
+ */
+@Component
+public class OutboxPartitionMaintenance {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OutboxPartitionMaintenance.class);
+
+    private static final String PARENT_TABLE = "outbox_events";
+    private static final String DEFAULT_PARTITION = "outbox_events_default";
+    private static final String PARTITION_PREFIX = "outbox_events_p";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final int MAINTENANCE_LOCK_NAMESPACE = 0x0B0D;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxMetrics outboxMetrics;
+    private final int daysAhead;
+    private final int retentionDays;
+    private final boolean dropDetached;
+    private final long detachLockTimeoutMs;
+
+    public OutboxPartitionMaintenance(
+        JdbcTemplate jdbcTemplate,
+        PlatformTransactionManager transactionManager,
+        OutboxMetrics outboxMetrics,
+        @Value("${banking.outbox.retention.days-ahead:7}") int daysAhead,
+        @Value("${banking.outbox.retention.days:3}") int retentionDays,
+        @Value("${banking.outbox.retention.drop-detached:true}") boolean dropDetached,
+        @Value("${banking.outbox.retention.detach-lock-timeout-ms:500}") long detachLockTimeoutMs
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.outboxMetrics = outboxMetrics;
+        this.daysAhead = daysAhead;
+        this.retentionDays = retentionDays;
+        this.dropDetached = dropDetached;
+        this.detachLockTimeoutMs = detachLockTimeoutMs;
+    }
+
+    @Scheduled(
+        fixedDelayString = "${banking.outbox.retention.interval:3600000}",
+        initialDelayString = "${banking.outbox.retention.initial-delay:30000}"
+    )
+    public void maintainPartitions() {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+
+        for (int offset = 0; offset <= daysAhead; offset++) {
+            LocalDate day = today.plusDays(offset);
+            runLocked("create partition " + partitionName(day), () -> createPartition(day));
+        }
+
+        LocalDate cutoff = today.minusDays(retentionDays);
+        for (String partition : listPartitions()) {
+            LocalDate day = parsePartitionDay(partition);
+            if (day != null && day.isBefore(cutoff)) {
+                runLocked("retire partition " + partition, () -> retirePartition(partition));
+            }
+        }
+
+        runLocked("purge default partition", () -> purgeDefaultPartition(cutoff));
+    }
+
+    private void createPartition(LocalDate day) {
+        String partition = partitionName(day);
+        Boolean exists = jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, partition);
+        if (Boolean.TRUE.equals(exists)) {
+            return;
+        }
+
+        Timestamp from = Timestamp.from(day.atStartOfDay(ZoneOffset.UTC).toInstant());
+        Timestamp to = Timestamp.from(day.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant());
+        jdbcTemplate.execute("SET LOCAL lock_timeout = " + detachLockTimeoutMs);
+        jdbcTemplate.execute("LOCK TABLE " + DEFAULT_PARTITION + " IN ACCESS EXCLUSIVE MODE");
+        jdbcTemplate.execute(
+            "CREATE TABLE " + partition + " (LIKE " + PARENT_TABLE + " INCLUDING DEFAULTS INCLUDING CONSTRAINTS)"
+        );
+        int moved = jdbcTemplate.update(
+            "WITH moved AS (DELETE FROM " + DEFAULT_PARTITION + " WHERE created_at >= ? AND created_at < ? RETURNING *)"
+                + " INSERT INTO " + partition + " SELECT * FROM moved",
+            from,
+            to
+        );
+        jdbcTemplate.execute(
+            "ALTER TABLE " + PARENT_TABLE + " ATTACH PARTITION " + partition
+                + " FOR VALUES FROM ('" + from.toInstant() + "') TO ('" + to.toInstant() + "')"
+        );
+        if (moved > 0) {
+            LOGGER.warn("Moved {} outbox events from the default partition into {}", moved, partition);
+        }
+    }
+
+    private void retirePartition(String partition) {
+        // FAILED rows are the only record of events that never reached Kafka; they stay until an
+        // operator has replayed or deliberately deleted them.
+        Boolean hasUnpublished = jdbcTemplate.queryForObject(
+            "SELECT EXISTS (SELECT 1 FROM " + partition + " WHERE status IN ('PENDING', 'FAILED'))",
+            Boolean.class
+        );
+        if (Boolean.TRUE.equals(hasUnpublished)) {
+            LOGGER.warn("Outbox partition {} is past retention but still has PENDING or FAILED events", partition);
+            return;
+        }
+
+        jdbcTemplate.execute("SET LOCAL lock_timeout = " + detachLockTimeoutMs);
+        jdbcTemplate.execute("ALTER TABLE " + PARENT_TABLE + " DETACH PARTITION " + partition);
+        if (dropDetached) {
+            jdbcTemplate.execute("DROP TABLE " + partition);
+        }
+        LOGGER.info("Retired outbox partition {} (dropped={})", partition, dropDetached);
+    }
+
+    private void purgeDefaultPartition(LocalDate cutoff) {
+        int deleted = jdbcTemplate.update(
+            "DELETE FROM " + DEFAULT_PARTITION + " WHERE status = 'PROCESSED' AND created_at < ?",
+            Timestamp.from(cutoff.atStartOfDay(ZoneOffset.UTC).toInstant())
+        );
+        if (deleted > 0) {
+            LOGGER.info("Purged {} processed outbox events from the default partition", deleted);
+        }
+    }
+
+    private List<String> listPartitions() {
+        return jdbcTemplate.queryForList(
+            """
+            SELECT child.relname
+            FROM pg_inherits inheritance
+            JOIN pg_class parent ON parent.oid = inheritance.inhparent
+            JOIN pg_class child ON child.oid = inheritance.inhrelid
+            WHERE parent.relname = ?
+            """,
+            String.class,
+            PARENT_TABLE
+        );
+    }
+
+    // Every step runs in its own transaction so one failing DDL statement does not abort the rest.
+    private void runLocked(String description, Runnable step) {
+        try {
+            transactionTemplate.executeWithoutResult(ignored -> {
+                Boolean locked = jdbcTemplate.queryForObject(
+                    "SELECT pg_try_advisory_xact_lock(?, 0)",
+                    Boolean.class,
+                    MAINTENANCE_LOCK_NAMESPACE
+                );
+                if (Boolean.TRUE.equals(locked)) {
+                    step.run();
+                }
+            });
+        } catch (RuntimeException ex) {
+            // A step that keeps failing ends with inserts piling into the default partition or disk
+            // filling up, so this is surfaced as an error and a metric to alert on, not a warning.
+            outboxMetrics.recordMaintenanceFailure();
+            LOGGER.error("Outbox partition maintenance failed to {}", description, ex);
+        }
+    }
+
+    private static String partitionName(LocalDate day) {
+        return PARTITION_PREFIX + day.format(PARTITION_SUFFIX);
+    }
+
+    private static LocalDate parsePartitionDay(String partition) {
+        if (!partition.startsWith(PARTITION_PREFIX)) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(partition.substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX);
+        } catch (DateTimeParseException ex) {
+            return null;
+        }
+    }
+}
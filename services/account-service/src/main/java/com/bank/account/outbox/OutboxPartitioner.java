@@ -0,0 +1,37 @@
+package com.bank.account.outbox;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Maps an ordering key (the user id) to a logical outbox partition. Each partition is drained
+ * by exactly one relay worker at a time, so events sharing a key are published in commit order.
+ *
+ * <p>Changing the partition count only affects newly written rows: a key can then have rows waiting
+ * in its old partition while new ones land in another, and the two drain independently. Drain the
+ * outbox (no PENDING rows left) before changing {@code banking.outbox.partitions}, or per-key order
+ * is lost for the keys that moved.
+ */
+@Component
+public class OutboxPartitioner {
+
+    private final int partitionCount;
+
+    public OutboxPartitioner(@Value("${banking.outbox.partitions:16}") int partitionCount) {
+        if (partitionCount < 1) {
+            throw new IllegalStateException("banking.outbox.partitions must be positive");
+        }
+        this.partitionCount = partitionCount;
+    }
+
+    public int partitionCount() {
+        return partitionCount;
+    }
+
+    public int partitionFor(String orderingKey) {
+        if (orderingKey == null) {
+            return 0;
+        }
+        return Math.floorMod(orderingKey.hashCode(), partitionCount);
+    }
+}
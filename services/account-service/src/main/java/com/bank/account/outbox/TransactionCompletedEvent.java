@@ -9,6 +9,7 @@ public record TransactionCompletedEvent(
     String transferId,
     String idempotencyKey,
     String userId,
+    String recipientUserId,
     Long fromAccountId,
     Long toAccountId,
     BigDecimal amount,
@@ -16,11 +17,12 @@ public record TransactionCompletedEvent(
     Instant committedAt
 ) {
 
-    public static TransactionCompletedEvent from(AccountTransaction transaction, String userId) {
+    public static TransactionCompletedEvent from(AccountTransaction transaction, String userId, String recipientUserId) {
         return new TransactionCompletedEvent(
             transaction.getTransferId(),
             transaction.getIdempotencyKey(),
             userId,
+            recipientUserId,
             transaction.getFromAccountId(),
             transaction.getToAccountId(),
             transaction.getAmount(),
@@ -32,6 +32,39 @@ public interface AccountRepository extends JpaRepository<Account, Long> {
 
     @Modifying(clearAutomatically = true, flushAutomatically = true)
     @Transactional
-    @Query("UPDATE Account a SET a.status = 'FROZEN' WHERE a.clientId = :clientId")
-    void freezeAccountsByClientId(@Param("clientId") String clientId);
+    @Query(value = """
+        UPDATE accounts
+        SET status = 'FROZEN', version = version + 1, updated_at = now()
+        WHERE client_id = ANY(CAST(:clientIds AS VARCHAR[]))
+          AND status <> 'FROZEN'
+        """, nativeQuery = true)
+    int freezeAccountsByClientIds(@Param("clientIds") String[] clientIds);
+
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Transactional
+    @Query(value = """
+        UPDATE accounts
+        SET status = 'FROZEN', version = version + 1, updated_at = now()
+        WHERE id = ANY(CAST(:accountIds AS BIGINT[]))
+          AND status <> 'FROZEN'
+        """, nativeQuery = true)
+    int freezeAccountsByIds(@Param("accountIds") Long[] accountIds);
+
+    /**
+     * Opens a default account for each client that has no account at all yet, in any currency; clients
+     * who already hold one are left alone. The conflict clause covers two events for one new client.
+     */
+    @Modifying(flushAutomatically = true)
+    @Transactional
+    @Query(value = """
+        INSERT INTO accounts (client_id, currency, balance, status, version, created_at, updated_at)
+        SELECT ids.client_id, :currency, 0, 'ACTIVE', 0, now(), now()
+        FROM unnest(CAST(:clientIds AS VARCHAR[])) AS ids(client_id)
+        WHERE NOT EXISTS (SELECT 1 FROM accounts existing WHERE existing.client_id = ids.client_id)
+        ON CONFLICT (client_id, currency) DO NOTHING
+        """, nativeQuery = true)
+    int insertDefaultAccountsForClientsWithoutAny(
+        @Param("clientIds") String[] clientIds,
+        @Param("currency") String currency
+    );
 }
@@ -16,4 +16,6 @@ public interface AccountTransactionRepository extends JpaRepository<AccountTrans
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("select t from AccountTransaction t where t.idempotencyKey = :idempotencyKey")
     Optional<AccountTransaction> findByIdempotencyKeyForUpdate(@Param("idempotencyKey") String idempotencyKey);
+
+    boolean existsByIdempotencyKey(String idempotencyKey);
 }
@@ -0,0 +1,139 @@
+package com.bank.account.security;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+/**
+ * Remembers tokens that already passed the delegate decoder, keyed by a SHA-256 hash of the token,
+ * so a client polling with the same access token skips signature verification and claim parsing.
+ * An entry lives until the token's {@code exp}, capped at {@code maxTtl}; beyond {@code maxSize} the
+ * oldest entry goes first. Rejected tokens are never cached. Use {@link #evict(String)} and
+ * {@link #evictSubject(String)} when a token or a user's session is revoked.
+ *
+ * <p>Evictions only touch the map. The insertion-order queue keeps the evicted entries until they
+ * are polled, when they are skipped, or until it holds twice {@code maxSize} and is compacted.
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+
+    private final JwtDecoder delegate;
+    private final Map<TokenHash, Entry> entries = new ConcurrentHashMap<>();
+    private final Queue<Queued> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final int maxSize;
+    private final Duration maxTtl;
+    private final Clock clock;
+
+    public CachingJwtDecoder(JwtDecoder delegate, int maxSize, Duration maxTtl) {
+        this(delegate, maxSize, maxTtl, Clock.systemUTC());
+    }
+
+    CachingJwtDecoder(JwtDecoder delegate, int maxSize, Duration maxTtl, Clock clock) {
+        this.delegate = delegate;
+        this.maxSize = Math.max(maxSize, 1);
+        this.maxTtl = maxTtl;
+        this.clock = clock;
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        TokenHash hash = TokenHash.of(token);
+        Instant now = clock.instant();
+        Entry entry = entries.get(hash);
+        if (entry != null) {
+            if (now.isBefore(entry.expiresAt())) {
+                return entry.jwt();
+            }
+            entries.remove(hash, entry);
+        }
+
+        Jwt jwt = delegate.decode(token);
+        Instant expiresAt = now.plus(maxTtl);
+        if (jwt.getExpiresAt() != null && jwt.getExpiresAt().isBefore(expiresAt)) {
+            expiresAt = jwt.getExpiresAt();
+        }
+        if (now.isBefore(expiresAt)) {
+            put(hash, new Entry(jwt, expiresAt));
+        }
+        return jwt;
+    }
+
+    public void evict(String token) {
+        entries.remove(TokenHash.of(token));
+    }
+
+    /** Drops every cached token of a user, so the next request with any of them is verified again. */
+    public void evictSubject(String subject) {
+        entries.entrySet().removeIf(entry -> subject.equals(entry.getValue().jwt().getSubject()));
+    }
+
+    public void evictAll() {
+        entries.clear();
+        insertionOrder.clear();
+        queued.set(0);
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    int queuedSize() {
+        return queued.get();
+    }
+
+    private void put(TokenHash hash, Entry entry) {
+        entries.put(hash, entry);
+        insertionOrder.add(new Queued(hash, entry));
+        if (queued.incrementAndGet() > 2 * maxSize) {
+            compact();
+        }
+        while (entries.size() > maxSize) {
+            Queued oldest = insertionOrder.poll();
+            if (oldest == null) {
+                break;
+            }
+            queued.decrementAndGet();
+            // A no-op when the entry was already evicted or replaced since it was queued.
+            entries.remove(oldest.hash(), oldest.entry());
+        }
+    }
+
+    // Drops queued entries that are no longer cached; amortised over the maxSize puts that let it grow.
+    private void compact() {
+        insertionOrder.removeIf(candidate -> entries.get(candidate.hash()) != candidate.entry());
+        queued.set(insertionOrder.size());
+    }
+
+    // The first 128 bits of SHA-256: collision-resistant, and the raw token is never kept as a key.
+    private record TokenHash(long high, long low) {
+
+        static TokenHash of(String token) {
+            try {
+                byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+                ByteBuffer buffer = ByteBuffer.wrap(digest);
+                return new TokenHash(buffer.getLong(), buffer.getLong());
+            } catch (NoSuchAlgorithmException ex) {
+                throw new IllegalStateException("SHA-256 is not available", ex);
+            }
+        }
+    }
+
+    private record Entry(Jwt jwt, Instant expiresAt) {
+    }
+
+    private record Queued(TokenHash hash, Entry entry) {
+    }
+}
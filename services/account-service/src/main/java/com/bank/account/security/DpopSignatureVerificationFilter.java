@@ -10,33 +10,39 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletRequestWrapper;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.BufferedReader;
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 import org.springframework.stereotype.Component;
-import org.springframework.util.StreamUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
-import org.springframework.web.util.ContentCachingRequestWrapper;
 import org.springframework.web.servlet.HandlerExceptionResolver;
 
 @Component
 public class DpopSignatureVerificationFilter extends OncePerRequestFilter {
 
-    private static final int MAX_CACHED_REQUEST_BODY_SIZE = 1024 * 1024;
+    private static final int MAX_REQUEST_BODY_SIZE = 1024 * 1024;
     private static final String DEVICE_ID_HEADER = "X-Device-Id";
     private static final String TIMESTAMP_HEADER = "X-Timestamp";
     private static final String SIGNATURE_HEADER = "X-Signature";
 
     private final ClientDeviceService clientDeviceService;
+    private final RequestBodyBufferPool bufferPool;
     private final HandlerExceptionResolver handlerExceptionResolver;
 
     public DpopSignatureVerificationFilter(
         ClientDeviceService clientDeviceService,
+        RequestBodyBufferPool bufferPool,
         @Qualifier("handlerExceptionResolver") HandlerExceptionResolver handlerExceptionResolver
     ) {
         this.clientDeviceService = clientDeviceService;
+        this.bufferPool = bufferPool;
         this.handlerExceptionResolver = handlerExceptionResolver;
     }
 
@@ -61,49 +67,90 @@ public class DpopSignatureVerificationFilter extends OncePerRequestFilter {
         HttpServletResponse response,
         FilterChain filterChain
     ) throws ServletException, IOException {
-        ContentCachingRequestWrapper cachingRequest = new ContentCachingRequestWrapper(
-            request,
-            MAX_CACHED_REQUEST_BODY_SIZE
-        );
-        byte[] requestBody = StreamUtils.copyToByteArray(cachingRequest.getInputStream());
-        String rawJsonBody = new String(requestBody, StandardCharsets.UTF_8);
-
-        String deviceId = cachingRequest.getHeader(DEVICE_ID_HEADER);
-        String timestamp = cachingRequest.getHeader(TIMESTAMP_HEADER);
-        String signature = cachingRequest.getHeader(SIGNATURE_HEADER);
-
-        DpopVerificationResult verificationResult = clientDeviceService.verifyDpopRequest(
-            deviceId,
-            timestamp,
-            signature,
-            rawJsonBody
-        );
-
-        if (!verificationResult.valid()) {
-            DpopSecurityException exception = new DpopSecurityException(
-                verificationResult.status(),
-                verificationResult.message()
+        // The body is read once into a pooled buffer. Signature verification and the controller's JSON
+        // parsing both read that buffer in place; it returns to the pool once the chain completes.
+        byte[] pooledBuffer = bufferPool.acquire();
+        BufferedBody body = new BufferedBody(pooledBuffer);
+        try {
+            if (!body.readFrom(request.getInputStream())) {
+                reject(request, response, HttpStatus.CONTENT_TOO_LARGE,
+                    "Request body exceeds " + MAX_REQUEST_BODY_SIZE + " bytes");
+                return;
+            }
+
+            DpopVerificationResult verificationResult = clientDeviceService.verifyDpopRequest(
+                authenticatedUserId(),
+                request.getHeader(DEVICE_ID_HEADER),
+                request.getHeader(TIMESTAMP_HEADER),
+                request.getHeader(SIGNATURE_HEADER),
+                body.bytes,
+                body.length
             );
-            handlerExceptionResolver.resolveException(cachingRequest, response, null, exception);
-            return;
+
+            if (!verificationResult.valid()) {
+                reject(request, response, verificationResult.status(), verificationResult.message());
+                return;
+            }
+
+            filterChain.doFilter(new CachedBodyHttpServletRequest(request, body), response);
+        } finally {
+            bufferPool.release(pooledBuffer);
+        }
+    }
+
+    // Runs after BearerTokenAuthenticationFilter, so a valid access token is already in the context.
+    private static String authenticatedUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication instanceof JwtAuthenticationToken jwtAuthentication) {
+            return jwtAuthentication.getToken().getSubject();
+        }
+        return null;
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, HttpStatus status, String message) {
+        handlerExceptionResolver.resolveException(request, response, null, new DpopSecurityException(status, message));
+    }
+
+    /** Request body in {@code bytes[0, length)}; starts in a pooled buffer and grows by copying. */
+    private static final class BufferedBody {
+
+        private byte[] bytes;
+        private int length;
+
+        private BufferedBody(byte[] buffer) {
+            this.bytes = buffer;
         }
 
-        CachedBodyHttpServletRequest replayableRequest = new CachedBodyHttpServletRequest(cachingRequest, requestBody);
-        filterChain.doFilter(replayableRequest, response);
+        /** Returns false if the body is larger than {@link #MAX_REQUEST_BODY_SIZE}. */
+        private boolean readFrom(InputStream in) throws IOException {
+            while (true) {
+                if (length == bytes.length) {
+                    if (length >= MAX_REQUEST_BODY_SIZE) {
+                        return in.read() < 0;
+                    }
+                    bytes = Arrays.copyOf(bytes, Math.min(bytes.length * 2, MAX_REQUEST_BODY_SIZE));
+                }
+                int read = in.read(bytes, length, bytes.length - length);
+                if (read < 0) {
+                    return true;
+                }
+                length += read;
+            }
+        }
     }
 
     private static final class CachedBodyHttpServletRequest extends HttpServletRequestWrapper {
 
-        private final byte[] cachedBody;
+        private final BufferedBody body;
 
-        private CachedBodyHttpServletRequest(HttpServletRequest request, byte[] cachedBody) {
+        private CachedBodyHttpServletRequest(HttpServletRequest request, BufferedBody body) {
             super(request);
-            this.cachedBody = cachedBody == null ? new byte[0] : cachedBody;
+            this.body = body;
         }
 
         @Override
         public ServletInputStream getInputStream() {
-            return new CachedBodyServletInputStream(cachedBody);
+            return new CachedBodyServletInputStream(body.bytes, body.length);
         }
 
         @Override
@@ -113,31 +160,51 @@ public class DpopSignatureVerificationFilter extends OncePerRequestFilter {
 
         @Override
         public int getContentLength() {
-            return cachedBody.length;
+            return body.length;
         }
 
         @Override
         public long getContentLengthLong() {
-            return cachedBody.length;
+            return body.length;
         }
     }
 
     private static final class CachedBodyServletInputStream extends ServletInputStream {
 
-        private final ByteArrayInputStream bodyInputStream;
+        private final byte[] buffer;
+        private final int length;
+        private int position;
 
-        private CachedBodyServletInputStream(byte[] cachedBody) {
-            this.bodyInputStream = new ByteArrayInputStream(cachedBody);
+        private CachedBodyServletInputStream(byte[] buffer, int length) {
+            this.buffer = buffer;
+            this.length = length;
         }
 
         @Override
         public int read() {
-            return bodyInputStream.read();
+            return position < length ? buffer[position++] & 0xFF : -1;
+        }
+
+        // Bulk reads let Jackson consume the buffer in chunks instead of byte by byte.
+        @Override
+        public int read(byte[] target, int offset, int count) {
+            if (position >= length) {
+                return -1;
+            }
+            int read = Math.min(count, length - position);
+            System.arraycopy(buffer, position, target, offset, read);
+            position += read;
+            return read;
+        }
+
+        @Override
+        public int available() {
+            return length - position;
         }
 
         @Override
         public boolean isFinished() {
-            return bodyInputStream.available() == 0;
+            return position >= length;
         }
 
         @Override
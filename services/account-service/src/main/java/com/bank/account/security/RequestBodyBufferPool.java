@@ -0,0 +1,38 @@
+package com.bank.account.security;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reusable byte buffers for reading signed request bodies. Buffers of the standard size are recycled
+ * up to {@code pool-size}; a body that outgrows one gets a one-off larger array that is simply dropped
+ * on release.
+ */
+@Component
+public class RequestBodyBufferPool {
+
+    private final int bufferSize;
+    private final BlockingQueue<byte[]> buffers;
+
+    public RequestBodyBufferPool(
+        @Value("${banking.dpop.body-buffer.size:16384}") int bufferSize,
+        @Value("${banking.dpop.body-buffer.pool-size:64}") int poolSize
+    ) {
+        this.bufferSize = Math.max(bufferSize, 1024);
+        this.buffers = new ArrayBlockingQueue<>(Math.max(poolSize, 1));
+    }
+
+    public byte[] acquire() {
+        byte[] buffer = buffers.poll();
+        return buffer == null ? new byte[bufferSize] : buffer;
+    }
+
+    public void release(byte[] buffer) {
+        if (buffer != null && buffer.length == bufferSize) {
+            buffers.offer(buffer);
+        }
+    }
+}
@@ -1,63 +1,146 @@
 package com.bank.account.service;
 
-import java.math.BigDecimal;
-import java.time.Instant;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import com.bank.account.domain.Account;
+import com.bank.account.config.KafkaRetryTopics;
+import com.bank.account.inbox.ProcessedEventStore;
 import com.bank.account.repository.AccountRepository;
-import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 
 @Component
 public class AccountProvisioningConsumer {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(AccountProvisioningConsumer.class);
     private static final String DEFAULT_CURRENCY = "KGS";
+    private static final String DEDUP_SCOPE = "user-provisioning";
 
     private final AccountRepository accountRepository;
-    private final ObjectMapper objectMapper;
+    private final KeyOrderedBatchProcessor keyOrderedBatchProcessor;
+    private final KafkaRetryTopics kafkaRetryTopics;
+    private final ProcessedEventStore processedEventStore;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectReader payloadReader;
 
-    public AccountProvisioningConsumer(AccountRepository accountRepository, ObjectMapper objectMapper) {
+    public AccountProvisioningConsumer(
+        AccountRepository accountRepository,
+        KeyOrderedBatchProcessor keyOrderedBatchProcessor,
+        KafkaRetryTopics kafkaRetryTopics,
+        ProcessedEventStore processedEventStore,
+        PlatformTransactionManager transactionManager,
+        ObjectMapper objectMapper
+    ) {
         this.accountRepository = accountRepository;
-        this.objectMapper = objectMapper;
+        this.keyOrderedBatchProcessor = keyOrderedBatchProcessor;
+        this.kafkaRetryTopics = kafkaRetryTopics;
+        this.processedEventStore = processedEventStore;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.payloadReader = objectMapper.readerFor(UserRegisteredPayload.class);
     }
 
     @KafkaListener(
         topics = "${banking.kafka.topics.user-registered:user.registered.v1}",
-        groupId = "${spring.application.name:account-service}-user-provisioning"
+        groupId = "${spring.application.name:account-service}-user-provisioning",
+        containerFactory = "batchKafkaListenerContainerFactory"
     )
-    @Transactional
-    public void onUserRegistered(String message) {
-        String userId = extractUserId(message);
-        if (userId == null || userId.isBlank()) {
-            LOGGER.warn("Received user-registered event without userId");
+    public void onUserRegistered(List<ConsumerRecord<String, String>> records) {
+        keyOrderedBatchProcessor.process(records, this::provisionAccounts);
+    }
+
+    // One container per tier: a nack pauses its whole consumer, so tiers must not share one.
+    @KafkaListener(
+        topics = "${banking.kafka.topics.user-registered:user.registered.v1}.retry.1",
+        groupId = "${spring.application.name:account-service}-user-provisioning-retry",
+        containerFactory = "retryKafkaListenerContainerFactory"
+    )
+    @KafkaListener(
+        topics = "${banking.kafka.topics.user-registered:user.registered.v1}.retry.2",
+        groupId = "${spring.application.name:account-service}-user-provisioning-retry",
+        containerFactory = "retryKafkaListenerContainerFactory"
+    )
+    @KafkaListener(
+        topics = "${banking.kafka.topics.user-registered:user.registered.v1}.retry.3",
+        groupId = "${spring.application.name:account-service}-user-provisioning-retry",
+        containerFactory = "retryKafkaListenerContainerFactory"
+    )
+    public void onUserRegisteredRetry(ConsumerRecord<String, String> record, Acknowledgment acknowledgment) {
+        if (kafkaRetryTopics.deferIfNotDue(record, acknowledgment)) {
             return;
         }
+        provisionAccounts(List.of(record));
+        acknowledgment.acknowledge();
+    }
 
-        if (!accountRepository.findAllByClientId(userId).isEmpty()) {
-            LOGGER.debug("Accounts already exist for userId={}, skipping provisioning", userId);
+    private void provisionAccounts(List<ConsumerRecord<String, String>> records) {
+        // Parsed before the transaction: a bad payload goes to the DLT alone instead of rolling back
+        // the valid records of its lane.
+        List<ConsumerRecord<String, String>> valid = new ArrayList<>(records.size());
+        Map<ConsumerRecord<String, String>, String> userIdByRecord = new IdentityHashMap<>(records.size());
+        for (ConsumerRecord<String, String> record : records) {
+            try {
+                userIdByRecord.put(record, extractUserId(record));
+                valid.add(record);
+            } catch (InvalidEventPayloadException ex) {
+                LOGGER.warn("Dead-lettering user-registered event {}-{}@{}: {}",
+                    record.topic(), record.partition(), record.offset(), ex.getMessage());
+                keyOrderedBatchProcessor.reject(record, ex);
+            }
+        }
+        if (valid.isEmpty()) {
             return;
         }
 
-        Account account = Account.createNew(userId, DEFAULT_CURRENCY);
-        accountRepository.save(account);
-        LOGGER.info("Provisioned default {} account for userId={}", DEFAULT_CURRENCY, userId);
+        transactionTemplate.executeWithoutResult(status -> {
+            List<ConsumerRecord<String, String>> unprocessed =
+                processedEventStore.filterUnprocessed(DEDUP_SCOPE, valid);
+            if (unprocessed.isEmpty()) {
+                return;
+            }
+
+            Set<String> userIds = new LinkedHashSet<>();
+            for (ConsumerRecord<String, String> record : unprocessed) {
+                userIds.add(userIdByRecord.get(record));
+            }
+
+            int created = accountRepository.insertDefaultAccountsForClientsWithoutAny(
+                userIds.toArray(String[]::new),
+                DEFAULT_CURRENCY
+            );
+            processedEventStore.markProcessed(DEDUP_SCOPE, unprocessed);
+            LOGGER.info("Provisioned {} default {} accounts for {} user-registered events",
+                created, DEFAULT_CURRENCY, unprocessed.size());
+        });
     }
 
-    private String extractUserId(String message) {
+    private String extractUserId(ConsumerRecord<String, String> record) {
+        UserRegisteredPayload payload;
         try {
-            JsonNode node = objectMapper.readTree(message);
-            JsonNode userIdNode = node.get("userId");
-            return userIdNode == null || userIdNode.isNull() ? null : userIdNode.asText();
+            payload = record.value() == null ? null : payloadReader.readValue(record.value());
         } catch (Exception ex) {
-            LOGGER.warn("Failed to parse user-registered event: {}", message, ex);
-            return null;
+            throw new InvalidEventPayloadException("Failed to parse user-registered event", ex);
         }
+        if (payload == null || payload.userId() == null || payload.userId().isBlank()) {
+            throw new InvalidEventPayloadException("User-registered event without userId");
+        }
+        return payload.userId();
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    private record UserRegisteredPayload(String userId) {
     }
 }
@@ -9,8 +9,10 @@ import org.redisson.api.RLock;
 import org.redisson.api.RedissonClient;
 import org.springframework.stereotype.Service;
 
+import com.bank.account.client.FraudScoringClient;
 import com.bank.account.config.RedisLockProperties;
 import com.bank.account.repository.AccountRepository;
+import com.bank.account.repository.AccountTransactionRepository;
 
 @Service
 public class AccountTransferService {
@@ -19,18 +21,24 @@ public class AccountTransferService {
     private static final String SYSTEM_USER_ID = "SYSTEM";
 
     private final AccountRepository accountRepository;
+    private final AccountTransactionRepository accountTransactionRepository;
     private final TransferTransactionHelper txHelper;
+    private final FraudScoringClient fraudScoringClient;
     private final RedissonClient redissonClient;
     private final RedisLockProperties redisLockProperties;
 
     public AccountTransferService(
         AccountRepository accountRepository,
+        AccountTransactionRepository accountTransactionRepository,
         TransferTransactionHelper txHelper,
+        FraudScoringClient fraudScoringClient,
         RedissonClient redissonClient,
         RedisLockProperties redisLockProperties
     ) {
         this.accountRepository = accountRepository;
+        this.accountTransactionRepository = accountTransactionRepository;
         this.txHelper = txHelper;
+        this.fraudScoringClient = fraudScoringClient;
         this.redissonClient = redissonClient;
         this.redisLockProperties = redisLockProperties;
     }
@@ -40,6 +48,11 @@ public class AccountTransferService {
         if (!SYSTEM_USER_ID.equals(command.userId())) {
             verifySourceAccountOwnership(command);
         }
+        // Outside the transaction and before any lock, so a slow fraud-service never holds a connection
+        // or row locks. Replays of a booked transfer skip it and get their stored result.
+        if (!accountTransactionRepository.existsByIdempotencyKey(command.idempotencyKey())) {
+            fraudScoringClient.requireAllowed(command);
+        }
 
         List<RLock> locks = acquireAccountLocks(command.fromAccountId(), command.toAccountId(), SYSTEM_ACCOUNT_ID);
         try {
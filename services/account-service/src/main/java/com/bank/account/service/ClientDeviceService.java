@@ -2,6 +2,7 @@ package com.bank.account.service;
 
 import com.bank.account.domain.ClientDevice;
 import com.bank.account.repository.ClientDeviceRepository;
+import com.bank.account.service.DevicePublicKeyCache.DevicePublicKey;
 import java.nio.charset.StandardCharsets;
 import java.security.GeneralSecurityException;
 import java.security.KeyFactory;
@@ -14,32 +15,78 @@ import java.time.Duration;
 import java.time.Instant;
 import java.time.format.DateTimeParseException;
 import java.util.Base64;
-import java.util.Optional;
-import org.springframework.data.redis.core.StringRedisTemplate;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.StringUtils;
 
 @Service
 public class ClientDeviceService {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(ClientDeviceService.class);
+
     private static final Duration MAX_DPOP_REQUEST_AGE = Duration.ofMinutes(5);
-    private static final String NONCE_KEY_PREFIX = "dpop:nonce:";
+    private static final Pattern PEM_BOUNDARY = Pattern.compile("-----(BEGIN|END)[^-]*-----");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final int PRELOAD_PAGE_SIZE = 500;
 
     private final ClientDeviceRepository clientDeviceRepository;
-    private final StringRedisTemplate redisTemplate;
+    private final DpopReplayGuard replayGuard;
+    private final DevicePublicKeyCache devicePublicKeyCache;
     private final Clock clock;
 
     public ClientDeviceService(
         ClientDeviceRepository clientDeviceRepository,
-        StringRedisTemplate redisTemplate
+        DpopReplayGuard replayGuard,
+        DevicePublicKeyCache devicePublicKeyCache
     ) {
         this.clientDeviceRepository = clientDeviceRepository;
-        this.redisTemplate = redisTemplate;
+        this.replayGuard = replayGuard;
+        this.devicePublicKeyCache = devicePublicKeyCache;
         this.clock = Clock.systemUTC();
     }
 
+    /** Warms the key cache with the most recently registered devices, up to its capacity. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void preloadDevicePublicKeys() {
+        int loaded = 0;
+        try {
+            Slice<ClientDevice> page = clientDeviceRepository.findAllByOrderByCreatedAtDesc(
+                PageRequest.of(0, PRELOAD_PAGE_SIZE)
+            );
+            while (true) {
+                for (ClientDevice device : page) {
+                    if (devicePublicKeyCache.isFull()) {
+                        break;
+                    }
+                    try {
+                        devicePublicKeyCache.put(device.getDeviceId(), toDevicePublicKey(device));
+                        loaded++;
+                    } catch (IllegalArgumentException ex) {
+                        LOGGER.warn("Skipping undecodable public key of deviceId={}", device.getDeviceId());
+                    }
+                }
+                if (!page.hasNext() || devicePublicKeyCache.isFull()) {
+                    break;
+                }
+                page = clientDeviceRepository.findAllByOrderByCreatedAtDesc(page.nextPageable());
+            }
+        } catch (RuntimeException ex) {
+            LOGGER.warn("Device public key preload stopped after {} keys", loaded, ex);
+            return;
+        }
+        LOGGER.info("Preloaded {} device public keys", loaded);
+    }
+
     @Transactional
     public ClientDevice registerDevice(String userId, String deviceId, String base64PublicKey) {
         if (!StringUtils.hasText(userId)) {
@@ -60,14 +107,35 @@ public class ClientDeviceService {
         String normalizedPublicKey = Base64.getEncoder().encodeToString(publicKey.getEncoded());
 
         ClientDevice clientDevice = ClientDevice.registered(userId.trim(), deviceId.trim(), normalizedPublicKey);
-        return clientDeviceRepository.save(clientDevice);
+        ClientDevice saved = clientDeviceRepository.save(clientDevice);
+        evictAfterCommit(saved.getDeviceId());
+        return saved;
     }
 
+    private void evictAfterCommit(String deviceId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            devicePublicKeyCache.evict(deviceId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                devicePublicKeyCache.evict(deviceId);
+            }
+        });
+    }
+
+    /**
+     * Checks a signed request: headers present, timestamp fresh, signature valid for the device's key,
+     * device owned by {@code authenticatedUserId} (the JWT subject), and signature not seen before.
+     */
     public DpopVerificationResult verifyDpopRequest(
+        String authenticatedUserId,
         String deviceIdHeader,
         String timestampHeader,
         String signatureHeader,
-        String rawJsonBody
+        byte[] body,
+        int bodyLength
     ) {
         if (!StringUtils.hasText(deviceIdHeader)
             || !StringUtils.hasText(timestampHeader)
@@ -90,32 +158,34 @@ public class ClientDeviceService {
             return DpopVerificationResult.failure(HttpStatus.BAD_REQUEST, "DPoP timestamp is in the future");
         }
 
-        String nonceKey = NONCE_KEY_PREFIX + signatureHeader.substring(0, Math.min(signatureHeader.length(), 64));
-        Boolean isNew = redisTemplate.opsForValue().setIfAbsent(nonceKey, "1", MAX_DPOP_REQUEST_AGE);
-        if (Boolean.FALSE.equals(isNew)) {
-            return DpopVerificationResult.failure(HttpStatus.UNAUTHORIZED, "DPoP signature replay detected");
-        }
-
-        Optional<ClientDevice> clientDeviceOptional = clientDeviceRepository.findByDeviceId(deviceIdHeader);
-        if (clientDeviceOptional.isEmpty()) {
-            return DpopVerificationResult.failure(HttpStatus.UNAUTHORIZED, "Unknown device");
-        }
-
-        ClientDevice clientDevice = clientDeviceOptional.get();
-        String signedPayload = timestampHeader + (rawJsonBody == null ? "" : rawJsonBody);
-
         try {
-            PublicKey publicKey = decodePublicKey(clientDevice.getPublicKey());
-            boolean verified = verifySignature(signedPayload, signatureHeader, publicKey);
+            DevicePublicKey devicePublicKey = devicePublicKeyCache.get(deviceIdHeader, this::loadDevicePublicKey);
+            if (devicePublicKey == null) {
+                return DpopVerificationResult.failure(HttpStatus.UNAUTHORIZED, "Unknown device");
+            }
+            boolean verified = verifySignature(timestampHeader, body, bodyLength, signatureHeader, devicePublicKey);
             if (!verified) {
                 return DpopVerificationResult.failure(HttpStatus.UNAUTHORIZED, "Invalid DPoP signature");
             }
+            // A valid signature only proves possession of that device's key; the device must also be
+            // bound to the user the access token was issued to.
+            if (authenticatedUserId == null || !authenticatedUserId.equals(devicePublicKey.userId())) {
+                return DpopVerificationResult.failure(HttpStatus.UNAUTHORIZED, "Device is not bound to this user");
+            }
         } catch (IllegalArgumentException ex) {
             return DpopVerificationResult.failure(HttpStatus.BAD_REQUEST, ex.getMessage());
         } catch (GeneralSecurityException ex) {
             return DpopVerificationResult.failure(HttpStatus.UNAUTHORIZED, "Invalid DPoP signature");
         }
 
+        // Only verified signatures are recorded, so forged requests cannot fill the replay window.
+        DpopReplayGuard.Verdict replayVerdict = replayGuard.checkAndRecord(signatureHeader);
+        if (replayVerdict == DpopReplayGuard.Verdict.REPLAY) {
+            return DpopVerificationResult.failure(HttpStatus.UNAUTHORIZED, "DPoP signature replay detected");
+        }
+        if (replayVerdict == DpopReplayGuard.Verdict.UNAVAILABLE) {
+            return DpopVerificationResult.failure(HttpStatus.SERVICE_UNAVAILABLE, "DPoP replay check unavailable");
+        }
         return DpopVerificationResult.success();
     }
 
@@ -133,13 +203,23 @@ public class ClientDeviceService {
         }
     }
 
+    private DevicePublicKey loadDevicePublicKey(String deviceId) {
+        return clientDeviceRepository.findByDeviceId(deviceId)
+            .map(ClientDeviceService::toDevicePublicKey)
+            .orElse(null);
+    }
+
+    private static DevicePublicKey toDevicePublicKey(ClientDevice clientDevice) {
+        PublicKey publicKey = decodePublicKey(clientDevice.getPublicKey());
+        // Use ECDSA for EC keys, RSA for RSA keys
+        String algorithm = (publicKey instanceof ECPublicKey) ? "SHA256withECDSA" : "SHA256withRSA";
+        return new DevicePublicKey(clientDevice.getUserId(), publicKey, algorithm);
+    }
+
     // Supports both EC and RSA public keys, with or without PEM headers
-    private PublicKey decodePublicKey(String publicKeyInput) {
+    private static PublicKey decodePublicKey(String publicKeyInput) {
         try {
-            String base64 = publicKeyInput
-                .replaceAll("-----BEGIN[^-]*-----", "")
-                .replaceAll("-----END[^-]*-----", "")
-                .replaceAll("\\s+", "");
+            String base64 = WHITESPACE.matcher(PEM_BOUNDARY.matcher(publicKeyInput).replaceAll("")).replaceAll("");
             byte[] keyBytes = Base64.getDecoder().decode(base64);
             X509EncodedKeySpec keySpec = new X509EncodedKeySpec(keyBytes);
 
@@ -156,8 +236,14 @@ public class ClientDeviceService {
         }
     }
 
-    private boolean verifySignature(String payload, String base64Signature, PublicKey publicKey)
-        throws GeneralSecurityException {
+    // The signed payload is timestamp + body; both parts are fed to the verifier without concatenating.
+    private boolean verifySignature(
+        String timestamp,
+        byte[] body,
+        int bodyLength,
+        String base64Signature,
+        DevicePublicKey devicePublicKey
+    ) throws GeneralSecurityException {
         byte[] signatureBytes;
         try {
             signatureBytes = Base64.getDecoder().decode(base64Signature);
@@ -165,11 +251,12 @@ public class ClientDeviceService {
             throw new IllegalArgumentException("X-Signature must be a valid Base64 string", ex);
         }
 
-        // Use ECDSA for EC keys, RSA for RSA keys
-        String algorithm = (publicKey instanceof ECPublicKey) ? "SHA256withECDSA" : "SHA256withRSA";
-        Signature verifier = Signature.getInstance(algorithm);
-        verifier.initVerify(publicKey);
-        verifier.update(payload.getBytes(StandardCharsets.UTF_8));
+        Signature verifier = Signature.getInstance(devicePublicKey.signatureAlgorithm());
+        verifier.initVerify(devicePublicKey.publicKey());
+        verifier.update(timestamp.getBytes(StandardCharsets.UTF_8));
+        if (body != null && bodyLength > 0) {
+            verifier.update(body, 0, bodyLength);
+        }
         return verifier.verify(signatureBytes);
     }
 
@@ -0,0 +1,140 @@
+package com.bank.account.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.stereotype.Service;
+
+import com.bank.account.config.KafkaRetryTopics;
+
+/**
+ * Re-drives records parked in {@code <topic>.dlt} back onto {@code <topic>} in bulk. Progress is
+ * committed under a dedicated consumer group after each forwarded poll, so a replay that stops half
+ * way resumes where it left off.
+ */
+@Service
+public class DeadLetterReplayService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DeadLetterReplayService.class);
+    private static final Duration POLL_TIMEOUT = Duration.ofSeconds(2);
+
+    private final ConsumerFactory<String, String> consumerFactory;
+    private final KafkaTemplate<String, String> retryKafkaTemplate;
+    private final Set<String> replayableTopics;
+    private final String replayGroupId;
+    private final int maxRecordsPerReplay;
+    private final long sendTimeoutSeconds;
+
+    public DeadLetterReplayService(
+        ConsumerFactory<String, String> consumerFactory,
+        KafkaTemplate<String, String> retryKafkaTemplate,
+        @Value("${banking.kafka.topics.user-registered:user.registered.v1}") String userRegisteredTopic,
+        @Value("${banking.kafka.topics.fraud-alerts:fraud.alerts}") String fraudAlertsTopic,
+        @Value("${spring.application.name:account-service}") String applicationName,
+        @Value("${banking.kafka.dlt-replay.max-records:10000}") int maxRecordsPerReplay,
+        @Value("${banking.outbox.publish-timeout-seconds:10}") long sendTimeoutSeconds
+    ) {
+        this.consumerFactory = consumerFactory;
+        this.retryKafkaTemplate = retryKafkaTemplate;
+        this.replayableTopics = Set.of(userRegisteredTopic, fraudAlertsTopic);
+        this.replayGroupId = applicationName + "-dlt-replay";
+        this.maxRecordsPerReplay = maxRecordsPerReplay;
+        this.sendTimeoutSeconds = sendTimeoutSeconds;
+    }
+
+    public synchronized int replay(String topic, int limit) {
+        if (!replayableTopics.contains(topic)) {
+            throw new IllegalArgumentException("Topic has no dead-letter replay: " + topic);
+        }
+        int maxRecords = Math.min(Math.max(limit, 1), maxRecordsPerReplay);
+        String deadLetterTopic = KafkaRetryTopics.deadLetterTopic(topic);
+
+        Properties overrides = new Properties();
+        overrides.setProperty(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false");
+        overrides.setProperty(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, Integer.toString(Math.min(maxRecords, 500)));
+
+        int replayed = 0;
+        try (Consumer<String, String> consumer = consumerFactory.createConsumer(replayGroupId, null, null, overrides)) {
+            List<PartitionInfo> partitions = consumer.partitionsFor(deadLetterTopic);
+            if (partitions == null || partitions.isEmpty()) {
+                return 0;
+            }
+            consumer.assign(partitions.stream()
+                .map(partition -> new TopicPartition(partition.topic(), partition.partition()))
+                .toList());
+
+            while (replayed < maxRecords) {
+                ConsumerRecords<String, String> records = consumer.poll(POLL_TIMEOUT);
+                if (records.isEmpty()) {
+                    break;
+                }
+
+                Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+                List<CompletableFuture<?>> sends = new ArrayList<>(records.count());
+                for (ConsumerRecord<String, String> record : records) {
+                    if (replayed >= maxRecords) {
+                        break;
+                    }
+                    sends.add(retryKafkaTemplate.send(new ProducerRecord<>(
+                        topic, null, record.key(), record.value(), replayHeaders(record)
+                    )));
+                    offsets.put(
+                        new TopicPartition(record.topic(), record.partition()),
+                        new OffsetAndMetadata(record.offset() + 1)
+                    );
+                    replayed++;
+                }
+
+                CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new))
+                    .get(sendTimeoutSeconds, TimeUnit.SECONDS);
+                consumer.commitSync(offsets);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Dead-letter replay interrupted", ex);
+        } catch (ExecutionException | TimeoutException ex) {
+            throw new IllegalStateException("Dead-letter replay failed to forward records", ex);
+        }
+
+        LOGGER.info("Replayed {} records from {} to {}", replayed, deadLetterTopic, topic);
+        return replayed;
+    }
+
+    // Drop the failure metadata added on the way to the DLT; keep the producer's own headers.
+    private static RecordHeaders replayHeaders(ConsumerRecord<String, String> record) {
+        RecordHeaders headers = new RecordHeaders();
+        for (Header header : record.headers()) {
+            if (header.key().startsWith(KafkaHeaders.PREFIX + "dlt-")
+                || KafkaRetryTopics.DUE_AT_HEADER.equals(header.key())) {
+                continue;
+            }
+            headers.add(header);
+        }
+        return headers;
+    }
+}
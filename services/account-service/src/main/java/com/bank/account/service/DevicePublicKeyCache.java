@@ -0,0 +1,113 @@
+package com.bank.account.service;
+
+import java.security.PublicKey;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Parsed device public keys by deviceId, so DPoP verification skips the repository lookup and key
+ * decoding. Bounded by size (oldest loaded entry evicted first) and by age. Devices are bound and
+ * unbound in auth-service, which has no way to reach this cache, so {@code ttl} is the revocation
+ * bound: a key removed or replaced there is still accepted here for at most that long. Misses are
+ * not cached.
+ *
+ * <p>Evictions only touch the map. The load-order queue keeps the evicted entries until they are
+ * polled, when they are skipped, or until it holds twice {@code maxSize} and is compacted.
+ */
+@Component
+public class DevicePublicKeyCache {
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Queue<Queued> loadOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final int maxSize;
+    private final long ttlNanos;
+
+    public DevicePublicKeyCache(
+        @Value("${banking.dpop.key-cache.max-size:10000}") int maxSize,
+        @Value("${banking.dpop.key-cache.ttl:10m}") Duration ttl
+    ) {
+        this.maxSize = Math.max(maxSize, 1);
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    public DevicePublicKey get(String deviceId, Function<String, DevicePublicKey> loader) {
+        Entry entry = entries.get(deviceId);
+        if (entry != null && System.nanoTime() - entry.loadedAtNanos() < ttlNanos) {
+            return entry.key();
+        }
+
+        DevicePublicKey loaded = loader.apply(deviceId);
+        if (loaded == null) {
+            entries.remove(deviceId);
+        } else {
+            put(deviceId, loaded);
+        }
+        return loaded;
+    }
+
+    public void put(String deviceId, DevicePublicKey key) {
+        Entry entry = new Entry(key, System.nanoTime());
+        entries.put(deviceId, entry);
+        loadOrder.add(new Queued(deviceId, entry));
+        if (queued.incrementAndGet() > 2 * maxSize) {
+            compact();
+        }
+        while (entries.size() > maxSize) {
+            Queued oldest = loadOrder.poll();
+            if (oldest == null) {
+                break;
+            }
+            queued.decrementAndGet();
+            // A no-op when the entry was already evicted or reloaded since it was queued.
+            entries.remove(oldest.deviceId(), oldest.entry());
+        }
+    }
+
+    public boolean isFull() {
+        return entries.size() >= maxSize;
+    }
+
+    /** Drops a device's key, e.g. after it was registered through this service. */
+    public void evict(String deviceId) {
+        entries.remove(deviceId);
+    }
+
+    public void evictAll() {
+        entries.clear();
+        loadOrder.clear();
+        queued.set(0);
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    int queuedSize() {
+        return queued.get();
+    }
+
+    // Drops queued entries that are no longer cached; amortised over the maxSize puts that let it grow.
+    private void compact() {
+        loadOrder.removeIf(candidate -> entries.get(candidate.deviceId()) != candidate.entry());
+        queued.set(loadOrder.size());
+    }
+
+    /** A decoded key together with the JCA signature algorithm that verifies with it. */
+    public record DevicePublicKey(String userId, PublicKey publicKey, String signatureAlgorithm) {
+    }
+
+    private record Entry(DevicePublicKey key, long loadedAtNanos) {
+    }
+
+    private record Queued(String deviceId, Entry entry) {
+    }
+}
@@ -0,0 +1,299 @@
+package com.bank.account.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.bank.account.inbox.TimeBucketedBloomFilter;
+
+/**
+ * Replay detection for DPoP signatures. The default mode {@code REDIS} checks every signature with a
+ * per-request {@code SET NX}, which is strict across pods. {@code LOCAL_FIRST} is opt-in and answers
+ * the common case from memory, as described below, at the cost of a small cross-pod replay gap.
+ *
+ * <p>In {@code LOCAL_FIRST} mode every accepted signature is fingerprinted into a
+ * {@link TimeBucketedBloomFilter} of one-minute buckets covering the replay window. Fingerprints are
+ * flushed in batches to one Redis set per minute and broadcast to the other pods, which add them to
+ * their own filters. Redis is only asked when the local filter reports a possible hit, so a fresh
+ * signature costs no network hop; if Redis cannot answer that question the request is refused rather
+ * than let through.
+ *
+ * <p>Pub/sub is at-most-once, so the broadcast alone cannot be trusted: until the peer channel is
+ * subscribed and the window has been reloaded from Redis, and again from an unsubscribe until the next
+ * subscription, every signature is looked up in Redis. Each (re)subscription reloads the window, which
+ * also recovers fingerprints broadcast while the subscription was down.
+ *
+ * <p>A replay sent to another pod within one flush interval plus pub/sub delivery of the original can
+ * slip through, which is why this mode is not the default.
+ */
+@Component
+public class DpopReplayGuard {
+
+    public static final String CHANNEL = "dpop:replay:seen";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DpopReplayGuard.class);
+
+    private static final String SEEN_KEY_PREFIX = "dpop:seen:";
+    private static final String NONCE_KEY_PREFIX = "dpop:nonce:";
+    private static final long BUCKET_MILLIS = Duration.ofMinutes(1).toMillis();
+    private static final long LOCAL_RETENTION_MILLIS = Duration.ofSeconds(2).toMillis();
+    private static final int FINGERPRINT_BYTES = 16;
+    private static final int MAX_FLUSH_BATCH = 5000;
+    private static final Base64.Encoder FINGERPRINT_ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    public enum Mode {
+        LOCAL_FIRST,
+        REDIS
+    }
+
+    public enum Verdict {
+        FRESH,
+        REPLAY,
+        UNAVAILABLE
+    }
+
+    private enum PeerFeed {
+        DOWN,
+        RELOADING,
+        LIVE
+    }
+
+    private final StringRedisTemplate redisTemplate;
+    private final Mode mode;
+    private final Duration window;
+    private final int windowBuckets;
+    private final TimeBucketedBloomFilter filter;
+    private final Map<String, Long> recent = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Seen> unflushed = new ConcurrentLinkedQueue<>();
+    private final Clock clock;
+    private final AtomicReference<PeerFeed> peerFeed = new AtomicReference<>(PeerFeed.DOWN);
+
+    public DpopReplayGuard(
+        StringRedisTemplate redisTemplate,
+        @Value("${banking.dpop.replay.mode:REDIS}") Mode mode,
+        @Value("${banking.dpop.replay.window:6m}") Duration window,
+        @Value("${banking.dpop.replay.expected-per-minute:200000}") int expectedPerMinute,
+        @Value("${banking.dpop.replay.false-positive-rate:0.001}") double falsePositiveRate
+    ) {
+        this.redisTemplate = redisTemplate;
+        this.mode = mode;
+        this.window = window;
+        this.windowBuckets = (int) Math.max(1, (window.toMillis() + BUCKET_MILLIS - 1) / BUCKET_MILLIS);
+        // One spare bucket so an entry from the end of a minute is still visible a full window later.
+        this.filter = new TimeBucketedBloomFilter(
+            Duration.ofMillis(BUCKET_MILLIS),
+            windowBuckets + 1,
+            expectedPerMinute,
+            falsePositiveRate
+        );
+        this.clock = Clock.systemUTC();
+    }
+
+    /**
+     * Records the signature and reports whether it was already used within the window. Call only for
+     * signatures that verified, so forged traffic never reaches the filter or Redis.
+     */
+    public Verdict checkAndRecord(String signature) {
+        String fingerprint = fingerprint(signature);
+        if (mode == Mode.REDIS) {
+            return checkAndRecordInRedis(fingerprint);
+        }
+
+        long now = clock.millis();
+        if (peerFeed.get() != PeerFeed.LIVE || filter.mightContain(fingerprint)) {
+            if (recent.containsKey(fingerprint)) {
+                return Verdict.REPLAY;
+            }
+            try {
+                if (seenInRedis(fingerprint, now)) {
+                    return Verdict.REPLAY;
+                }
+            } catch (RuntimeException ex) {
+                LOGGER.warn("DPoP replay lookup failed, refusing request", ex);
+                return Verdict.UNAVAILABLE;
+            }
+        }
+
+        // Added to the filter before claiming the fingerprint, so a concurrent duplicate either loses
+        // the claim below or sees a possible hit and finds it here or in Redis.
+        filter.add(fingerprint, now);
+        if (recent.putIfAbsent(fingerprint, now) != null) {
+            return Verdict.REPLAY;
+        }
+        unflushed.add(new Seen(fingerprint, now));
+        return Verdict.FRESH;
+    }
+
+    /**
+     * Writes recorded fingerprints to the per-minute Redis sets, then announces them to the other pods.
+     * Also runs a pending reload of the window after a (re)subscription.
+     */
+    @Scheduled(
+        fixedDelayString = "${banking.dpop.replay.flush-interval:100}",
+        initialDelayString = "${banking.dpop.replay.flush-interval:100}"
+    )
+    public void flush() {
+        if (mode == Mode.REDIS) {
+            return;
+        }
+        if (peerFeed.get() == PeerFeed.RELOADING && warmUp()) {
+            peerFeed.compareAndSet(PeerFeed.RELOADING, PeerFeed.LIVE);
+        }
+        long now = clock.millis();
+        recent.values().removeIf(seenAt -> seenAt < now - LOCAL_RETENTION_MILLIS);
+
+        while (!unflushed.isEmpty()) {
+            List<Seen> batch = new ArrayList<>();
+            Seen seen;
+            while (batch.size() < MAX_FLUSH_BATCH && (seen = unflushed.poll()) != null) {
+                batch.add(seen);
+            }
+            if (!publish(batch)) {
+                unflushed.addAll(batch);
+                return;
+            }
+        }
+    }
+
+    /** Adds fingerprints announced by another pod; the message is a comma-separated list. */
+    public void recordPeerFingerprints(String message) {
+        long now = clock.millis();
+        int start = 0;
+        while (start < message.length()) {
+            int end = message.indexOf(',', start);
+            if (end < 0) {
+                end = message.length();
+            }
+            if (end > start) {
+                filter.add(message.substring(start, end), now);
+            }
+            start = end + 1;
+        }
+    }
+
+    /**
+     * Called when the peer channel is (re)subscribed. The next flush reloads the window from Redis and
+     * only then lets the local filter answer; the reload is retried on every flush until it succeeds.
+     * Not done here, as the callback may run on the Redis client's I/O thread.
+     */
+    public void onPeerFeedSubscribed() {
+        peerFeed.set(PeerFeed.RELOADING);
+    }
+
+    /** Called when the peer channel is unsubscribed: every check goes to Redis until it is back. */
+    public void onPeerFeedLost() {
+        peerFeed.set(PeerFeed.DOWN);
+    }
+
+    /** Reloads the current window from Redis, so fingerprints the broadcast did not deliver are known. */
+    private boolean warmUp() {
+        long currentMinute = clock.millis() / BUCKET_MILLIS;
+        int loaded = 0;
+        try {
+            for (long minute = currentMinute - windowBuckets; minute <= currentMinute; minute++) {
+                long minuteStart = minute * BUCKET_MILLIS;
+                ScanOptions options = ScanOptions.scanOptions().count(10_000).build();
+                try (Cursor<String> members = redisTemplate.opsForSet().scan(SEEN_KEY_PREFIX + minute, options)) {
+                    while (members.hasNext()) {
+                        filter.add(members.next(), minuteStart);
+                        loaded++;
+                    }
+                }
+            }
+            LOGGER.info("Loaded {} recent DPoP signature fingerprints", loaded);
+            return true;
+        } catch (RuntimeException ex) {
+            LOGGER.warn("Failed to load recent DPoP signature fingerprints, loaded {}; checking Redis per request",
+                loaded, ex);
+            return false;
+        }
+    }
+
+    private boolean publish(List<Seen> batch) {
+        Map<Long, List<String>> byMinute = new HashMap<>();
+        StringBuilder message = new StringBuilder(batch.size() * 23);
+        for (Seen seen : batch) {
+            byMinute.computeIfAbsent(seen.seenAt() / BUCKET_MILLIS, minute -> new ArrayList<>())
+                .add(seen.fingerprint());
+            if (message.length() > 0) {
+                message.append(',');
+            }
+            message.append(seen.fingerprint());
+        }
+
+        long ttlSeconds = window.plusMinutes(1).toSeconds();
+        try {
+            // Redis first: a peer that learns a fingerprint from the broadcast must be able to confirm it.
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection strings = (StringRedisConnection) connection;
+                byMinute.forEach((minute, fingerprints) -> {
+                    String key = SEEN_KEY_PREFIX + minute;
+                    strings.sAdd(key, fingerprints.toArray(String[]::new));
+                    strings.expire(key, ttlSeconds);
+                });
+                return null;
+            });
+            redisTemplate.convertAndSend(CHANNEL, message.toString());
+            return true;
+        } catch (RuntimeException ex) {
+            LOGGER.warn("Failed to flush {} DPoP signature fingerprints, will retry", batch.size(), ex);
+            return false;
+        }
+    }
+
+    private boolean seenInRedis(String fingerprint, long now) {
+        long currentMinute = now / BUCKET_MILLIS;
+        List<Object> members = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection strings = (StringRedisConnection) connection;
+            for (long minute = currentMinute - windowBuckets; minute <= currentMinute; minute++) {
+                strings.sIsMember(SEEN_KEY_PREFIX + minute, fingerprint);
+            }
+            return null;
+        });
+        return members.contains(Boolean.TRUE);
+    }
+
+    private Verdict checkAndRecordInRedis(String fingerprint) {
+        try {
+            Boolean isNew = redisTemplate.opsForValue().setIfAbsent(NONCE_KEY_PREFIX + fingerprint, "1", window);
+            return Boolean.FALSE.equals(isNew) ? Verdict.REPLAY : Verdict.FRESH;
+        } catch (RuntimeException ex) {
+            LOGGER.warn("DPoP replay check failed, refusing request", ex);
+            return Verdict.UNAVAILABLE;
+        }
+    }
+
+    private static String fingerprint(String signature) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(signature.getBytes(StandardCharsets.UTF_8));
+            return FINGERPRINT_ENCODER.encodeToString(Arrays.copyOf(digest, FINGERPRINT_BYTES));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+
+    private record Seen(String fingerprint, long seenAt) {
+    }
+}
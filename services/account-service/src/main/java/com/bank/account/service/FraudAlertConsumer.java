@@ -1,57 +1,176 @@
 package com.bank.account.service;
 
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.bank.account.config.KafkaRetryTopics;
+import com.bank.account.inbox.ProcessedEventStore;
 import com.bank.account.repository.AccountRepository;
-import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 
+/**
+ * Freezes accounts on blocking fraud alerts. Alerts without a risk score block at HIGH or CRITICAL
+ * severity (or when no severity is given); scored alerts block from {@code freeze-min-risk-score} on.
+ * Everything else, e.g. MEDIUM velocity alerts, is advisory: logged and marked processed.
+ */
 @Component
 public class FraudAlertConsumer {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(FraudAlertConsumer.class);
+    private static final String DEDUP_SCOPE = "fraud-alerts";
 
     private final AccountRepository accountRepository;
-    private final ObjectMapper objectMapper;
+    private final KeyOrderedBatchProcessor keyOrderedBatchProcessor;
+    private final KafkaRetryTopics kafkaRetryTopics;
+    private final ProcessedEventStore processedEventStore;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectReader payloadReader;
+    private final int freezeMinRiskScore;
 
     public FraudAlertConsumer(
         AccountRepository accountRepository,
-        ObjectMapper objectMapper
+        KeyOrderedBatchProcessor keyOrderedBatchProcessor,
+        KafkaRetryTopics kafkaRetryTopics,
+        ProcessedEventStore processedEventStore,
+        PlatformTransactionManager transactionManager,
+        ObjectMapper objectMapper,
+        @Value("${banking.fraud-alerts.freeze-min-risk-score:70}") int freezeMinRiskScore
     ) {
         this.accountRepository = accountRepository;
-        this.objectMapper = objectMapper;
+        this.keyOrderedBatchProcessor = keyOrderedBatchProcessor;
+        this.kafkaRetryTopics = kafkaRetryTopics;
+        this.processedEventStore = processedEventStore;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.payloadReader = objectMapper.readerFor(FraudAlertPayload.class);
+        this.freezeMinRiskScore = freezeMinRiskScore;
     }
 
     @KafkaListener(
         topics = "${banking.kafka.topics.fraud-alerts:fraud.alerts}",
-        groupId = "${spring.application.name:account-service}-fraud-alerts"
+        groupId = "${spring.application.name:account-service}-fraud-alerts",
+        containerFactory = "batchKafkaListenerContainerFactory"
+    )
+    public void onFraudAlerts(List<ConsumerRecord<String, String>> records) {
+        keyOrderedBatchProcessor.process(records, this::freezeAccounts);
+    }
+
+    // One container per tier: a nack pauses its whole consumer, so tiers must not share one.
+    @KafkaListener(
+        topics = "${banking.kafka.topics.fraud-alerts:fraud.alerts}.retry.1",
+        groupId = "${spring.application.name:account-service}-fraud-alerts-retry",
+        containerFactory = "retryKafkaListenerContainerFactory"
     )
-    public void onFraudAlert(String message) {
-        String userId = extractUserId(message);
-        if (userId == null || userId.isBlank()) {
-            LOGGER.warn("Received fraud alert without userId: {}", message);
+    @KafkaListener(
+        topics = "${banking.kafka.topics.fraud-alerts:fraud.alerts}.retry.2",
+        groupId = "${spring.application.name:account-service}-fraud-alerts-retry",
+        containerFactory = "retryKafkaListenerContainerFactory"
+    )
+    @KafkaListener(
+        topics = "${banking.kafka.topics.fraud-alerts:fraud.alerts}.retry.3",
+        groupId = "${spring.application.name:account-service}-fraud-alerts-retry",
+        containerFactory = "retryKafkaListenerContainerFactory"
+    )
+    public void onFraudAlertsRetry(ConsumerRecord<String, String> record, Acknowledgment acknowledgment) {
+        if (kafkaRetryTopics.deferIfNotDue(record, acknowledgment)) {
             return;
         }
-
-        accountRepository.freezeAccountsByClientId(userId);
-        LOGGER.info("Frozen accounts for clientId={} due to fraud alert", userId);
+        freezeAccounts(List.of(record));
+        acknowledgment.acknowledge();
     }
 
-    private String extractUserId(String message) {
-        if (message == null || message.isBlank()) {
-            return null;
+    private void freezeAccounts(List<ConsumerRecord<String, String>> records) {
+        // Parsed before the transaction: a bad payload goes to the DLT alone instead of rolling back
+        // the valid records of its lane.
+        List<ConsumerRecord<String, String>> valid = new ArrayList<>(records.size());
+        Map<ConsumerRecord<String, String>, FraudAlertPayload> payloadByRecord = new IdentityHashMap<>(records.size());
+        for (ConsumerRecord<String, String> record : records) {
+            try {
+                payloadByRecord.put(record, readPayload(record));
+                valid.add(record);
+            } catch (InvalidEventPayloadException ex) {
+                LOGGER.warn("Dead-lettering fraud alert {}-{}@{}: {}",
+                    record.topic(), record.partition(), record.offset(), ex.getMessage());
+                keyOrderedBatchProcessor.reject(record, ex);
+            }
+        }
+        if (valid.isEmpty()) {
+            return;
         }
 
+        transactionTemplate.executeWithoutResult(status -> {
+            List<ConsumerRecord<String, String>> unprocessed =
+                processedEventStore.filterUnprocessed(DEDUP_SCOPE, valid);
+            if (unprocessed.isEmpty()) {
+                return;
+            }
+
+            Set<String> userIds = new LinkedHashSet<>();
+            Set<Long> accountIds = new LinkedHashSet<>();
+            for (ConsumerRecord<String, String> record : unprocessed) {
+                FraudAlertPayload payload = payloadByRecord.get(record);
+                if (!isBlocking(payload)) {
+                    LOGGER.info("Advisory fraud alert for userId={} accountId={} severity={} riskScore={}",
+                        payload.userId(), payload.accountId(), payload.severity(), payload.riskScore());
+                } else if (payload.accountId() != null) {
+                    accountIds.add(payload.accountId());
+                } else {
+                    userIds.add(payload.userId());
+                }
+            }
+
+            // User-level alerts freeze every account of the client; destination-side (mule) alerts
+            // freeze only the receiving account.
+            int frozen = 0;
+            if (!userIds.isEmpty()) {
+                frozen += accountRepository.freezeAccountsByClientIds(userIds.toArray(String[]::new));
+            }
+            if (!accountIds.isEmpty()) {
+                frozen += accountRepository.freezeAccountsByIds(accountIds.toArray(Long[]::new));
+            }
+            processedEventStore.markProcessed(DEDUP_SCOPE, unprocessed);
+            LOGGER.info("Frozen {} accounts for clientIds={} accountIds={} due to fraud alerts", frozen, userIds, accountIds);
+        });
+    }
+
+    private FraudAlertPayload readPayload(ConsumerRecord<String, String> record) {
+        FraudAlertPayload payload;
         try {
-            JsonNode node = objectMapper.readTree(message);
-            JsonNode userIdNode = node.get("userId");
-            return userIdNode == null || userIdNode.isNull() ? null : userIdNode.asText();
+            payload = record.value() == null ? null : payloadReader.readValue(record.value());
         } catch (Exception ex) {
-            LOGGER.warn("Failed to parse fraud alert payload: {}", message, ex);
-            return null;
+            throw new InvalidEventPayloadException("Failed to parse fraud alert payload", ex);
+        }
+        if (payload == null || payload.accountId() == null && (payload.userId() == null || payload.userId().isBlank())) {
+            throw new InvalidEventPayloadException("Fraud alert without userId or accountId");
         }
+        return payload;
+    }
+
+    boolean isBlocking(FraudAlertPayload payload) {
+        if (payload.riskScore() != null) {
+            return payload.riskScore() >= freezeMinRiskScore;
+        }
+        return payload.severity() == null
+            || "HIGH".equalsIgnoreCase(payload.severity())
+            || "CRITICAL".equalsIgnoreCase(payload.severity());
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record FraudAlertPayload(String userId, Long accountId, String severity, Integer riskScore) {
     }
 }
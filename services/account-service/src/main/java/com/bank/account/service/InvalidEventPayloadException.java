@@ -0,0 +1,16 @@
+package com.bank.account.service;
+
+/**
+ * A consumed record that can never be processed (unparseable or missing required fields).
+ * Such records skip the retry tiers and go straight to the dead-letter topic.
+ */
+public class InvalidEventPayloadException extends RuntimeException {
+
+    public InvalidEventPayloadException(String message) {
+        super(message);
+    }
+
+    public InvalidEventPayloadException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,145 @@
+package com.bank.account.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.listener.ConsumerRecordRecoverer;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Splits a polled batch into lanes by record key and runs the lanes concurrently on virtual threads.
+ * Records with the same key always land in the same lane and keep their offset order, so per-user
+ * ordering holds while different users are processed in parallel.
+ *
+ * <p>A lane handler commits its lane as a unit, so a failed lane is redelivered from its first record:
+ * the {@link BatchListenerFailedException} points at the earliest first record of the failed lanes, the
+ * container commits everything before it and redelivers the rest. Records that can never succeed
+ * should be validated up front and handed to {@link #reject} instead of failing the whole lane.
+ *
+ * <p>Only the prefix before that record is committed, so lanes that already succeeded are redelivered
+ * along with it for any of their records past the failure point and run a second time. Lane handlers
+ * must therefore be idempotent; both consumers drop the repeats through {@code ProcessedEventStore}.
+ * Per-key order survives the replay because a key lives in one lane, but a failing lane holds back
+ * the commit of every other lane's later records until it succeeds or is recovered.
+ */
+@Component
+public class KeyOrderedBatchProcessor {
+
+    private final int lanes;
+    private final ConsumerRecordRecoverer recoverer;
+    private final ExecutorService laneExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public KeyOrderedBatchProcessor(
+        @Value("${banking.kafka.consumer.key-ordered-lanes:4}") int lanes,
+        ConsumerRecordRecoverer kafkaRetryRecoverer
+    ) {
+        this.lanes = Math.max(lanes, 1);
+        this.recoverer = kafkaRetryRecoverer;
+    }
+
+    public <K, V> void process(List<ConsumerRecord<K, V>> records, Consumer<List<ConsumerRecord<K, V>>> laneHandler) {
+        if (records.isEmpty()) {
+            return;
+        }
+
+        List<List<ConsumerRecord<K, V>>> recordLanes = splitByKey(records);
+        if (recordLanes.size() == 1) {
+            try {
+                laneHandler.accept(records);
+            } catch (RuntimeException ex) {
+                throw laneFailure(ex, records, records.get(0));
+            }
+            return;
+        }
+
+        List<CompletableFuture<Void>> running = new ArrayList<>(recordLanes.size());
+        for (List<ConsumerRecord<K, V>> lane : recordLanes) {
+            running.add(CompletableFuture.runAsync(() -> laneHandler.accept(lane), laneExecutor));
+        }
+
+        BatchListenerFailedException earliestFailure = null;
+        for (int i = 0; i < running.size(); i++) {
+            try {
+                running.get(i).join();
+            } catch (CompletionException ex) {
+                BatchListenerFailedException failure = laneFailure(ex.getCause(), records, recordLanes.get(i).get(0));
+                if (earliestFailure == null || failure.getIndex() < earliestFailure.getIndex()) {
+                    earliestFailure = failure;
+                }
+            }
+        }
+
+        if (earliestFailure != null) {
+            throw earliestFailure;
+        }
+    }
+
+    /**
+     * Sends a record that can never be processed (e.g. an unparseable payload) to the retry/DLT
+     * recoverer right away, so the rest of its lane can still commit.
+     */
+    public void reject(ConsumerRecord<?, ?> record, Exception failure) {
+        recoverer.accept(record, failure);
+    }
+
+    private <K, V> List<List<ConsumerRecord<K, V>>> splitByKey(List<ConsumerRecord<K, V>> records) {
+        List<List<ConsumerRecord<K, V>>> recordLanes = new ArrayList<>(lanes);
+        for (int i = 0; i < lanes; i++) {
+            recordLanes.add(new ArrayList<>());
+        }
+        for (ConsumerRecord<K, V> record : records) {
+            recordLanes.get(Math.floorMod(Objects.hashCode(record.key()), lanes)).add(record);
+        }
+        recordLanes.removeIf(List::isEmpty);
+        return recordLanes;
+    }
+
+    /**
+     * The whole lane was rolled back, so the failure is reported at its first record. A handler that
+     * blamed a later record keeps that record's cause out of the chain: the lane head is what the
+     * recoverer receives, and it must not be dead-lettered as invalid on another record's account.
+     */
+    private static <K, V> BatchListenerFailedException laneFailure(
+        Throwable failure,
+        List<ConsumerRecord<K, V>> batch,
+        ConsumerRecord<K, V> laneHead
+    ) {
+        Throwable cause = failure;
+        if (failure instanceof BatchListenerFailedException blamed) {
+            cause = blamed.getCause();
+            ConsumerRecord<?, ?> blamedRecord = blamed.getRecord();
+            if (blamedRecord != null && blamedRecord != laneHead) {
+                cause = new IllegalStateException(
+                    "Lane rolled back by a failure at " + blamedRecord.topic() + "-" + blamedRecord.partition()
+                        + "@" + blamedRecord.offset() + ": " + blamed.getMessage()
+                );
+            }
+        }
+        return new BatchListenerFailedException("Key-ordered lane failed", cause, indexOf(batch, laneHead));
+    }
+
+    private static <K, V> int indexOf(List<ConsumerRecord<K, V>> batch, ConsumerRecord<?, ?> record) {
+        for (int i = 0; i < batch.size(); i++) {
+            if (batch.get(i) == record) {
+                return i;
+            }
+        }
+        return 0;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        laneExecutor.shutdown();
+    }
+}
@@ -0,0 +1,8 @@
+package com.bank.account.service;
+
+public class TransferRejectedException extends RuntimeException {
+
+    public TransferRejectedException(String message) {
+        super(message);
+    }
+}
@@ -14,6 +14,8 @@ import com.bank.account.domain.AccountTransaction;
 import com.bank.account.domain.LedgerEntry;
 import com.bank.account.outbox.OutboxEvent;
 import com.bank.account.outbox.OutboxEventRepository;
+import com.bank.account.outbox.OutboxImmediateRelay;
+import com.bank.account.outbox.OutboxPartitioner;
 import com.bank.account.outbox.TransactionCompletedEvent;
 import com.bank.account.repository.AccountRepository;
 import com.bank.account.repository.AccountTransactionRepository;
@@ -34,6 +36,8 @@ public class TransferTransactionHelper {
     private final LedgerEntryRepository ledgerEntryRepository;
     private final TransferLimitService transferLimitService;
     private final OutboxEventRepository outboxEventRepository;
+    private final OutboxImmediateRelay outboxImmediateRelay;
+    private final OutboxPartitioner outboxPartitioner;
     private final ObjectMapper objectMapper;
 
     public TransferTransactionHelper(
@@ -42,6 +46,8 @@ public class TransferTransactionHelper {
         LedgerEntryRepository ledgerEntryRepository,
         TransferLimitService transferLimitService,
         OutboxEventRepository outboxEventRepository,
+        OutboxImmediateRelay outboxImmediateRelay,
+        OutboxPartitioner outboxPartitioner,
         ObjectMapper objectMapper
     ) {
         this.accountRepository = accountRepository;
@@ -49,6 +55,8 @@ public class TransferTransactionHelper {
         this.ledgerEntryRepository = ledgerEntryRepository;
         this.transferLimitService = transferLimitService;
         this.outboxEventRepository = outboxEventRepository;
+        this.outboxImmediateRelay = outboxImmediateRelay;
+        this.outboxPartitioner = outboxPartitioner;
         this.objectMapper = objectMapper;
     }
 
@@ -97,13 +105,17 @@ public class TransferTransactionHelper {
         ledgerEntryRepository.save(LedgerEntry.credit(transferId, destination.getId(), amount, command.normalizedCurrency()));
         ledgerEntryRepository.save(LedgerEntry.credit(transferId, systemAccount.getId(), fee, command.normalizedCurrency()));
 
-        outboxEventRepository.save(OutboxEvent.pending("Transaction", transferId, "TransactionCompletedEvent",
+        // Keyed by userId so account.events.v1 is already partitioned the way the fraud topology aggregates.
+        OutboxEvent outboxEvent = outboxEventRepository.save(OutboxEvent.pending("Transaction", transferId, command.userId(),
+            "TransactionCompletedEvent",
             serialize(new TransactionCompletedEvent(
-                transferId, command.idempotencyKey(), command.userId(),
+                transferId, command.idempotencyKey(), command.userId(), destination.getClientId(),
                 source.getId(), destination.getId(), amount,
                 command.normalizedCurrency(), tx.getCommittedAt()
-            ))
+            )),
+            outboxPartitioner.partitionFor(command.userId())
         ));
+        outboxImmediateRelay.publishAfterCommit(outboxEvent);
 
         LOGGER.info("Transfer completed: id={} {}→{} {} {}", transferId,
             source.getId(), destination.getId(), amount, command.normalizedCurrency());
@@ -143,9 +155,9 @@ public class TransferTransactionHelper {
         }
     }
 
-    private String serialize(TransactionCompletedEvent event) {
+    private byte[] serialize(TransactionCompletedEvent event) {
         try {
-            return objectMapper.writeValueAsString(event);
+            return objectMapper.writeValueAsBytes(event);
         } catch (JsonProcessingException ex) {
             throw new IllegalStateException("Failed to serialize outbox event payload", ex);
         }
@@ -0,0 +1,7 @@
+--liquibase formatted sql
+
+--changeset platform:0004-outbox-payload-bytea splitStatements:true endDelimiter:;
+ALTER TABLE outbox_events
+    ALTER COLUMN payload TYPE BYTEA USING convert_to(payload, 'UTF8');
+
+--rollback ALTER TABLE outbox_events ALTER COLUMN payload TYPE TEXT USING convert_from(payload, 'UTF8');
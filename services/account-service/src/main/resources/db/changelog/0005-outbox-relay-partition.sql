@@ -0,0 +1,11 @@
+--liquibase formatted sql
+
+--changeset platform:0005-outbox-relay-partition splitStatements:true endDelimiter:;
+ALTER TABLE outbox_events
+    ADD COLUMN IF NOT EXISTS relay_partition INTEGER NOT NULL DEFAULT 0;
+
+CREATE INDEX IF NOT EXISTS idx_outbox_events_partition_status_created
+    ON outbox_events (relay_partition, status, created_at);
+
+--rollback DROP INDEX IF EXISTS idx_outbox_events_partition_status_created;
+--rollback ALTER TABLE outbox_events DROP COLUMN IF EXISTS relay_partition;
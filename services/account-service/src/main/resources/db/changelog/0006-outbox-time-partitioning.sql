@@ -0,0 +1,53 @@
+--liquibase formatted sql
+
+--changeset platform:0006-outbox-time-partitioning splitStatements:false
+ALTER TABLE outbox_events RENAME TO outbox_events_legacy;
+DROP INDEX IF EXISTS idx_outbox_events_partition_status_created;
+
+CREATE TABLE outbox_events (
+    id              UUID                     NOT NULL,
+    aggregate_type  VARCHAR(64)              NOT NULL,
+    aggregate_id    VARCHAR(128)             NOT NULL,
+    event_type      VARCHAR(128)             NOT NULL,
+    payload         BYTEA                    NOT NULL,
+    relay_partition INTEGER                  NOT NULL DEFAULT 0,
+    status          VARCHAR(16)              NOT NULL,
+    attempt_count   INTEGER                  NOT NULL DEFAULT 0,
+    last_error      TEXT,
+    created_at      TIMESTAMP WITH TIME ZONE NOT NULL,
+    published_at    TIMESTAMP WITH TIME ZONE,
+    CONSTRAINT pk_outbox_events_id_created_at PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+-- Safety net for rows whose daily partition does not exist yet; OutboxPartitionMaintenance keeps it small.
+CREATE TABLE outbox_events_default PARTITION OF outbox_events DEFAULT;
+
+DO $$
+DECLARE
+    day DATE;
+BEGIN
+    FOR day IN SELECT generate_series(CURRENT_DATE, CURRENT_DATE + 7, INTERVAL '1 day')::DATE LOOP
+        EXECUTE format(
+            'CREATE TABLE IF NOT EXISTS %I PARTITION OF outbox_events FOR VALUES FROM (%L) TO (%L)',
+            'outbox_events_p' || to_char(day, 'YYYYMMDD'),
+            day::TIMESTAMP AT TIME ZONE 'UTC',
+            (day + 1)::TIMESTAMP AT TIME ZONE 'UTC'
+        );
+    END LOOP;
+END $$;
+
+-- Poll queries only ever look at PENDING rows, so the index stays O(pending) instead of O(history).
+CREATE INDEX idx_outbox_events_pending
+    ON outbox_events (relay_partition, created_at)
+    WHERE status = 'PENDING';
+
+INSERT INTO outbox_events (
+    id, aggregate_type, aggregate_id, event_type, payload, relay_partition,
+    status, attempt_count, last_error, created_at, published_at
+)
+SELECT id, aggregate_type, aggregate_id, event_type, payload, relay_partition,
+       status, attempt_count, last_error, created_at, published_at
+FROM outbox_events_legacy
+WHERE status <> 'PROCESSED';
+
+DROP TABLE outbox_events_legacy;
@@ -0,0 +1,12 @@
+--liquibase formatted sql
+
+--changeset platform:0007-outbox-retry-backoff splitStatements:true endDelimiter:;
+ALTER TABLE outbox_events
+    ADD COLUMN IF NOT EXISTS next_attempt_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP;
+
+CREATE INDEX IF NOT EXISTS idx_outbox_events_retry_due
+    ON outbox_events (next_attempt_at)
+    WHERE status = 'PENDING' AND attempt_count > 0;
+
+--rollback DROP INDEX IF EXISTS idx_outbox_events_retry_due;
+--rollback ALTER TABLE outbox_events DROP COLUMN IF EXISTS next_attempt_at;
@@ -0,0 +1,7 @@
+--liquibase formatted sql
+
+--changeset platform:0008-accounts-client-currency-unique splitStatements:true endDelimiter:;
+ALTER TABLE accounts
+    ADD CONSTRAINT uk_accounts_client_currency UNIQUE (client_id, currency);
+
+--rollback ALTER TABLE accounts DROP CONSTRAINT IF EXISTS uk_accounts_client_currency;
@@ -0,0 +1,14 @@
+--liquibase formatted sql
+
+--changeset platform:0009-processed-events splitStatements:true endDelimiter:;
+CREATE TABLE IF NOT EXISTS processed_events (
+    consumer_scope VARCHAR(64) NOT NULL,
+    event_id VARCHAR(255) NOT NULL,
+    processed_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT pk_processed_events PRIMARY KEY (consumer_scope, event_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_processed_events_processed_at
+    ON processed_events (processed_at);
+
+--rollback DROP TABLE IF EXISTS processed_events;
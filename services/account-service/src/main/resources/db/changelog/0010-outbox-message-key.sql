@@ -0,0 +1,7 @@
+--liquibase formatted sql
+
+--changeset platform:0010-outbox-message-key splitStatements:true endDelimiter:;
+ALTER TABLE outbox_events
+    ADD COLUMN IF NOT EXISTS message_key VARCHAR(128);
+
+--rollback ALTER TABLE outbox_events DROP COLUMN IF EXISTS message_key;
@@ -0,0 +1,9 @@
+--liquibase formatted sql
+
+--changeset platform:0011-outbox-key-ordering-index splitStatements:true endDelimiter:;
+-- Backs the "earlier PENDING row of the same key" checks of both relay lanes; PENDING rows only.
+CREATE INDEX IF NOT EXISTS idx_outbox_events_pending_key
+    ON outbox_events (relay_partition, (COALESCE(message_key, aggregate_id)), created_at)
+    WHERE status = 'PENDING';
+
+--rollback DROP INDEX IF EXISTS idx_outbox_events_pending_key;
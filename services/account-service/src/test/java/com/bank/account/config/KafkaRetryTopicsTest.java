@@ -0,0 +1,154 @@
+package com.bank.account.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.support.Acknowledgment;
+
+import com.bank.account.service.AccountProvisioningConsumer;
+import com.bank.account.service.FraudAlertConsumer;
+import com.bank.account.service.InvalidEventPayloadException;
+
+class KafkaRetryTopicsTest {
+
+    private static final String TOPIC = "fraud.alerts";
+
+    private final KafkaRetryTopics retryTopics = new KafkaRetryTopics(new long[] {10_000, 60_000, 300_000});
+
+    private static ConsumerRecord<String, String> record(String topic) {
+        return new ConsumerRecord<>(topic, 2, 7L, "user-1", "{}");
+    }
+
+    private static long dueAt(Headers headers) {
+        Header header = headers.lastHeader(KafkaRetryTopics.DUE_AT_HEADER);
+        assertNotNull(header);
+        return ByteBuffer.wrap(header.value()).getLong();
+    }
+
+    @Test
+    void failuresShouldWalkThroughTheRetryTiersToTheDeadLetterTopic() {
+        Exception failure = new IllegalStateException("database unavailable");
+
+        assertEquals(new TopicPartition(TOPIC + ".retry.1", -1), retryTopics.destinationFor(record(TOPIC), failure));
+        assertEquals(new TopicPartition(TOPIC + ".retry.2", -1),
+            retryTopics.destinationFor(record(TOPIC + ".retry.1"), failure));
+        assertEquals(new TopicPartition(TOPIC + ".retry.3", -1),
+            retryTopics.destinationFor(record(TOPIC + ".retry.2"), failure));
+        assertEquals(new TopicPartition(TOPIC + ".dlt", -1),
+            retryTopics.destinationFor(record(TOPIC + ".retry.3"), failure));
+    }
+
+    @Test
+    void invalidPayloadShouldGoStraightToTheDeadLetterTopic() {
+        Exception failure = new RuntimeException(new InvalidEventPayloadException("missing userId"));
+
+        assertEquals(new TopicPartition(TOPIC + ".dlt", -1), retryTopics.destinationFor(record(TOPIC), failure));
+        assertNull(retryTopics.dueAtHeaders(record(TOPIC), failure).lastHeader(KafkaRetryTopics.DUE_AT_HEADER));
+    }
+
+    @Test
+    void dueAtShouldFollowTheDelayOfTheNextTier() {
+        Exception failure = new IllegalStateException("database unavailable");
+
+        long before = System.currentTimeMillis();
+        long firstTier = dueAt(retryTopics.dueAtHeaders(record(TOPIC), failure));
+        long thirdTier = dueAt(retryTopics.dueAtHeaders(record(TOPIC + ".retry.2"), failure));
+        long after = System.currentTimeMillis();
+
+        assertTrue(firstTier >= before + 10_000 && firstTier <= after + 10_000);
+        assertTrue(thirdTier >= before + 300_000 && thirdTier <= after + 300_000);
+        assertNull(retryTopics.dueAtHeaders(record(TOPIC + ".retry.3"), failure)
+            .lastHeader(KafkaRetryTopics.DUE_AT_HEADER));
+    }
+
+    @Test
+    void topicNamesShouldResolveToTheirBaseTopic() {
+        assertEquals(TOPIC, KafkaRetryTopics.baseTopic(TOPIC));
+        assertEquals(TOPIC, KafkaRetryTopics.baseTopic(TOPIC + ".retry.2"));
+        assertEquals(TOPIC, KafkaRetryTopics.baseTopic(TOPIC + ".dlt"));
+        assertEquals(TOPIC + ".dlt", KafkaRetryTopics.deadLetterTopic(TOPIC + ".retry.3"));
+    }
+
+    @Test
+    void recordShouldBeDeferredUntilDue() {
+        ConsumerRecord<String, String> record = record(TOPIC + ".retry.1");
+        record.headers().add(KafkaRetryTopics.DUE_AT_HEADER,
+            ByteBuffer.allocate(Long.BYTES).putLong(System.currentTimeMillis() + 5_000).array());
+        Acknowledgment acknowledgment = mock(Acknowledgment.class);
+
+        assertTrue(retryTopics.deferIfNotDue(record, acknowledgment));
+
+        ArgumentCaptor<Duration> sleep = ArgumentCaptor.forClass(Duration.class);
+        verify(acknowledgment).nack(sleep.capture());
+        assertTrue(sleep.getValue().compareTo(Duration.ZERO) > 0);
+        assertTrue(sleep.getValue().compareTo(Duration.ofSeconds(5)) <= 0);
+    }
+
+    @Test
+    void dueOrUntaggedRecordShouldBeProcessed() {
+        ConsumerRecord<String, String> due = record(TOPIC + ".retry.1");
+        due.headers().add(KafkaRetryTopics.DUE_AT_HEADER,
+            ByteBuffer.allocate(Long.BYTES).putLong(System.currentTimeMillis() - 1).array());
+        Acknowledgment acknowledgment = mock(Acknowledgment.class);
+
+        assertFalse(retryTopics.deferIfNotDue(due, acknowledgment));
+        assertFalse(retryTopics.deferIfNotDue(record(TOPIC + ".retry.1"), acknowledgment));
+        verifyNoInteractions(acknowledgment);
+    }
+
+    @Test
+    void wrongNumberOfDelaysShouldBeRejected() {
+        assertThrows(IllegalStateException.class, () -> new KafkaRetryTopics(new long[] {1_000, 2_000}));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void recovererShouldPublishToTheNextTierWithTheSameKey() {
+        KafkaTemplate<String, String> template = mock(KafkaTemplate.class);
+        when(template.send(any(ProducerRecord.class))).thenReturn(CompletableFuture.completedFuture(null));
+        DeadLetterPublishingRecoverer recoverer = new KafkaConsumerConfig().kafkaRetryRecoverer(template, retryTopics);
+
+        recoverer.accept(record(TOPIC + ".retry.1"), new IllegalStateException("database unavailable"));
+
+        ArgumentCaptor<ProducerRecord<String, String>> published = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(template).send(published.capture());
+        assertEquals(TOPIC + ".retry.2", published.getValue().topic());
+        assertNull(published.getValue().partition());
+        assertEquals("user-1", published.getValue().key());
+        assertTrue(dueAt(published.getValue().headers()) > System.currentTimeMillis());
+    }
+
+    @Test
+    void everyRetryTierShouldHaveItsOwnListenerContainer() throws NoSuchMethodException {
+        for (Method listener : new Method[] {
+            AccountProvisioningConsumer.class.getMethod(
+                "onUserRegisteredRetry", ConsumerRecord.class, Acknowledgment.class
+            ),
+            FraudAlertConsumer.class.getMethod("onFraudAlertsRetry", ConsumerRecord.class, Acknowledgment.class)
+        }) {
+            KafkaListener[] containers = listener.getAnnotationsByType(KafkaListener.class);
+            assertEquals(KafkaRetryTopics.RETRY_TIERS, containers.length);
+            for (int tier = 1; tier <= KafkaRetryTopics.RETRY_TIERS; tier++) {
+                String[] topics = containers[tier - 1].topics();
+                assertEquals(1, topics.length);
+                assertTrue(topics[0].endsWith(".retry." + tier), topics[0]);
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.bank.account.inbox;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.nio.ByteBuffer;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.kafka.support.KafkaHeaders;
+
+class ProcessedEventStoreTest {
+
+    private static final String SCOPE = "test-scope";
+    private static final long FILTER_WINDOW_MS = Duration.ofHours(24).toMillis();
+
+    private JdbcTemplate jdbcTemplate;
+    private ProcessedEventStore store;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        store = new ProcessedEventStore(jdbcTemplate, 60, 24, 1_000, 0.01, 7);
+    }
+
+    private static ConsumerRecord<String, String> record(long offset, long timestamp, RecordHeaders headers) {
+        return new ConsumerRecord<>(
+            "user.registered.v1", 0, offset, timestamp, TimestampType.CREATE_TIME, 0, 0, "user1", "{}",
+            headers, Optional.empty()
+        );
+    }
+
+    @Test
+    void recentRecordUnknownToTheFilterShouldSkipTheTable() {
+        ConsumerRecord<String, String> fresh = record(1, System.currentTimeMillis(), new RecordHeaders());
+
+        assertEquals(List.of(fresh), store.filterUnprocessed(SCOPE, List.of(fresh)));
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void recordOlderThanTheFilterWindowShouldBeCheckedAgainstTheTable() {
+        ConsumerRecord<String, String> old = record(
+            1, System.currentTimeMillis() - FILTER_WINDOW_MS - 60_000, new RecordHeaders()
+        );
+        doAnswer(invocation -> {
+            invocation.<RowCallbackHandler>getArgument(2).processRow(mockRow("user.registered.v1-0@1"));
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(PreparedStatementSetter.class), any(RowCallbackHandler.class));
+
+        assertTrue(store.filterUnprocessed(SCOPE, List.of(old)).isEmpty());
+    }
+
+    @Test
+    void retriedRecordShouldBeAgedByItsOriginalTimestamp() {
+        RecordHeaders headers = new RecordHeaders();
+        long originalTimestamp = System.currentTimeMillis() - FILTER_WINDOW_MS - 60_000;
+        headers.add(KafkaHeaders.DLT_ORIGINAL_TIMESTAMP, ByteBuffer.allocate(8).putLong(originalTimestamp).array());
+        ConsumerRecord<String, String> replayed = record(1, System.currentTimeMillis(), headers);
+
+        assertEquals(List.of(replayed), store.filterUnprocessed(SCOPE, List.of(replayed)));
+        verify(jdbcTemplate).query(anyString(), any(PreparedStatementSetter.class), any(RowCallbackHandler.class));
+    }
+
+    private static ResultSet mockRow(String eventId) throws SQLException {
+        ResultSet row = mock(ResultSet.class);
+        when(row.getString("event_id")).thenReturn(eventId);
+        return row;
+    }
+}
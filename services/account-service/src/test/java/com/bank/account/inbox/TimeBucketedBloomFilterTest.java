@@ -0,0 +1,85 @@
+package com.bank.account.inbox;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import org.junit.jupiter.api.Test;
+
+class TimeBucketedBloomFilterTest {
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-01-01T00:00:00Z"));
+    private final TimeBucketedBloomFilter filter =
+        new TimeBucketedBloomFilter(Duration.ofMinutes(10), 6, 1_000, 0.01, clock);
+
+    @Test
+    void addedEntryShouldBeFound() {
+        filter.add("user-provisioning|user.registered.v1-0@42");
+        assertTrue(filter.mightContain("user-provisioning|user.registered.v1-0@42"));
+    }
+
+    @Test
+    void entryShouldSurviveUntilItsBucketLeavesTheWindow() {
+        filter.add("event-1");
+
+        clock.advance(Duration.ofMinutes(59));
+        assertTrue(filter.mightContain("event-1"));
+
+        clock.advance(Duration.ofMinutes(1));
+        filter.add("event-2");
+        assertFalse(filter.mightContain("event-1"));
+        assertTrue(filter.mightContain("event-2"));
+    }
+
+    @Test
+    void entriesOlderThanWindowShouldBeIgnored() {
+        filter.add("stale", clock.millis() - Duration.ofHours(2).toMillis());
+        assertFalse(filter.mightContain("stale"));
+    }
+
+    @Test
+    void falsePositiveRateShouldStayNearConfiguredRate() {
+        for (int i = 0; i < 1_000; i++) {
+            filter.add("present-" + i);
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.mightContain("absent-" + i)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        private void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
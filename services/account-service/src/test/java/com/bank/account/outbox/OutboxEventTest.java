@@ -0,0 +1,63 @@
+package com.bank.account.outbox;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+
+class OutboxEventTest {
+
+    @Test
+    void newEventShouldBeDueImmediately() {
+        OutboxEvent event = newEvent();
+        assertEquals(OutboxEventStatus.PENDING, event.getStatus());
+        assertEquals(event.getCreatedAt(), event.getNextAttemptAt());
+    }
+
+    @Test
+    void failureShouldPostponeNextAttempt() {
+        OutboxEvent event = newEvent();
+        Instant before = Instant.now();
+        event.registerPublishFailure("broker unavailable");
+        assertEquals(1, event.getAttemptCount());
+        assertEquals(OutboxEventStatus.PENDING, event.getStatus());
+        assertTrue(event.getNextAttemptAt().isAfter(before));
+    }
+
+    @Test
+    void retryDelayShouldGrowExponentiallyWithinJitterBounds() {
+        assertEquals(Duration.ofSeconds(1), OutboxEvent.retryDelay(1, 0.0));
+        assertEquals(Duration.ofSeconds(2), OutboxEvent.retryDelay(2, 0.0));
+        assertEquals(Duration.ofSeconds(4), OutboxEvent.retryDelay(3, 0.0));
+        assertTrue(OutboxEvent.retryDelay(3, 0.999).compareTo(Duration.ofSeconds(8)) < 0);
+    }
+
+    @Test
+    void retryDelayShouldBeCapped() {
+        assertEquals(Duration.ofMinutes(5), OutboxEvent.retryDelay(30, 0.0));
+        assertTrue(OutboxEvent.retryDelay(30, 0.999).compareTo(Duration.ofMinutes(10)) < 0);
+    }
+
+    @Test
+    void shouldBecomeFailedAfterMaxAttempts() {
+        OutboxEvent event = newEvent();
+        for (int i = 0; i < 10; i++) {
+            event.registerPublishFailure("broker unavailable");
+        }
+        assertEquals(OutboxEventStatus.FAILED, event.getStatus());
+    }
+
+    private static OutboxEvent newEvent() {
+        return OutboxEvent.pending(
+            "Transaction",
+            "transfer-1",
+            "user-1",
+            "TransactionCompletedEvent",
+            "{}".getBytes(StandardCharsets.UTF_8),
+            0
+        );
+    }
+}
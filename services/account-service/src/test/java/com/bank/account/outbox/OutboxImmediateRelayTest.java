@@ -0,0 +1,121 @@
+package com.bank.account.outbox;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+class OutboxImmediateRelayTest {
+
+    private final OutboxKafkaPublisher publisher = mock(OutboxKafkaPublisher.class);
+    private final OutboxImmediateRelay relay = new OutboxImmediateRelay(publisher, new OutboxPartitioner(4), true);
+
+    @BeforeEach
+    void setUp() {
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        relay.shutdown();
+    }
+
+    private static OutboxEvent event(int relayPartition) {
+        return OutboxEvent.pending(
+            "Transaction",
+            "transfer-1",
+            "user-1",
+            "TransactionCompletedEvent",
+            "{}".getBytes(StandardCharsets.UTF_8),
+            relayPartition
+        );
+    }
+
+    private static void commit() {
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    private static void rollback() {
+        TransactionSynchronizationManager.getSynchronizations()
+            .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void commitShouldDrainTheEventsPartition() {
+        relay.publishAfterCommit(event(3));
+        verify(publisher, after(100).never()).drainPartition(anyInt());
+
+        commit();
+
+        verify(publisher, timeout(1_000)).drainPartition(3);
+    }
+
+    @Test
+    void rollbackShouldNotDrain() {
+        relay.publishAfterCommit(event(3));
+
+        rollback();
+
+        verify(publisher, after(200).never()).drainPartition(anyInt());
+    }
+
+    @Test
+    void eventsOutsideATransactionOrWhenDisabledShouldBeLeftToThePoller() {
+        OutboxImmediateRelay disabled = new OutboxImmediateRelay(publisher, new OutboxPartitioner(4), false);
+        disabled.publishAfterCommit(event(1));
+        assertTrue(TransactionSynchronizationManager.getSynchronizations().isEmpty());
+        disabled.shutdown();
+
+        TransactionSynchronizationManager.clearSynchronization();
+        relay.publishAfterCommit(event(1));
+
+        verify(publisher, after(200).never()).drainPartition(anyInt());
+    }
+
+    @Test
+    void unknownPartitionShouldBeLeftToThePoller() {
+        relay.publishAfterCommit(event(7));
+
+        commit();
+
+        verify(publisher, after(200).never()).drainPartition(anyInt());
+    }
+
+    @Test
+    void commitsDuringADrainShouldCoalesceIntoOneMorePass() throws Exception {
+        CountDownLatch draining = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            draining.countDown();
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+            return null;
+        }).doNothing().when(publisher).drainPartition(2);
+
+        relay.publishAfterCommit(event(2));
+        commit();
+        assertTrue(draining.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 5; i++) {
+            relay.publishAfterCommit(event(2));
+            commit();
+        }
+        release.countDown();
+
+        verify(publisher, timeout(1_000).times(2)).drainPartition(2);
+        verify(publisher, after(200).times(2)).drainPartition(2);
+    }
+}
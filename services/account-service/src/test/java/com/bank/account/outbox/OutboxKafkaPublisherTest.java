@@ -0,0 +1,200 @@
+package com.bank.account.outbox;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.bank.account.config.KafkaTopicsProperties;
+
+class OutboxKafkaPublisherTest {
+
+    private static final int BATCH_SIZE = 2;
+
+    private final OutboxEventRepository repository = mock(OutboxEventRepository.class);
+    @SuppressWarnings("unchecked")
+    private final KafkaTemplate<String, byte[]> kafkaTemplate = mock(KafkaTemplate.class);
+    private final OutboxMetrics metrics = mock(OutboxMetrics.class);
+    private OutboxKafkaPublisher publisher;
+
+    @BeforeEach
+    void setUp() {
+        when(repository.tryLockPartition(anyInt(), anyInt())).thenReturn(true);
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(CompletableFuture.completedFuture(null));
+        publisher = new OutboxKafkaPublisher(
+            repository,
+            kafkaTemplate,
+            new KafkaTopicsProperties(),
+            metrics,
+            mock(PlatformTransactionManager.class),
+            BATCH_SIZE,
+            BATCH_SIZE,
+            1
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        publisher.shutdown();
+    }
+
+    private static OutboxEvent event(String transferId) {
+        return OutboxEvent.pending(
+            "Transaction",
+            transferId,
+            "user-1",
+            "TransactionCompletedEvent",
+            "{}".getBytes(StandardCharsets.UTF_8),
+            0
+        );
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<ProducerRecord<String, byte[]>> published(int count) {
+        ArgumentCaptor<ProducerRecord<String, byte[]>> records = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(kafkaTemplate, times(count)).send(records.capture());
+        return records.getAllValues();
+    }
+
+    @Test
+    void drainShouldPublishThePartitionHeadInOrderUntilItIsEmpty() {
+        OutboxEvent first = event("transfer-1");
+        OutboxEvent second = event("transfer-2");
+        OutboxEvent third = event("transfer-3");
+        when(repository.lockPendingPartitionBatch(0, BATCH_SIZE))
+            .thenReturn(List.of(first, second))
+            .thenReturn(List.of(third));
+
+        publisher.drainPartition(0);
+
+        List<ProducerRecord<String, byte[]>> records = published(3);
+        assertEquals("account.events.v1", records.get(0).topic());
+        assertEquals("user-1", records.get(0).key());
+        assertEquals("TransactionCompletedEvent",
+            new String(records.get(0).headers().lastHeader("eventType").value(), StandardCharsets.UTF_8));
+        assertEquals(OutboxEventStatus.PROCESSED, first.getStatus());
+        assertEquals(OutboxEventStatus.PROCESSED, second.getStatus());
+        assertEquals(OutboxEventStatus.PROCESSED, third.getStatus());
+        verify(repository, times(2)).lockPendingPartitionBatch(0, BATCH_SIZE);
+    }
+
+    @Test
+    void sweepShouldDrainEveryPartitionFoundInTheTable() {
+        when(repository.findPendingPartitions()).thenReturn(List.of(1, 7));
+        when(repository.lockPendingPartitionBatch(anyInt(), eq(BATCH_SIZE))).thenReturn(List.of());
+
+        publisher.publishPendingEvents();
+
+        verify(repository).lockPendingPartitionBatch(1, BATCH_SIZE);
+        verify(repository).lockPendingPartitionBatch(7, BATCH_SIZE);
+        verify(repository, never()).lockPendingPartitionBatch(0, BATCH_SIZE);
+    }
+
+    @Test
+    void partitionHeldByAnotherRelayShouldBeSkipped() {
+        when(repository.tryLockPartition(anyInt(), eq(1))).thenReturn(false);
+
+        publisher.drainPartition(1);
+
+        verify(repository, never()).lockPendingPartitionBatch(anyInt(), anyInt());
+        verifyNoInteractions(kafkaTemplate);
+    }
+
+    @Test
+    void failedPublishShouldMoveTheEventToTheRetryLaneAndStopTheBatch() {
+        OutboxEvent first = event("transfer-1");
+        OutboxEvent second = event("transfer-2");
+        when(repository.lockPendingPartitionBatch(0, BATCH_SIZE)).thenReturn(List.of(first, second));
+        when(kafkaTemplate.send(any(ProducerRecord.class)))
+            .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker unavailable")));
+        Instant before = Instant.now();
+
+        publisher.drainPartition(0);
+
+        published(1);
+        assertEquals(OutboxEventStatus.PENDING, first.getStatus());
+        assertEquals(1, first.getAttemptCount());
+        assertTrue(first.getNextAttemptAt().isAfter(before));
+        assertEquals(0, second.getAttemptCount());
+        verify(metrics).recordFailure(first);
+        verify(repository, times(1)).lockPendingPartitionBatch(0, BATCH_SIZE);
+    }
+
+    @Test
+    void stalledSendShouldTimeOutIntoTheRetryLane() {
+        OutboxEvent event = event("transfer-1");
+        when(repository.lockPendingPartitionBatch(0, BATCH_SIZE)).thenReturn(List.of(event));
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(new CompletableFuture<>());
+
+        publisher.drainPartition(0);
+
+        assertEquals(OutboxEventStatus.PENDING, event.getStatus());
+        assertEquals(1, event.getAttemptCount());
+    }
+
+    @Test
+    void interruptedSendShouldKeepTheInterruptFlagAndStopTheBatch() {
+        OutboxEvent first = event("transfer-1");
+        OutboxEvent second = event("transfer-2");
+        when(repository.lockPendingPartitionBatch(0, BATCH_SIZE)).thenReturn(List.of(first, second));
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(new CompletableFuture<>());
+
+        Thread.currentThread().interrupt();
+        try {
+            publisher.drainPartition(0);
+            assertTrue(Thread.currentThread().isInterrupted());
+        } finally {
+            Thread.interrupted();
+        }
+
+        assertEquals(1, first.getAttemptCount());
+        assertEquals(0, second.getAttemptCount());
+        published(1);
+    }
+
+    @Test
+    void dueRetriesShouldBePublished() {
+        OutboxEvent retried = event("transfer-1");
+        retried.registerPublishFailure("broker unavailable");
+        when(repository.lockDueRetryBatch(BATCH_SIZE)).thenReturn(List.of(retried));
+
+        publisher.publishDueRetries();
+
+        published(1);
+        assertEquals(OutboxEventStatus.PROCESSED, retried.getStatus());
+        assertEquals(2, retried.getAttemptCount());
+        verify(repository, never()).lockPendingPartitionBatch(anyInt(), anyInt());
+    }
+
+    @Test
+    void failedRetryShouldBackOffFurther() {
+        OutboxEvent retried = event("transfer-1");
+        retried.registerPublishFailure("broker unavailable");
+        Instant firstRetryAt = retried.getNextAttemptAt();
+        OutboxEvent other = event("transfer-2");
+        other.registerPublishFailure("broker unavailable");
+        when(repository.lockDueRetryBatch(BATCH_SIZE)).thenReturn(List.of(retried, other));
+        when(kafkaTemplate.send(any(ProducerRecord.class)))
+            .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker unavailable")));
+
+        publisher.publishDueRetries();
+
+        published(1);
+        assertEquals(2, retried.getAttemptCount());
+        assertTrue(retried.getNextAttemptAt().isAfter(firstRetryAt));
+        assertEquals(1, other.getAttemptCount());
+        verify(repository, times(1)).lockDueRetryBatch(BATCH_SIZE);
+    }
+}
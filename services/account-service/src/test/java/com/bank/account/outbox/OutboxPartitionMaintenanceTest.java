@@ -0,0 +1,77 @@
+package com.bank.account.outbox;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+class OutboxPartitionMaintenanceTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final OutboxMetrics metrics = mock(OutboxMetrics.class);
+    private OutboxPartitionMaintenance maintenance;
+
+    @BeforeEach
+    void setUp() {
+        when(jdbcTemplate.queryForObject(startsWith("SELECT pg_try_advisory_xact_lock"), eq(Boolean.class), any()))
+            .thenReturn(true);
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), any())).thenReturn(List.of());
+        maintenance = new OutboxPartitionMaintenance(
+            jdbcTemplate,
+            mock(PlatformTransactionManager.class),
+            metrics,
+            0,
+            3,
+            true,
+            500
+        );
+    }
+
+    @Test
+    void missingPartitionShouldTakeOverItsRowsFromTheDefaultPartitionBeforeAttaching() {
+        when(jdbcTemplate.queryForObject(startsWith("SELECT to_regclass"), eq(Boolean.class), any()))
+            .thenReturn(false);
+
+        maintenance.maintainPartitions();
+
+        InOrder inOrder = inOrder(jdbcTemplate);
+        inOrder.verify(jdbcTemplate).execute("LOCK TABLE outbox_events_default IN ACCESS EXCLUSIVE MODE");
+        inOrder.verify(jdbcTemplate).execute(startsWith("CREATE TABLE outbox_events_p"));
+        inOrder.verify(jdbcTemplate).update(
+            startsWith("WITH moved AS (DELETE FROM outbox_events_default"), any(Timestamp.class), any(Timestamp.class)
+        );
+        inOrder.verify(jdbcTemplate).execute(startsWith("ALTER TABLE outbox_events ATTACH PARTITION outbox_events_p"));
+        verify(jdbcTemplate, never()).execute(contains("PARTITION OF"));
+    }
+
+    @Test
+    void existingPartitionShouldBeLeftAlone() {
+        when(jdbcTemplate.queryForObject(startsWith("SELECT to_regclass"), eq(Boolean.class), any()))
+            .thenReturn(true);
+
+        maintenance.maintainPartitions();
+
+        verify(jdbcTemplate, never()).execute(startsWith("LOCK TABLE"));
+        verify(jdbcTemplate, never()).execute(startsWith("CREATE TABLE"));
+    }
+
+    @Test
+    void failedStepShouldBeCountedForAlerting() {
+        when(jdbcTemplate.queryForObject(startsWith("SELECT to_regclass"), eq(Boolean.class), any()))
+            .thenReturn(false);
+        doThrow(new DataAccessResourceFailureException("lock timeout"))
+            .when(jdbcTemplate).execute("LOCK TABLE outbox_events_default IN ACCESS EXCLUSIVE MODE");
+
+        maintenance.maintainPartitions();
+
+        verify(metrics).recordMaintenanceFailure();
+    }
+}
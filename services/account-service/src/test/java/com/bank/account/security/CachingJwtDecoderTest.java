@@ -0,0 +1,168 @@
+package com.bank.account.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+class CachingJwtDecoderTest {
+
+    private static final Instant START = Instant.parse("2026-01-01T00:00:00Z");
+
+    private final AtomicInteger decodes = new AtomicInteger();
+    private final MutableClock clock = new MutableClock();
+
+    private Jwt decode(String token) {
+        decodes.incrementAndGet();
+        if (token.startsWith("bad")) {
+            throw new BadJwtException("Invalid signature");
+        }
+        return Jwt.withTokenValue(token)
+            .header("alg", "HS256")
+            .subject(token.substring(0, token.indexOf('.')))
+            .issuedAt(START)
+            .expiresAt(START.plus(Duration.ofMinutes(15)))
+            .build();
+    }
+
+    @Test
+    void repeatedTokenShouldBeVerifiedOnce() {
+        CachingJwtDecoder decoder = new CachingJwtDecoder(this::decode, 10, Duration.ofHours(1), clock);
+
+        Jwt first = decoder.decode("alice.token-1");
+        Jwt second = decoder.decode("alice.token-1");
+
+        assertSame(first, second);
+        assertEquals(1, decodes.get());
+    }
+
+    @Test
+    void rejectedTokensShouldNotBeCached() {
+        CachingJwtDecoder decoder = new CachingJwtDecoder(this::decode, 10, Duration.ofHours(1), clock);
+
+        assertThrows(BadJwtException.class, () -> decoder.decode("bad.token"));
+        assertThrows(BadJwtException.class, () -> decoder.decode("bad.token"));
+        assertEquals(2, decodes.get());
+        assertEquals(0, decoder.size());
+    }
+
+    @Test
+    void entryShouldExpireWithTheToken() {
+        CachingJwtDecoder decoder = new CachingJwtDecoder(this::decode, 10, Duration.ofHours(1), clock);
+
+        decoder.decode("alice.token-1");
+        clock.now = START.plus(Duration.ofMinutes(15));
+        decoder.decode("alice.token-1");
+
+        assertEquals(2, decodes.get());
+    }
+
+    @Test
+    void entryShouldNotOutliveMaxTtl() {
+        CachingJwtDecoder decoder = new CachingJwtDecoder(this::decode, 10, Duration.ofMinutes(1), clock);
+
+        decoder.decode("alice.token-1");
+        clock.now = START.plus(Duration.ofMinutes(1));
+        decoder.decode("alice.token-1");
+
+        assertEquals(2, decodes.get());
+    }
+
+    @Test
+    void oldestEntryShouldBeEvictedWhenFull() {
+        CachingJwtDecoder decoder = new CachingJwtDecoder(this::decode, 2, Duration.ofHours(1), clock);
+
+        decoder.decode("alice.token-1");
+        decoder.decode("bob.token-2");
+        decoder.decode("carol.token-3");
+        decoder.decode("bob.token-2");
+        decoder.decode("alice.token-1");
+
+        assertEquals(2, decoder.size());
+        assertEquals(4, decodes.get());
+    }
+
+    @Test
+    void evictSubjectShouldDropOnlyThatUsersTokens() {
+        CachingJwtDecoder decoder = new CachingJwtDecoder(this::decode, 10, Duration.ofHours(1), clock);
+
+        decoder.decode("alice.token-1");
+        decoder.decode("alice.token-2");
+        decoder.decode("bob.token-3");
+        decoder.evictSubject("alice");
+
+        assertEquals(1, decoder.size());
+        decoder.decode("bob.token-3");
+        decoder.decode("alice.token-1");
+        assertEquals(4, decodes.get());
+    }
+
+    @Test
+    void evictedTokenShouldBeVerifiedAgain() {
+        CachingJwtDecoder decoder = new CachingJwtDecoder(this::decode, 10, Duration.ofHours(1), clock);
+
+        decoder.decode("alice.token-1");
+        decoder.evict("alice.token-1");
+        decoder.decode("alice.token-1");
+
+        assertEquals(1, decoder.size());
+        assertEquals(2, decodes.get());
+    }
+
+    @Test
+    void repeatedEvictionsShouldNotGrowTheQueue() {
+        CachingJwtDecoder decoder = new CachingJwtDecoder(this::decode, 4, Duration.ofHours(1), clock);
+
+        for (int i = 0; i < 1_000; i++) {
+            decoder.decode("alice.token-1");
+            decoder.evict("alice.token-1");
+        }
+        decoder.decode("bob.token-2");
+
+        assertTrue(decoder.queuedSize() <= 2 * 4);
+        assertEquals(1, decoder.size());
+    }
+
+    @Test
+    void staleQueueEntriesShouldNotEvictLiveTokens() {
+        CachingJwtDecoder decoder = new CachingJwtDecoder(this::decode, 2, Duration.ofHours(1), clock);
+
+        decoder.decode("alice.token-1");
+        decoder.evict("alice.token-1");
+        decoder.decode("bob.token-2");
+        decoder.decode("carol.token-3");
+        decoder.decode("bob.token-2");
+        decoder.decode("carol.token-3");
+
+        assertEquals(2, decoder.size());
+        assertEquals(3, decodes.get());
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now = START;
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
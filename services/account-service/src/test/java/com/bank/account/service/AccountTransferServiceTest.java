@@ -0,0 +1,85 @@
+package com.bank.account.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+
+import com.bank.account.client.FraudScoringClient;
+import com.bank.account.config.RedisLockProperties;
+import com.bank.account.repository.AccountRepository;
+import com.bank.account.repository.AccountTransactionRepository;
+
+class AccountTransferServiceTest {
+
+    private final TransferCommand command = new TransferCommand(
+        "user1", "key-1", 1L, 2L, new BigDecimal("100"), "KZT", Instant.now()
+    );
+
+    private AccountTransactionRepository accountTransactionRepository;
+    private TransferTransactionHelper txHelper;
+    private FraudScoringClient fraudScoringClient;
+    private RLock lock;
+    private AccountTransferService service;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        AccountRepository accountRepository = mock(AccountRepository.class);
+        when(accountRepository.findCustomerIdById(1L)).thenReturn(Optional.of("user1"));
+        accountTransactionRepository = mock(AccountTransactionRepository.class);
+        txHelper = mock(TransferTransactionHelper.class);
+        fraudScoringClient = mock(FraudScoringClient.class);
+        lock = mock(RLock.class);
+        when(lock.tryLock(anyLong(), anyLong(), any())).thenReturn(true);
+        RedissonClient redissonClient = mock(RedissonClient.class);
+        when(redissonClient.getLock(anyString())).thenReturn(lock);
+
+        service = new AccountTransferService(
+            accountRepository,
+            accountTransactionRepository,
+            txHelper,
+            fraudScoringClient,
+            redissonClient,
+            new RedisLockProperties()
+        );
+    }
+
+    @Test
+    void transferShouldBeScoredBeforeLocksAndTransaction() throws InterruptedException {
+        service.transfer(command);
+
+        InOrder inOrder = inOrder(fraudScoringClient, lock, txHelper);
+        inOrder.verify(fraudScoringClient).requireAllowed(command);
+        inOrder.verify(lock, atLeastOnce()).tryLock(anyLong(), anyLong(), any());
+        inOrder.verify(txHelper).executeTransfer(command);
+    }
+
+    @Test
+    void blockedTransferShouldNeitherLockNorBook() throws InterruptedException {
+        doThrow(new TransferRejectedException("Transfer blocked by fraud screening"))
+            .when(fraudScoringClient).requireAllowed(command);
+
+        assertThrows(TransferRejectedException.class, () -> service.transfer(command));
+        verify(lock, never()).tryLock(anyLong(), anyLong(), any());
+        verifyNoInteractions(txHelper);
+    }
+
+    @Test
+    void replayOfABookedTransferShouldNotBeScoredAgain() {
+        when(accountTransactionRepository.existsByIdempotencyKey("key-1")).thenReturn(true);
+
+        service.transfer(command);
+
+        verifyNoInteractions(fraudScoringClient);
+        verify(txHelper).executeTransfer(command);
+    }
+}
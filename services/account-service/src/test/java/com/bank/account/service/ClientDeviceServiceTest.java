@@ -0,0 +1,102 @@
+package com.bank.account.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Signature;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import com.bank.account.domain.ClientDevice;
+import com.bank.account.repository.ClientDeviceRepository;
+import com.bank.account.service.ClientDeviceService.DpopVerificationResult;
+
+class ClientDeviceServiceTest {
+
+    private static final byte[] BODY = "{\"amount\":100}".getBytes(StandardCharsets.UTF_8);
+
+    private DpopReplayGuard replayGuard;
+    private ClientDeviceService service;
+    private KeyPair keyPair;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(256);
+        keyPair = generator.generateKeyPair();
+
+        ClientDeviceRepository repository = mock(ClientDeviceRepository.class);
+        String publicKey = Base64.getEncoder().encodeToString(keyPair.getPublic().getEncoded());
+        when(repository.findByDeviceId("device-1"))
+            .thenReturn(Optional.of(ClientDevice.registered("alice", "device-1", publicKey)));
+        replayGuard = mock(DpopReplayGuard.class);
+        when(replayGuard.checkAndRecord(anyString())).thenReturn(DpopReplayGuard.Verdict.FRESH);
+        service = new ClientDeviceService(repository, replayGuard, new DevicePublicKeyCache(10, Duration.ofMinutes(10)));
+    }
+
+    @Test
+    void ownersSignedRequestShouldBeAccepted() throws Exception {
+        String timestamp = Instant.now().toString();
+
+        DpopVerificationResult result = service.verifyDpopRequest(
+            "alice", "device-1", timestamp, sign(timestamp), BODY, BODY.length
+        );
+
+        assertTrue(result.valid());
+    }
+
+    @Test
+    void deviceOfAnotherUserShouldBeRejected() throws Exception {
+        String timestamp = Instant.now().toString();
+
+        DpopVerificationResult result = service.verifyDpopRequest(
+            "mallory", "device-1", timestamp, sign(timestamp), BODY, BODY.length
+        );
+
+        assertFalse(result.valid());
+        assertEquals(HttpStatus.UNAUTHORIZED, result.status());
+        verify(replayGuard, never()).checkAndRecord(anyString());
+    }
+
+    @Test
+    void requestWithoutAuthenticatedUserShouldBeRejected() throws Exception {
+        String timestamp = Instant.now().toString();
+
+        DpopVerificationResult result = service.verifyDpopRequest(
+            null, "device-1", timestamp, sign(timestamp), BODY, BODY.length
+        );
+
+        assertFalse(result.valid());
+    }
+
+    @Test
+    void tamperedBodyShouldBeRejected() throws Exception {
+        String timestamp = Instant.now().toString();
+        byte[] tampered = "{\"amount\":999}".getBytes(StandardCharsets.UTF_8);
+
+        DpopVerificationResult result = service.verifyDpopRequest(
+            "alice", "device-1", timestamp, sign(timestamp), tampered, tampered.length
+        );
+
+        assertFalse(result.valid());
+        assertEquals("Invalid DPoP signature", result.message());
+    }
+
+    private String sign(String timestamp) throws Exception {
+        Signature signer = Signature.getInstance("SHA256withECDSA");
+        signer.initSign(keyPair.getPrivate());
+        signer.update(timestamp.getBytes(StandardCharsets.UTF_8));
+        signer.update(BODY);
+        return Base64.getEncoder().encodeToString(signer.sign());
+    }
+}
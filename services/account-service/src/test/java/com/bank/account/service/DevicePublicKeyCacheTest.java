@@ -0,0 +1,105 @@
+package com.bank.account.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.bank.account.service.DevicePublicKeyCache.DevicePublicKey;
+
+class DevicePublicKeyCacheTest {
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private DevicePublicKey load(String deviceId) {
+        loads.incrementAndGet();
+        return deviceId.startsWith("unknown") ? null : new DevicePublicKey("user-" + deviceId, null, "SHA256withECDSA");
+    }
+
+    @Test
+    void repeatedLookupsShouldLoadOnce() {
+        DevicePublicKeyCache cache = new DevicePublicKeyCache(10, Duration.ofMinutes(10));
+
+        DevicePublicKey first = cache.get("device-1", this::load);
+        DevicePublicKey second = cache.get("device-1", this::load);
+
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void unknownDevicesShouldNotBeCached() {
+        DevicePublicKeyCache cache = new DevicePublicKeyCache(10, Duration.ofMinutes(10));
+
+        assertNull(cache.get("unknown-1", this::load));
+        assertNull(cache.get("unknown-1", this::load));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void evictedDeviceShouldBeReloaded() {
+        DevicePublicKeyCache cache = new DevicePublicKeyCache(10, Duration.ofMinutes(10));
+        cache.get("device-1", this::load);
+
+        cache.evict("device-1");
+        cache.get("device-1", this::load);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void oldestEntryShouldBeDroppedWhenFull() {
+        DevicePublicKeyCache cache = new DevicePublicKeyCache(2, Duration.ofMinutes(10));
+        cache.get("device-1", this::load);
+        cache.get("device-2", this::load);
+        cache.get("device-3", this::load);
+        assertTrue(cache.isFull());
+
+        cache.get("device-3", this::load);
+        cache.get("device-2", this::load);
+        assertEquals(3, loads.get());
+
+        cache.get("device-1", this::load);
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void repeatedEvictionsShouldNotGrowTheQueue() {
+        DevicePublicKeyCache cache = new DevicePublicKeyCache(4, Duration.ofMinutes(10));
+
+        for (int i = 0; i < 1_000; i++) {
+            cache.get("device-1", this::load);
+            cache.evict("device-1");
+        }
+        cache.get("device-2", this::load);
+
+        assertTrue(cache.queuedSize() <= 2 * 4);
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void staleQueueEntriesShouldNotEvictLiveKeys() {
+        DevicePublicKeyCache cache = new DevicePublicKeyCache(2, Duration.ofMinutes(10));
+        cache.get("device-1", this::load);
+        cache.evict("device-1");
+        cache.get("device-2", this::load);
+        cache.get("device-3", this::load);
+
+        cache.get("device-2", this::load);
+        cache.get("device-3", this::load);
+
+        assertEquals(2, cache.size());
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void expiredEntriesShouldBeReloaded() {
+        DevicePublicKeyCache cache = new DevicePublicKeyCache(10, Duration.ZERO);
+        cache.get("device-1", this::load);
+        cache.get("device-1", this::load);
+
+        assertEquals(2, loads.get());
+    }
+}
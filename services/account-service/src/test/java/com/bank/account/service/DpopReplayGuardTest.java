@@ -0,0 +1,166 @@
+package com.bank.account.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import com.bank.account.service.DpopReplayGuard.Mode;
+import com.bank.account.service.DpopReplayGuard.Verdict;
+
+class DpopReplayGuardTest {
+
+    private static final List<Object> NOT_SEEN = List.of(false, false, false, false, false, false, false);
+    private static final List<Object> SEEN = List.of(false, false, true, false, false, false, false);
+
+    private StringRedisTemplate redisTemplate;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redisTemplate = mock(StringRedisTemplate.class);
+        SetOperations<String, String> setOperations = mock(SetOperations.class);
+        when(redisTemplate.opsForSet()).thenReturn(setOperations);
+        when(setOperations.scan(anyString(), any(ScanOptions.class))).thenAnswer(invocation -> mock(Cursor.class));
+    }
+
+    @Test
+    void freshSignatureShouldNotTouchRedisOnceFeedIsLive() {
+        DpopReplayGuard guard = liveGuard();
+
+        assertEquals(Verdict.FRESH, guard.checkAndRecord("sig-1"));
+        assertEquals(Verdict.FRESH, guard.checkAndRecord("sig-2"));
+        verify(redisTemplate, never()).executePipelined(any(RedisCallback.class));
+    }
+
+    @Test
+    void repeatedSignatureShouldBeReplay() {
+        DpopReplayGuard guard = liveGuard();
+
+        assertEquals(Verdict.FRESH, guard.checkAndRecord("sig-1"));
+        assertEquals(Verdict.REPLAY, guard.checkAndRecord("sig-1"));
+    }
+
+    @Test
+    void shouldCheckRedisForEverySignatureUntilFeedIsLive() {
+        DpopReplayGuard guard = guard(Mode.LOCAL_FIRST);
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenReturn(NOT_SEEN, SEEN);
+
+        assertEquals(Verdict.FRESH, guard.checkAndRecord("sig-1"));
+        assertEquals(Verdict.REPLAY, guard.checkAndRecord("sig-from-peer"));
+        verify(redisTemplate, times(2)).executePipelined(any(RedisCallback.class));
+    }
+
+    @Test
+    void shouldCheckRedisAgainAfterFeedIsLost() {
+        DpopReplayGuard guard = liveGuard();
+        guard.onPeerFeedLost();
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenReturn(SEEN);
+
+        assertEquals(Verdict.REPLAY, guard.checkAndRecord("sig-from-peer"));
+    }
+
+    @Test
+    void shouldStayStrictWhenReloadFails() {
+        DpopReplayGuard guard = guard(Mode.LOCAL_FIRST);
+        when(redisTemplate.opsForSet()).thenThrow(new RedisConnectionFailureException("down"));
+        guard.onPeerFeedSubscribed();
+        guard.flush();
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenReturn(NOT_SEEN);
+
+        assertEquals(Verdict.FRESH, guard.checkAndRecord("sig-1"));
+        verify(redisTemplate).executePipelined(any(RedisCallback.class));
+    }
+
+    @Test
+    void shouldRefuseWhenRedisLookupFails() {
+        DpopReplayGuard guard = guard(Mode.LOCAL_FIRST);
+        when(redisTemplate.executePipelined(any(RedisCallback.class)))
+            .thenThrow(new RedisConnectionFailureException("down"));
+
+        assertEquals(Verdict.UNAVAILABLE, guard.checkAndRecord("sig-1"));
+    }
+
+    @Test
+    void flushShouldStoreThenBroadcastFingerprints() {
+        DpopReplayGuard guard = liveGuard();
+        guard.checkAndRecord("sig-1");
+        guard.checkAndRecord("sig-2");
+
+        guard.flush();
+
+        ArgumentCaptor<String> message = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate).executePipelined(any(RedisCallback.class));
+        verify(redisTemplate).convertAndSend(eq(DpopReplayGuard.CHANNEL), message.capture());
+        assertEquals(2, message.getValue().split(",").length);
+
+        guard.flush();
+        verify(redisTemplate, times(1)).convertAndSend(anyString(), anyString());
+    }
+
+    @Test
+    void flushShouldRetryFingerprintsThatFailedToStore() {
+        DpopReplayGuard guard = liveGuard();
+        guard.checkAndRecord("sig-1");
+        when(redisTemplate.executePipelined(any(RedisCallback.class)))
+            .thenThrow(new RedisConnectionFailureException("down"))
+            .thenReturn(List.of());
+
+        guard.flush();
+        verify(redisTemplate, never()).convertAndSend(anyString(), anyString());
+
+        guard.flush();
+        verify(redisTemplate).convertAndSend(eq(DpopReplayGuard.CHANNEL), anyString());
+    }
+
+    @Test
+    void peerFingerprintShouldBeConfirmedInRedis() {
+        DpopReplayGuard origin = liveGuard();
+        origin.checkAndRecord("sig-1");
+        origin.flush();
+        ArgumentCaptor<String> message = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate).convertAndSend(eq(DpopReplayGuard.CHANNEL), message.capture());
+
+        DpopReplayGuard peer = liveGuard();
+        peer.recordPeerFingerprints("," + message.getValue() + ",,");
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenReturn(SEEN);
+
+        assertEquals(Verdict.REPLAY, peer.checkAndRecord("sig-1"));
+    }
+
+    @Test
+    void redisModeShouldUseSetIfAbsent() {
+        @SuppressWarnings("unchecked")
+        ValueOperations<String, String> valueOperations = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(anyString(), eq("1"), any(Duration.class))).thenReturn(true, false);
+        DpopReplayGuard guard = guard(Mode.REDIS);
+
+        assertEquals(Verdict.FRESH, guard.checkAndRecord("sig-1"));
+        assertEquals(Verdict.REPLAY, guard.checkAndRecord("sig-1"));
+    }
+
+    private DpopReplayGuard liveGuard() {
+        DpopReplayGuard guard = guard(Mode.LOCAL_FIRST);
+        guard.onPeerFeedSubscribed();
+        guard.flush();
+        return guard;
+    }
+
+    private DpopReplayGuard guard(Mode mode) {
+        return new DpopReplayGuard(redisTemplate, mode, Duration.ofMinutes(6), 1000, 0.001);
+    }
+}
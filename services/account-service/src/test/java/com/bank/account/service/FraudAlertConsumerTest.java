@@ -0,0 +1,55 @@
+package com.bank.account.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.bank.account.config.KafkaRetryTopics;
+import com.bank.account.inbox.ProcessedEventStore;
+import com.bank.account.repository.AccountRepository;
+import com.bank.account.service.FraudAlertConsumer.FraudAlertPayload;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class FraudAlertConsumerTest {
+
+    private FraudAlertConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        consumer = new FraudAlertConsumer(
+            mock(AccountRepository.class),
+            mock(KeyOrderedBatchProcessor.class),
+            mock(KafkaRetryTopics.class),
+            mock(ProcessedEventStore.class),
+            mock(PlatformTransactionManager.class),
+            new ObjectMapper(),
+            70
+        );
+    }
+
+    @Test
+    void highSeverityAlertShouldFreeze() {
+        assertTrue(consumer.isBlocking(new FraudAlertPayload("user1", null, "HIGH", null)));
+        assertTrue(consumer.isBlocking(new FraudAlertPayload("user1", null, "CRITICAL", null)));
+    }
+
+    @Test
+    void alertWithoutSeverityShouldFreeze() {
+        assertTrue(consumer.isBlocking(new FraudAlertPayload("user1", null, null, null)));
+    }
+
+    @Test
+    void mediumSeverityAlertShouldBeAdvisory() {
+        assertFalse(consumer.isBlocking(new FraudAlertPayload("user1", null, "MEDIUM", null)));
+    }
+
+    @Test
+    void scoredAlertShouldFreezeOnlyFromThreshold() {
+        assertFalse(consumer.isBlocking(new FraudAlertPayload("user1", null, "MEDIUM", 69)));
+        assertTrue(consumer.isBlocking(new FraudAlertPayload("user1", null, "HIGH", 70)));
+        assertFalse(consumer.isBlocking(new FraudAlertPayload("user1", null, "HIGH", 40)));
+    }
+}
@@ -0,0 +1,132 @@
+package com.bank.account.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+
+class KeyOrderedBatchProcessorTest {
+
+    private final List<ConsumerRecord<?, ?>> rejected = Collections.synchronizedList(new ArrayList<>());
+    private final KeyOrderedBatchProcessor processor =
+        new KeyOrderedBatchProcessor(4, (record, failure) -> rejected.add(record));
+
+    private static List<ConsumerRecord<String, String>> batch(String... keys) {
+        List<ConsumerRecord<String, String>> records = new ArrayList<>();
+        for (int i = 0; i < keys.length; i++) {
+            records.add(new ConsumerRecord<>("topic", 0, i, keys[i], keys[i] + "-" + i));
+        }
+        return records;
+    }
+
+    @Test
+    void sameKeyShouldKeepOffsetOrderWithinItsLane() {
+        List<ConsumerRecord<String, String>> records = batch("a", "b", "a", "c", "b", "a");
+        Map<String, List<Long>> seen = new ConcurrentHashMap<>();
+
+        processor.process(records, lane -> lane.forEach(record ->
+            seen.computeIfAbsent(record.key(), key -> Collections.synchronizedList(new ArrayList<>()))
+                .add(record.offset())));
+
+        assertEquals(List.of(0L, 2L, 5L), seen.get("a"));
+        assertEquals(List.of(1L, 4L), seen.get("b"));
+        assertEquals(List.of(3L), seen.get("c"));
+    }
+
+    @Test
+    void failedLaneShouldBeReportedAtItsFirstRecord() {
+        List<ConsumerRecord<String, String>> records = batch("ok", "bad", "ok", "bad", "ok");
+
+        BatchListenerFailedException failure = assertThrows(BatchListenerFailedException.class, () ->
+            processor.process(records, lane -> {
+                if (lane.stream().anyMatch(record -> record.offset() == 3)) {
+                    throw new IllegalStateException("database unavailable");
+                }
+            }));
+
+        // The lane holding offsets 1 and 3 was rolled back as a whole, so offset 1 must be redelivered.
+        assertEquals(1, failure.getIndex());
+    }
+
+    @Test
+    void succeededLaneAfterTheFailureShouldBeRedeliveredForDedupToDrop() {
+        List<ConsumerRecord<String, String>> records = batch("bad", "ok", "ok");
+        List<Long> handled = Collections.synchronizedList(new ArrayList<>());
+
+        BatchListenerFailedException failure = assertThrows(BatchListenerFailedException.class, () ->
+            processor.process(records, lane -> {
+                if (lane.get(0).key().equals("bad")) {
+                    throw new IllegalStateException("database unavailable");
+                }
+                lane.forEach(record -> handled.add(record.offset()));
+            }));
+
+        // Offsets 1 and 2 were handled, yet only offsets before the failure index are committed.
+        assertEquals(List.of(1L, 2L), handled);
+        assertEquals(0, failure.getIndex());
+    }
+
+    @Test
+    void earliestFailedLaneShouldWin() {
+        List<ConsumerRecord<String, String>> records = batch("x", "y", "x", "y");
+
+        BatchListenerFailedException failure = assertThrows(BatchListenerFailedException.class, () ->
+            processor.process(records, lane -> {
+                throw new IllegalStateException("every lane fails");
+            }));
+
+        assertEquals(0, failure.getIndex());
+    }
+
+    @Test
+    void blamedLaterRecordShouldNotDeadLetterTheLaneHead() {
+        List<ConsumerRecord<String, String>> records = batch("a", "a", "a");
+
+        BatchListenerFailedException failure = assertThrows(BatchListenerFailedException.class, () ->
+            processor.process(records, lane -> {
+                throw new BatchListenerFailedException(
+                    "bad record",
+                    new InvalidEventPayloadException("no userId"),
+                    lane.get(2)
+                );
+            }));
+
+        assertEquals(0, failure.getIndex());
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            assertFalse(cause instanceof InvalidEventPayloadException);
+        }
+    }
+
+    @Test
+    void blamedLaneHeadShouldKeepItsCause() {
+        List<ConsumerRecord<String, String>> records = batch("a", "a");
+
+        BatchListenerFailedException failure = assertThrows(BatchListenerFailedException.class, () ->
+            processor.process(records, lane -> {
+                throw new BatchListenerFailedException(
+                    "bad record",
+                    new InvalidEventPayloadException("no userId"),
+                    lane.get(0)
+                );
+            }));
+
+        assertEquals(0, failure.getIndex());
+        assertInstanceOf(InvalidEventPayloadException.class, failure.getCause());
+    }
+
+    @Test
+    void rejectShouldHandTheRecordToTheRecoverer() {
+        ConsumerRecord<String, String> record = batch("a").get(0);
+
+        processor.reject(record, new InvalidEventPayloadException("no userId"));
+
+        assertEquals(List.of(record), rejected);
+    }
+}
@@ -0,0 +1,17 @@
+package com.bank.auth.messaging;
+
+import java.time.Instant;
+
+/**
+ * {@code firstDevice} marks the binding made while signing up, so consumers can tell it apart from a
+ * new device appearing on an existing account.
+ */
+public record DeviceEventPayload(
+    String eventType,
+    String userId,
+    String deviceId,
+    boolean firstDevice,
+    Instant occurredAt
+) {
+    public static final String DEVICE_BOUND = "DEVICE_BOUND";
+}
@@ -0,0 +1,60 @@
+package com.bank.auth.messaging;
+
+import java.time.Instant;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Publishes device lifecycle events keyed by userId, so consumers can co-partition them with the
+ * userId-keyed transfer stream.
+ */
+@Component
+public class DeviceEventPublisher {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DeviceEventPublisher.class);
+
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final ObjectMapper objectMapper;
+    private final String deviceEventsTopic;
+
+    public DeviceEventPublisher(
+        KafkaTemplate<String, String> kafkaTemplate,
+        ObjectMapper objectMapper,
+        @Value("${app.kafka.topics.device-events:auth.device-events.v1}") String deviceEventsTopic
+    ) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.objectMapper = objectMapper;
+        this.deviceEventsTopic = deviceEventsTopic;
+    }
+
+    /**
+     * Best effort: the device is already registered, so a failure here is logged and the event dropped
+     * rather than failing the user's request. Fraud checks then miss this binding.
+     */
+    public void publishDeviceBound(String userId, String deviceId, boolean firstDevice) {
+        DeviceEventPayload event = new DeviceEventPayload(
+            DeviceEventPayload.DEVICE_BOUND,
+            userId,
+            deviceId,
+            firstDevice,
+            Instant.now()
+        );
+        try {
+            String payload = objectMapper.writeValueAsString(event);
+            kafkaTemplate.send(deviceEventsTopic, userId, payload).whenComplete((result, ex) -> {
+                if (ex != null) {
+                    LOGGER.warn("Failed to publish DEVICE_BOUND for userId={}", userId, ex);
+                }
+            });
+        } catch (JsonProcessingException | RuntimeException exception) {
+            LOGGER.error("Dropping DEVICE_BOUND for userId={}", userId, exception);
+        }
+    }
+}
@@ -8,4 +8,6 @@ import org.springframework.data.jpa.repository.JpaRepository;
 public interface ClientDeviceRepository extends JpaRepository<ClientDevice, UUID> {
 
     Optional<ClientDevice> findByDeviceId(String deviceId);
+
+    boolean existsByUserId(String userId);
 }
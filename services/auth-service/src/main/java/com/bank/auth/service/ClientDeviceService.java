@@ -20,6 +20,11 @@ public class ClientDeviceService {
         this.clientDeviceRepository = clientDeviceRepository;
     }
 
+    @Transactional(readOnly = true)
+    public boolean hasDevices(String userId) {
+        return clientDeviceRepository.existsByUserId(userId.trim());
+    }
+
     @Transactional
     public ClientDevice registerDevice(String userId, String deviceId, String base64PublicKey) {
         if (!StringUtils.hasText(userId)) {
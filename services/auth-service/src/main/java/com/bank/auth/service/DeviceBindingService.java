@@ -1,18 +1,26 @@
 package com.bank.auth.service;
 
+import java.nio.charset.StandardCharsets;
 import java.util.UUID;
 
+import org.apache.kafka.clients.producer.ProducerRecord;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import com.bank.auth.messaging.DeviceEventPublisher;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 @Service
 public class DeviceBindingService {
 
+    // Read by account-service's processed-events dedup. Registration is once per user, so repeated
+    // publishes for the same user (every device bind sends one) collapse into one event.
+    private static final String EVENT_ID_HEADER = "eventId";
+
     private final JwtService jwtService;
     private final ClientDeviceService clientDeviceService;
+    private final DeviceEventPublisher deviceEventPublisher;
     private final KafkaTemplate<String, String> kafkaTemplate;
     private final ObjectMapper objectMapper;
     private final String userRegisteredTopic;
@@ -20,12 +28,14 @@ public class DeviceBindingService {
     public DeviceBindingService(
         JwtService jwtService,
         ClientDeviceService clientDeviceService,
+        DeviceEventPublisher deviceEventPublisher,
         KafkaTemplate<String, String> kafkaTemplate,
         ObjectMapper objectMapper,
         @Value("${app.kafka.topics.user-registered:user.registered.v1}") String userRegisteredTopic
     ) {
         this.jwtService = jwtService;
         this.clientDeviceService = clientDeviceService;
+        this.deviceEventPublisher = deviceEventPublisher;
         this.kafkaTemplate = kafkaTemplate;
         this.objectMapper = objectMapper;
         this.userRegisteredTopic = userRegisteredTopic;
@@ -33,7 +43,9 @@ public class DeviceBindingService {
 
     public JwtService.TokenPair bindDevice(String authorizationHeader, String deviceId, String publicKey) {
         UUID userId = jwtService.requireRegistrationUserId(authorizationHeader);
+        boolean firstDevice = !clientDeviceService.hasDevices(userId.toString());
         clientDeviceService.registerDevice(userId.toString(), deviceId, publicKey);
+        deviceEventPublisher.publishDeviceBound(userId.toString(), deviceId.trim(), firstDevice);
         publishUserRegistered(userId);
         return jwtService.generateFinalTokenPair(userId, deviceId);
     }
@@ -43,7 +55,10 @@ public class DeviceBindingService {
             String payload = objectMapper.writeValueAsString(
                 java.util.Map.of("userId", userId.toString(), "eventType", "USER_REGISTERED")
             );
-            kafkaTemplate.send(userRegisteredTopic, userId.toString(), payload);
+            ProducerRecord<String, String> record =
+                new ProducerRecord<>(userRegisteredTopic, userId.toString(), payload);
+            record.headers().add(EVENT_ID_HEADER, ("user-registered:" + userId).getBytes(StandardCharsets.UTF_8));
+            kafkaTemplate.send(record);
         } catch (Exception ex) {
             // Non-critical: account will be created on retry or manual provisioning
         }
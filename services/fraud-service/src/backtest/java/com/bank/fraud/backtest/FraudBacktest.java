@@ -0,0 +1,242 @@
+package com.bank.fraud.backtest;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.TestInputTopic;
+import org.apache.kafka.streams.TestOutputTopic;
+import org.apache.kafka.streams.TopologyTestDriver;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.SimpleCommandLinePropertySource;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.util.FileSystemUtils;
+
+import com.bank.fraud.config.FraudTopologyConfig;
+import com.bank.fraud.model.FraudAlert;
+import com.bank.fraud.model.TransferEvent;
+import com.bank.fraud.mule.MuleDetectionProperties;
+import com.bank.fraud.rule.AlertEmitMode;
+import com.bank.fraud.rule.FraudRule;
+import com.bank.fraud.serde.TransferEventSerde;
+import com.bank.fraud.takeover.DeviceTakeoverProperties;
+import com.bank.fraud.velocity.VelocityProperties;
+
+/**
+ * Replays a recorded dump of {@code account.events.v1} through the production fraud topology with
+ * {@link TopologyTestDriver} and reports how many alerts each rule fires and how fast it ran.
+ *
+ * <p>Not part of the production jar; build one that includes it with {@code mvn -Pbacktest package}.
+ * The default build still compiles it as a test source, so it cannot drift from the topology.
+ *
+ * <pre>
+ * java -cp fraud-service.jar -Dloader.main=com.bank.fraud.backtest.FraudBacktest \
+ *     org.springframework.boot.loader.launch.PropertiesLauncher events.ndjson [--format=binary] \
+ *     [--app.fraud.alerts.emit-mode=EVERY_UPDATE] [--any.rule.property=value]
+ * </pre>
+ *
+ * <p>Formats: {@code ndjson} holds one event payload per line; the record key is the payload's userId
+ * and the record time its committedAt. {@code binary} is a sequence of length-prefixed records
+ * {@code [int keyLength][key][long timestampMillis][int valueLength][value]} (big-endian, length -1
+ * for null), as written by a plain consumer dump. Record time always comes from the event, so windows
+ * behave exactly as they would have live.
+ */
+public final class FraudBacktest {
+
+    private static final String INPUT_TOPIC = "account.events.v1";
+    private static final String DEVICE_EVENTS_TOPIC = "auth.device-events.v1";
+    private static final String RULE_CONFIG_TOPIC = "fraud.rule-config.v1";
+    private static final String ALERTS_TOPIC = "fraud.alerts";
+    private static final int DRAIN_EVERY = 10_000;
+
+    private FraudBacktest() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        SimpleCommandLinePropertySource options = new SimpleCommandLinePropertySource(args);
+        List<String> files = new DefaultApplicationArguments(args).getNonOptionArgs();
+        if (files.isEmpty()) {
+            System.err.println("Usage: FraudBacktest <events-file> [--format=ndjson|binary] [--property=value ...]");
+            System.exit(2);
+        }
+        String format = options.containsProperty("format") ? options.getProperty("format") : "ndjson";
+        AlertEmitMode emitMode = AlertEmitMode.valueOf(
+            options.containsProperty("app.fraud.alerts.emit-mode")
+                ? options.getProperty("app.fraud.alerts.emit-mode")
+                : AlertEmitMode.FIRST_CROSSING.name()
+        );
+
+        Path stateDir = Files.createTempDirectory("fraud-backtest");
+        try (AnnotationConfigApplicationContext rulesContext = new AnnotationConfigApplicationContext()) {
+            rulesContext.getEnvironment().getPropertySources().addFirst(options);
+            rulesContext.scan(FraudRule.class.getPackageName());
+            rulesContext.refresh();
+            List<FraudRule> rules = List.copyOf(rulesContext.getBeansOfType(FraudRule.class).values());
+            VelocityProperties velocity = Binder.get(rulesContext.getEnvironment())
+                .bind("app.fraud.velocity", VelocityProperties.class)
+                .orElseGet(VelocityProperties::new);
+            MuleDetectionProperties mule = Binder.get(rulesContext.getEnvironment())
+                .bind("app.fraud.mule", MuleDetectionProperties.class)
+                .orElseGet(MuleDetectionProperties::new);
+            DeviceTakeoverProperties deviceTakeover = Binder.get(rulesContext.getEnvironment())
+                .bind("app.fraud.device-takeover", DeviceTakeoverProperties.class)
+                .orElseGet(DeviceTakeoverProperties::new);
+
+            StreamsBuilder streamsBuilder = new StreamsBuilder();
+            new FraudTopologyConfig(
+                rules,
+                emitMode,
+                velocity,
+                mule,
+                deviceTakeover,
+                INPUT_TOPIC,
+                DEVICE_EVENTS_TOPIC,
+                RULE_CONFIG_TOPIC,
+                Duration.ofSeconds(1),
+                ALERTS_TOPIC
+            ).fraudDetectionTopology(streamsBuilder);
+
+            Properties config = new Properties();
+            config.put(StreamsConfig.APPLICATION_ID_CONFIG, "fraud-backtest");
+            config.put(StreamsConfig.BOOTSTRAP_SERVERS_CONFIG, "backtest:9092");
+            config.put(StreamsConfig.STATE_DIR_CONFIG, stateDir.toString());
+
+            try (TopologyTestDriver driver = new TopologyTestDriver(streamsBuilder.build(), config)) {
+                TestInputTopic<String, byte[]> input = driver.createInputTopic(
+                    INPUT_TOPIC, Serdes.String().serializer(), Serdes.ByteArray().serializer()
+                );
+                JsonDeserializer<FraudAlert> alertDeserializer = new JsonDeserializer<>(FraudAlert.class, false);
+                TestOutputTopic<String, FraudAlert> alerts = driver.createOutputTopic(
+                    ALERTS_TOPIC, Serdes.String().deserializer(), alertDeserializer
+                );
+
+                Report report = new Report(rules);
+                long startedAt = System.nanoTime();
+                try (InputStream in = new BufferedInputStream(Files.newInputStream(Path.of(files.get(0))), 1 << 16)) {
+                    if ("binary".equalsIgnoreCase(format)) {
+                        replayBinary(in, input, alerts, report);
+                    } else {
+                        replayNdjson(in, input, alerts, report);
+                    }
+                }
+                report.collect(alerts);
+                report.print(System.nanoTime() - startedAt);
+            }
+        } finally {
+            FileSystemUtils.deleteRecursively(stateDir);
+        }
+    }
+
+    private static void replayNdjson(
+        InputStream in,
+        TestInputTopic<String, byte[]> input,
+        TestOutputTopic<String, FraudAlert> alerts,
+        Report report
+    ) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 1 << 16);
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            byte[] value = line.getBytes(StandardCharsets.UTF_8);
+            TransferEvent event = TransferEventSerde.read(value);
+            if (event == null) {
+                report.skipped++;
+                continue;
+            }
+            input.pipeInput(event.userId(), value, event.committedAt());
+            report.piped(alerts);
+        }
+    }
+
+    private static void replayBinary(
+        InputStream in,
+        TestInputTopic<String, byte[]> input,
+        TestOutputTopic<String, FraudAlert> alerts,
+        Report report
+    ) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        while (true) {
+            byte[] key;
+            try {
+                key = readChunk(data);
+            } catch (EOFException endOfDump) {
+                return;
+            }
+            long timestamp = data.readLong();
+            byte[] value = readChunk(data);
+            input.pipeInput(
+                key == null ? null : new String(key, StandardCharsets.UTF_8),
+                value,
+                Instant.ofEpochMilli(timestamp)
+            );
+            report.piped(alerts);
+        }
+    }
+
+    private static byte[] readChunk(DataInputStream data) throws IOException {
+        int length = data.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] chunk = new byte[length];
+        data.readFully(chunk);
+        return chunk;
+    }
+
+    private static final class Report {
+
+        private final Map<String, String> ruleIdByReason = new TreeMap<>();
+        private final Map<String, Long> alertsByRule = new TreeMap<>();
+        private long events;
+        private long skipped;
+
+        private Report(List<FraudRule> rules) {
+            for (FraudRule rule : rules) {
+                ruleIdByReason.put(rule.reason(), rule.id());
+                alertsByRule.put(rule.id(), 0L);
+            }
+        }
+
+        private void piped(TestOutputTopic<String, FraudAlert> alerts) {
+            if (++events % DRAIN_EVERY == 0) {
+                collect(alerts);
+            }
+        }
+
+        // Drained in chunks so a long replay does not hold every alert in memory.
+        private void collect(TestOutputTopic<String, FraudAlert> alerts) {
+            for (FraudAlert alert : alerts.readValuesToList()) {
+                String ruleId = ruleIdByReason.getOrDefault(alert.reason(), alert.reason());
+                alertsByRule.merge(ruleId, 1L, Long::sum);
+            }
+        }
+
+        private void print(long elapsedNanos) {
+            double seconds = elapsedNanos / 1_000_000_000.0;
+            System.out.printf("events replayed: %d (skipped %d unreadable)%n", events, skipped);
+            System.out.printf("elapsed: %.2f s, throughput: %.0f events/s (%.1f M/min)%n",
+                seconds, events / seconds, events / seconds * 60 / 1_000_000);
+            alertsByRule.forEach((ruleId, count) -> System.out.printf("  %-32s %d alerts%n", ruleId, count));
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.bank.fraud.analytics;
+
+import java.time.Duration;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.processor.PunctuationType;
+import org.apache.kafka.streams.processor.api.Processor;
+import org.apache.kafka.streams.processor.api.ProcessorContext;
+import org.apache.kafka.streams.processor.api.Record;
+import org.apache.kafka.streams.state.KeyValueIterator;
+import org.apache.kafka.streams.state.KeyValueStore;
+
+import com.bank.fraud.model.TransferEvent;
+
+/**
+ * Folds transfers into per-user, per-month (UTC), per-currency totals. Input is keyed by the user the
+ * totals belong to: a record keyed by the sender counts as outgoing, one keyed by the recipient as
+ * incoming. Months older than the retention are purged once a day.
+ */
+public class SpendingProcessor implements Processor<String, TransferEvent, Void, Void> {
+
+    public static final String STORE = "spending-monthly";
+
+    private static final char SEPARATOR = '|';
+    private static final Duration PURGE_INTERVAL = Duration.ofDays(1);
+
+    private final int retentionMonths;
+    private KeyValueStore<String, byte[]> store;
+
+    public SpendingProcessor(int retentionMonths) {
+        this.retentionMonths = retentionMonths;
+    }
+
+    /** {@code userId|yyyy-MM|currency}; a {@code userId|yyyy-MM|} prefix scan returns one month. */
+    public static String key(String userId, YearMonth month, String currency) {
+        return monthPrefix(userId, month) + currency;
+    }
+
+    public static String monthPrefix(String userId, YearMonth month) {
+        return userId + SEPARATOR + month + SEPARATOR;
+    }
+
+    public static String currencyOf(String key) {
+        return key.substring(key.lastIndexOf(SEPARATOR) + 1);
+    }
+
+    @Override
+    public void init(ProcessorContext<Void, Void> context) {
+        this.store = context.getStateStore(STORE);
+        context.schedule(PURGE_INTERVAL, PunctuationType.WALL_CLOCK_TIME, this::purgeExpired);
+    }
+
+    @Override
+    public void process(Record<String, TransferEvent> record) {
+        TransferEvent event = record.value();
+        YearMonth month = YearMonth.from(event.committedAt().atZone(ZoneOffset.UTC));
+        String key = key(record.key(), month, event.currency() == null ? "" : event.currency());
+
+        SpendingTotals totals = SpendingTotals.read(store.get(key));
+        totals = record.key().equals(event.userId())
+            ? totals.plusOutgoing(event.amountMinor())
+            : totals.plusIncoming(event.amountMinor());
+        store.put(key, totals.toBytes());
+    }
+
+    private void purgeExpired(long wallClockMillis) {
+        String oldestKept = YearMonth.now(ZoneOffset.UTC).minusMonths(retentionMonths).toString();
+        List<String> expired = new ArrayList<>();
+        try (KeyValueIterator<String, byte[]> entries = store.all()) {
+            while (entries.hasNext()) {
+                KeyValue<String, byte[]> entry = entries.next();
+                int monthStart = entry.key.indexOf(SEPARATOR) + 1;
+                String month = entry.key.substring(monthStart, entry.key.indexOf(SEPARATOR, monthStart));
+                if (month.compareTo(oldestKept) < 0) {
+                    expired.add(entry.key);
+                }
+            }
+        }
+        expired.forEach(store::delete);
+    }
+}
@@ -0,0 +1,46 @@
+package com.bank.fraud.analytics;
+
+import java.nio.ByteBuffer;
+
+/**
+ * One user's totals for one month and currency, stored as four longs (32 bytes): outgoing minor
+ * units, outgoing count, incoming minor units, incoming count.
+ */
+public record SpendingTotals(
+    long outgoingMinor,
+    long outgoingCount,
+    long incomingMinor,
+    long incomingCount
+) {
+
+    static final int BYTES = 4 * Long.BYTES;
+
+    public static SpendingTotals read(byte[] data) {
+        if (data == null || data.length != BYTES) {
+            return new SpendingTotals(0, 0, 0, 0);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        return new SpendingTotals(buffer.getLong(), buffer.getLong(), buffer.getLong(), buffer.getLong());
+    }
+
+    SpendingTotals plusOutgoing(long amountMinor) {
+        return new SpendingTotals(
+            Math.addExact(outgoingMinor, amountMinor), outgoingCount + 1, incomingMinor, incomingCount
+        );
+    }
+
+    SpendingTotals plusIncoming(long amountMinor) {
+        return new SpendingTotals(
+            outgoingMinor, outgoingCount, Math.addExact(incomingMinor, amountMinor), incomingCount + 1
+        );
+    }
+
+    byte[] toBytes() {
+        return ByteBuffer.allocate(BYTES)
+            .putLong(outgoingMinor)
+            .putLong(outgoingCount)
+            .putLong(incomingMinor)
+            .putLong(incomingCount)
+            .array();
+    }
+}
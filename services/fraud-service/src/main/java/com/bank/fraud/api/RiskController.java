@@ -0,0 +1,69 @@
+package com.bank.fraud.api;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.bank.fraud.service.RiskQueryService;
+import com.bank.fraud.service.TransferRiskScorer;
+
+import jakarta.validation.Valid;
+
+@RestController
+public class RiskController {
+
+    private final RiskQueryService riskQueryService;
+    private final TransferRiskScorer transferRiskScorer;
+    private final String internalApiKey;
+
+    public RiskController(
+        RiskQueryService riskQueryService,
+        TransferRiskScorer transferRiskScorer,
+        @Value("${app.internal-api-key:}") String internalApiKey
+    ) {
+        this.riskQueryService = riskQueryService;
+        this.transferRiskScorer = transferRiskScorer;
+        this.internalApiKey = internalApiKey;
+    }
+
+    // Fails closed: with no key configured the internal endpoints refuse every caller.
+    private void verifyApiKey(String providedKey) {
+        if (internalApiKey == null || internalApiKey.isBlank() || !internalApiKey.equals(providedKey)) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid or missing API key");
+        }
+    }
+
+    @GetMapping("/api/v1/risk/users/{userId}")
+    public UserRiskResponse getUserRisk(
+        @RequestHeader(name = "X-Internal-Api-Key", required = false) String apiKey,
+        @PathVariable("userId") String userId
+    ) {
+        verifyApiKey(apiKey);
+        return riskQueryService.findUserRisk(userId);
+    }
+
+    // Peer-to-peer hop: answers from this instance's stores only, so forwarded requests never bounce.
+    @GetMapping("/internal/v1/risk/users/{userId}")
+    public UserRiskResponse getLocalUserRisk(
+        @RequestHeader(name = "X-Internal-Api-Key", required = false) String apiKey,
+        @PathVariable("userId") String userId
+    ) {
+        verifyApiKey(apiKey);
+        return riskQueryService.findLocalUserRisk(userId);
+    }
+
+    @PostMapping("/internal/v1/risk/score")
+    public RiskScoreResponse scoreTransfer(
+        @RequestHeader(name = "X-Internal-Api-Key", required = false) String apiKey,
+        @Valid @RequestBody RiskScoreRequest request
+    ) {
+        verifyApiKey(apiKey);
+        return transferRiskScorer.score(request);
+    }
+}
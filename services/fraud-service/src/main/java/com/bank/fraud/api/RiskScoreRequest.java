@@ -0,0 +1,18 @@
+package com.bank.fraud.api;
+
+import java.math.BigDecimal;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+public record RiskScoreRequest(
+    @NotBlank String userId,
+    Long fromAccountId,
+    Long toAccountId,
+    // At most the 4 decimals of TransferEvent minor units, and small enough for a long of them.
+    @NotNull @DecimalMin(value = "0", inclusive = false) @Digits(integer = 14, fraction = 4) BigDecimal amount,
+    String currency
+) {
+}
@@ -0,0 +1,12 @@
+package com.bank.fraud.api;
+
+import java.util.List;
+
+public record RiskScoreResponse(
+    String decision,
+    List<String> reasons
+) {
+
+    public static final String ALLOW = "ALLOW";
+    public static final String BLOCK = "BLOCK";
+}
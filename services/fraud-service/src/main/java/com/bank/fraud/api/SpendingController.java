@@ -0,0 +1,70 @@
+package com.bank.fraud.api;
+
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.bank.fraud.service.SpendingQueryService;
+
+@RestController
+public class SpendingController {
+
+    private final SpendingQueryService spendingQueryService;
+    private final String internalApiKey;
+
+    public SpendingController(
+        SpendingQueryService spendingQueryService,
+        @Value("${app.internal-api-key:}") String internalApiKey
+    ) {
+        this.spendingQueryService = spendingQueryService;
+        this.internalApiKey = internalApiKey;
+    }
+
+    // Fails closed: with no key configured the internal endpoints refuse every caller.
+    private void verifyApiKey(String providedKey) {
+        if (internalApiKey == null || internalApiKey.isBlank() || !internalApiKey.equals(providedKey)) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid or missing API key");
+        }
+    }
+
+    @GetMapping("/api/v1/spending/users/{userId}")
+    public SpendingSummaryResponse getMonthlySpending(
+        @RequestHeader(name = "X-Internal-Api-Key", required = false) String apiKey,
+        @PathVariable("userId") String userId,
+        @RequestParam(name = "month", required = false) String month
+    ) {
+        verifyApiKey(apiKey);
+        return spendingQueryService.findMonthlySpending(userId, parseMonth(month));
+    }
+
+    // Peer-to-peer hop: answers from this instance's store only, so forwarded requests never bounce.
+    @GetMapping("/internal/v1/spending/users/{userId}")
+    public SpendingSummaryResponse getLocalMonthlySpending(
+        @RequestHeader(name = "X-Internal-Api-Key", required = false) String apiKey,
+        @PathVariable("userId") String userId,
+        @RequestParam(name = "month", required = false) String month
+    ) {
+        verifyApiKey(apiKey);
+        return spendingQueryService.findLocalMonthlySpending(userId, parseMonth(month));
+    }
+
+    private static YearMonth parseMonth(String month) {
+        if (month == null || month.isBlank()) {
+            return YearMonth.now(ZoneOffset.UTC);
+        }
+        try {
+            return YearMonth.parse(month);
+        } catch (DateTimeParseException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "month must be formatted as yyyy-MM");
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.bank.fraud.api;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public record SpendingSummaryResponse(
+    String userId,
+    String month,
+    List<CurrencyTotals> totals
+) {
+
+    public record CurrencyTotals(
+        String currency,
+        BigDecimal outgoingTotal,
+        long outgoingCount,
+        BigDecimal incomingTotal,
+        long incomingCount
+    ) {
+    }
+}
@@ -0,0 +1,21 @@
+package com.bank.fraud.api;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+public record UserRiskResponse(
+    String userId,
+    String riskStatus,
+    List<RuleWindow> windows
+) {
+
+    public record RuleWindow(
+        String ruleId,
+        Instant windowStart,
+        Instant windowEnd,
+        BigDecimal total,
+        boolean violated
+    ) {
+    }
+}
@@ -0,0 +1,46 @@
+package com.bank.fraud.config;
+
+import java.nio.charset.StandardCharsets;
+
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.streams.processor.api.FixedKeyProcessor;
+import org.apache.kafka.streams.processor.api.FixedKeyProcessorContext;
+import org.apache.kafka.streams.processor.api.FixedKeyRecord;
+import org.apache.kafka.streams.processor.api.RecordMetadata;
+
+import com.bank.fraud.model.FraudAlert;
+
+/**
+ * Stamps each alert with an {@code eventId} header derived from the input record that raised it and
+ * the alert's reason. Reprocessing the same input after a crash (at-least-once) raises the same ids,
+ * so account-service's processed-events dedup drops the repeats. Alerts raised outside record
+ * processing, e.g. from a punctuator, carry no header and fall back to their topic coordinates.
+ */
+final class AlertEventIdProcessor implements FixedKeyProcessor<String, FraudAlert, FraudAlert> {
+
+    static final String EVENT_ID_HEADER = "eventId";
+
+    private FixedKeyProcessorContext<String, FraudAlert> context;
+
+    @Override
+    public void init(FixedKeyProcessorContext<String, FraudAlert> context) {
+        this.context = context;
+    }
+
+    @Override
+    public void process(FixedKeyRecord<String, FraudAlert> record) {
+        RecordMetadata source = context.recordMetadata().orElse(null);
+        if (source == null) {
+            context.forward(record);
+            return;
+        }
+        // A copy, since headers are shared with the input record and every other alert it raised.
+        Headers headers = new RecordHeaders(record.headers().toArray());
+        headers.remove(EVENT_ID_HEADER);
+        String eventId = source.topic() + "-" + source.partition() + "@" + source.offset()
+            + "/" + record.value().reason();
+        headers.add(EVENT_ID_HEADER, eventId.getBytes(StandardCharsets.UTF_8));
+        context.forward(record.withHeaders(headers));
+    }
+}
@@ -1,186 +1,258 @@
 package com.bank.fraud.config;
 
-import java.math.BigDecimal;
 import java.time.Duration;
-import java.time.Instant;
-import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Locale;
 
 import org.apache.kafka.common.serialization.Serdes;
 import org.apache.kafka.streams.StreamsBuilder;
 import org.apache.kafka.streams.kstream.Consumed;
-import org.apache.kafka.streams.kstream.Grouped;
+import org.apache.kafka.streams.kstream.JoinWindows;
 import org.apache.kafka.streams.kstream.KStream;
-import org.apache.kafka.streams.kstream.KTable;
 import org.apache.kafka.streams.kstream.Materialized;
 import org.apache.kafka.streams.kstream.Produced;
-import org.apache.kafka.streams.kstream.TimeWindows;
-import org.apache.kafka.streams.kstream.Windowed;
-import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.kstream.Repartitioned;
+import org.apache.kafka.streams.kstream.StreamJoined;
+import org.apache.kafka.streams.state.Stores;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.annotation.EnableKafkaStreams;
 import org.springframework.kafka.support.serializer.JsonSerde;
 
+import com.bank.fraud.model.DeviceBoundEvent;
 import com.bank.fraud.model.FraudAlert;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.bank.fraud.model.TransferEvent;
+import com.bank.fraud.mule.MuleDetectionProcessor;
+import com.bank.fraud.mule.MuleDetectionProperties;
+import com.bank.fraud.rule.AlertEmitMode;
+import com.bank.fraud.rule.FraudRule;
+import com.bank.fraud.rule.FraudRuleProcessor;
+import com.bank.fraud.serde.DeviceBoundEventSerde;
+import com.bank.fraud.serde.EventTimeExtractor;
+import com.bank.fraud.serde.TransferEventSerde;
+import com.bank.fraud.takeover.DeviceTakeoverJoiner;
+import com.bank.fraud.takeover.DeviceTakeoverProperties;
+import com.bank.fraud.velocity.VelocityProcessor;
+import com.bank.fraud.velocity.VelocityProperties;
+import com.bank.fraud.velocity.VelocityWindow;
 
 @Configuration
 @EnableKafkaStreams
+@EnableConfigurationProperties({
+    VelocityProperties.class,
+    MuleDetectionProperties.class,
+    DeviceTakeoverProperties.class
+})
 public class FraudTopologyConfig {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(FraudTopologyConfig.class);
 
-    private static final BigDecimal NIGHT_WINDOW_LIMIT = new BigDecimal("50000");
+    public static final String RULE_CONFIG_STORE = "fraud-rule-config";
 
-    private final ObjectMapper objectMapper;
+    private final List<FraudRule> rules;
+    private final AlertEmitMode alertEmitMode;
+    private final VelocityProperties velocityProperties;
+    private final MuleDetectionProperties muleDetectionProperties;
+    private final DeviceTakeoverProperties deviceTakeoverProperties;
     private final String outboxTopic;
+    private final String deviceEventsTopic;
+    private final String ruleConfigTopic;
+    private final Duration ruleConfigRefreshInterval;
     private final String fraudAlertsTopic;
 
     public FraudTopologyConfig(
-        ObjectMapper objectMapper,
+        List<FraudRule> rules,
+        @Value("${app.fraud.alerts.emit-mode:FIRST_CROSSING}") AlertEmitMode alertEmitMode,
+        VelocityProperties velocityProperties,
+        MuleDetectionProperties muleDetectionProperties,
+        DeviceTakeoverProperties deviceTakeoverProperties,
         @Value("${app.kafka.topics.outbox-events:account.events.v1}") String outboxTopic,
+        @Value("${app.kafka.topics.device-events:auth.device-events.v1}") String deviceEventsTopic,
+        @Value("${app.kafka.topics.rule-config:fraud.rule-config.v1}") String ruleConfigTopic,
+        @Value("${app.fraud.rule-config.refresh-interval:1000}") Duration ruleConfigRefreshInterval,
         @Value("${app.kafka.topics.fraud-alerts:fraud.alerts}") String fraudAlertsTopic
     ) {
-        this.objectMapper = objectMapper;
+        this.rules = List.copyOf(rules);
+        this.alertEmitMode = alertEmitMode;
+        this.velocityProperties = velocityProperties;
+        this.muleDetectionProperties = muleDetectionProperties;
+        this.deviceTakeoverProperties = deviceTakeoverProperties;
         this.outboxTopic = outboxTopic;
+        this.deviceEventsTopic = deviceEventsTopic;
+        this.ruleConfigTopic = ruleConfigTopic;
+        this.ruleConfigRefreshInterval = ruleConfigRefreshInterval;
         this.fraudAlertsTopic = fraudAlertsTopic;
     }
 
     @Bean
-    public KStream<String, String> fraudDetectionTopology(StreamsBuilder streamsBuilder) {
-        KStream<String, String> source = streamsBuilder.stream(
+    public KStream<String, TransferEvent> fraudDetectionTopology(StreamsBuilder streamsBuilder) {
+        List<String> storeNames = new ArrayList<>();
+        for (FraudRule rule : rules) {
+            storeNames.add(addWindowStore(streamsBuilder, FraudRuleProcessor.storeName(rule), rule.windowSize()));
+            if (alertEmitMode == AlertEmitMode.FIRST_CROSSING) {
+                storeNames.add(addWindowStore(streamsBuilder, FraudRuleProcessor.alertedStoreName(rule), rule.windowSize()));
+            }
+        }
+
+        // account.events.v1 is keyed by userId, so the rule stores are co-partitioned with the
+        // source and no repartition topic is needed. The serde yields null for anything unusable.
+        //
+        // Events published before the outbox switched to userId keys are keyed by transferId. They
+        // would land on the wrong task and are dropped with a warning rather than aggregated under
+        // that key; re-keying them would bring back the repartition topic for a one-off backlog.
+        // Cut-over: roll out account-service first, let the previous fraud-service consume
+        // account.events.v1 up to the first userId-keyed event, then deploy this topology. Anything
+        // older it still reads is missing from rule totals for at most one rule window.
+        KStream<String, TransferEvent> source = streamsBuilder.stream(
             outboxTopic,
-            Consumed.with(Serdes.String(), Serdes.String())
+            Consumed.with(Serdes.String(), new TransferEventSerde())
+                .withTimestampExtractor(new EventTimeExtractor())
         );
 
-        KStream<String, SuspiciousTransfer> suspiciousNightTransfers = source
-            .flatMap((key, value) -> parseTransferCreatedEvent(value))
-            .filter((userId, transfer) -> isNightTransfer(transfer.timestamp()));
-
-        KTable<Windowed<String>, Double> hourlyNightSumByUser = suspiciousNightTransfers
-            .mapValues(transfer -> transfer.amount().doubleValue())
-            .groupByKey(Grouped.with(Serdes.String(), Serdes.Double()))
-            .windowedBy(TimeWindows.ofSizeWithNoGrace(Duration.ofHours(1)))
-            .reduce(Double::sum, Materialized.with(Serdes.String(), Serdes.Double()));
-
-        hourlyNightSumByUser
-            .toStream()
-            .filter((windowedUserId, totalAmount) -> totalAmount != null && totalAmount > NIGHT_WINDOW_LIMIT.doubleValue())
-            .map((windowedUserId, totalAmount) -> {
-                String userId = windowedUserId.key();
-                FraudAlert alert = new FraudAlert(
-                    userId,
-                    "Night transfers exceeded 50000 in a 1-hour window"
-                );
-                return KeyValue.pair(userId, alert);
-            })
-            .to(fraudAlertsTopic, Produced.with(Serdes.String(), new JsonSerde<>(FraudAlert.class)));
+        // Rule parameters are tiny and read by every task, so they are replicated to each instance as
+        // a global table rather than co-partitioned; values stay raw and are parsed on refresh.
+        streamsBuilder.globalTable(
+            ruleConfigTopic,
+            Consumed.with(Serdes.String(), Serdes.ByteArray()),
+            Materialized.as(RULE_CONFIG_STORE)
+        );
 
-        return source;
-    }
+        KStream<String, TransferEvent> transfers = source
+            .filter((userId, event) -> event != null && isKeyedByUser(userId, event));
 
-    private List<KeyValue<String, SuspiciousTransfer>> parseTransferCreatedEvent(String rawValue) {
-        if (rawValue == null || rawValue.isBlank()) {
-            return List.of();
+        KStream<String, FraudAlert> alerts = transfers
+            .process(
+                () -> new FraudRuleProcessor(rules, alertEmitMode, RULE_CONFIG_STORE, ruleConfigRefreshInterval),
+                storeNames.toArray(String[]::new)
+            );
+
+        if (velocityProperties.isEnabled()) {
+            addVelocityStores(streamsBuilder);
+            alerts = alerts.merge(transfers.process(
+                () -> new VelocityProcessor(velocityProperties),
+                VelocityProcessor.storeNames()
+            ));
         }
 
-        try {
-            JsonNode node = objectMapper.readTree(rawValue);
-            if (!isTransferCreatedEvent(node)) {
-                return List.of();
-            }
+        if (muleDetectionProperties.isEnabled()) {
+            addMuleStores(streamsBuilder);
+            // The only repartition in the topology: fan-in state is owned by the receiving account.
+            // Mule alerts are keyed by that account id.
+            alerts = alerts.merge(transfers
+                .filter((userId, event) -> event.toAccountId() != null)
+                .selectKey((userId, event) -> event.toAccountId().toString())
+                .repartition(Repartitioned.with(Serdes.String(), new TransferEventSerde())
+                    .withName("mule-by-destination"))
+                .process(
+                    () -> new MuleDetectionProcessor(muleDetectionProperties),
+                    MuleDetectionProcessor.storeNames()
+                ));
+        }
 
-            String userId = firstText(node, "userId", "clientId", "customerId");
-            if (userId == null || userId.isBlank()) {
-                return List.of();
-            }
+        if (deviceTakeoverProperties.isEnabled()) {
+            alerts = alerts.merge(deviceTakeoverAlerts(streamsBuilder, transfers));
+        }
 
-            BigDecimal amount = decimalValue(node, "amount");
-            Instant timestamp = instantValue(node, "timestamp", "createdAt", "committedAt", "requestedAt");
-            if (amount == null || amount.signum() <= 0 || timestamp == null) {
-                return List.of();
-            }
+        alerts
+            .processValues(AlertEventIdProcessor::new)
+            .to(fraudAlertsTopic, Produced.with(Serdes.String(), new JsonSerde<>(FraudAlert.class)));
 
-            return List.of(KeyValue.pair(userId, new SuspiciousTransfer(userId, amount, timestamp)));
-        } catch (Exception ex) {
-            LOGGER.debug("Skipping unparsable event: {}", rawValue, ex);
-            return List.of();
-        }
+        return source;
     }
 
-    private static boolean isTransferCreatedEvent(JsonNode node) {
-        String type = firstText(node, "type", "eventType", "event_type");
-        if (type == null || type.isBlank()) {
-            // If producer omits type, treat event as transfer-created candidate from outbox topic.
+    private static boolean isKeyedByUser(String key, TransferEvent event) {
+        if (key != null && key.equals(event.userId())) {
             return true;
         }
-
-        String normalized = type.toUpperCase(Locale.ROOT);
-        return normalized.equals("TRANSFER_CREATED")
-            || normalized.equals("TRANSFER_CREATE")
-            || normalized.equals("TRANSACTION_CREATED")
-            || normalized.equals("TRANSACTION_COMPLETED");
+        LOGGER.warn("Dropping transfer event {} keyed by {} instead of its userId; published before the cut-over?",
+            event.transferId(), key);
+        return false;
     }
 
-    private static boolean isNightTransfer(Instant timestamp) {
-        int hour = timestamp.atZone(ZoneOffset.UTC).getHour();
-        return hour >= 0 && hour < 6;
-    }
+    // Device events are keyed by userId like the transfers, so the join needs no repartition. Both
+    // topics must have the same partition count. Only large transfers enter the join, and both join
+    // stores expire after window + grace. Both sides are timed by EventTimeExtractor, so the window
+    // compares committedAt with boundAt rather than outbox publish times.
+    private KStream<String, FraudAlert> deviceTakeoverAlerts(
+        StreamsBuilder streamsBuilder,
+        KStream<String, TransferEvent> transfers
+    ) {
+        DeviceTakeoverJoiner joiner = new DeviceTakeoverJoiner(deviceTakeoverProperties);
+        KStream<String, DeviceBoundEvent> deviceBindings = streamsBuilder
+            .stream(
+                deviceEventsTopic,
+                Consumed.with(Serdes.String(), new DeviceBoundEventSerde())
+                    .withTimestampExtractor(new EventTimeExtractor())
+            )
+            .filter((userId, binding) -> binding != null && userId != null && userId.equals(binding.userId()));
 
-    private static String firstText(JsonNode node, String... fieldNames) {
-        for (String fieldName : fieldNames) {
-            JsonNode value = node.get(fieldName);
-            if (value != null && !value.isNull()) {
-                String text = value.asText(null);
-                if (text != null && !text.isBlank()) {
-                    return text;
-                }
-            }
-        }
-        return null;
+        return transfers
+            .filter((userId, event) -> event.amountMinor() >= joiner.minAmountMinor())
+            .join(
+                deviceBindings,
+                joiner,
+                // Only bindings at or before the transfer count: after(0) closes the forward side.
+                JoinWindows.ofTimeDifferenceAndGrace(
+                    deviceTakeoverProperties.getWindow(),
+                    deviceTakeoverProperties.getGrace()
+                ).after(Duration.ZERO),
+                StreamJoined.with(Serdes.String(), new TransferEventSerde(), new DeviceBoundEventSerde())
+                    .withName("device-takeover")
+                    .withStoreName("device-takeover-join")
+            );
     }
 
-    private static BigDecimal decimalValue(JsonNode node, String fieldName) {
-        JsonNode value = node.get(fieldName);
-        if (value == null || value.isNull()) {
-            return null;
-        }
-
-        try {
-            return value.isNumber() ? value.decimalValue() : new BigDecimal(value.asText());
-        } catch (NumberFormatException ex) {
-            return null;
+    // Bucket stores only need to outlive their window plus grace for late events; the destination
+    // lists prune themselves to 24h and VelocityProcessor purges idle users, so no store grows with history.
+    private void addVelocityStores(StreamsBuilder streamsBuilder) {
+        Duration grace = velocityProperties.getGrace();
+        for (VelocityWindow window : VelocityWindow.values()) {
+            streamsBuilder.addStateStore(Stores.windowStoreBuilder(
+                Stores.persistentWindowStore(window.storeName(), window.size().plus(grace), window.bucket(), false),
+                Serdes.String(),
+                Serdes.ByteArray()
+            ));
         }
+        streamsBuilder.addStateStore(Stores.keyValueStoreBuilder(
+            Stores.persistentKeyValueStore(VelocityProcessor.DESTINATIONS_STORE),
+            Serdes.String(),
+            Serdes.ByteArray()
+        ));
+        addWindowStore(streamsBuilder, VelocityProcessor.ALERTED_STORE, VelocityWindow.ONE_DAY.size());
     }
 
-    private static Instant instantValue(JsonNode node, String... fieldNames) {
-        for (String fieldName : fieldNames) {
-            JsonNode value = node.get(fieldName);
-            if (value == null || value.isNull()) {
-                continue;
-            }
-            try {
-                if (value.isNumber()) {
-                    return Instant.ofEpochMilli(value.asLong());
-                }
-                return Instant.parse(value.asText());
-            } catch (Exception ignored) {
-                // Try next timestamp field.
-            }
-        }
-        return null;
+    private void addMuleStores(StreamsBuilder streamsBuilder) {
+        MuleDetectionProperties mule = muleDetectionProperties;
+        streamsBuilder.addStateStore(Stores.windowStoreBuilder(
+            Stores.persistentWindowStore(
+                MuleDetectionProcessor.WINDOW_STORE, mule.getWindow().plus(mule.getGrace()), mule.bucket(), false
+            ),
+            Serdes.String(),
+            Serdes.ByteArray()
+        ));
+        streamsBuilder.addStateStore(Stores.windowStoreBuilder(
+            Stores.persistentWindowStore(
+                MuleDetectionProcessor.BASELINE_STORE,
+                mule.getBaselineWindow().plus(mule.getGrace()),
+                mule.baselineBucket(),
+                false
+            ),
+            Serdes.String(),
+            Serdes.ByteArray()
+        ));
+        addWindowStore(streamsBuilder, MuleDetectionProcessor.ALERTED_STORE, mule.getWindow());
     }
 
-    private record SuspiciousTransfer(
-        String userId,
-        BigDecimal amount,
-        Instant timestamp
-    ) {
+    private static String addWindowStore(StreamsBuilder streamsBuilder, String name, Duration windowSize) {
+        streamsBuilder.addStateStore(Stores.windowStoreBuilder(
+            Stores.persistentWindowStore(name, windowSize.multipliedBy(2), windowSize, false),
+            Serdes.String(),
+            Serdes.Long()
+        ));
+        return name;
     }
 }
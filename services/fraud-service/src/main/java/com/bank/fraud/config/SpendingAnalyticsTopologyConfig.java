@@ -0,0 +1,53 @@
+package com.bank.fraud.config;
+
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.kstream.KStream;
+import org.apache.kafka.streams.kstream.Repartitioned;
+import org.apache.kafka.streams.state.Stores;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.bank.fraud.analytics.SpendingProcessor;
+import com.bank.fraud.model.TransferEvent;
+import com.bank.fraud.serde.TransferEventSerde;
+
+/**
+ * Spending analytics branch of the streams application. It reuses the fraud topology's source stream,
+ * since a topic can only be subscribed once per topology. Outgoing totals are already keyed by the
+ * sender; incoming ones are re-keyed by recipient through one repartition topic. Transfers between a
+ * user's own accounts are neither spending nor income and are skipped.
+ */
+@Configuration
+public class SpendingAnalyticsTopologyConfig {
+
+    @Bean
+    public KStream<String, TransferEvent> spendingAnalyticsTopology(
+        StreamsBuilder streamsBuilder,
+        KStream<String, TransferEvent> fraudDetectionTopology,
+        @Value("${app.analytics.spending.retention-months:13}") int retentionMonths
+    ) {
+        streamsBuilder.addStateStore(Stores.keyValueStoreBuilder(
+            Stores.persistentKeyValueStore(SpendingProcessor.STORE),
+            Serdes.String(),
+            Serdes.ByteArray()
+        ));
+
+        KStream<String, TransferEvent> transfers = fraudDetectionTopology
+            .filter((userId, event) -> event != null && userId != null && userId.equals(event.userId()))
+            .filter((userId, event) -> !userId.equals(event.recipientUserId()));
+
+        KStream<String, TransferEvent> incoming = transfers
+            .filter((userId, event) -> event.recipientUserId() != null)
+            .selectKey((userId, event) -> event.recipientUserId())
+            .repartition(Repartitioned.with(Serdes.String(), new TransferEventSerde())
+                .withName("spending-by-recipient"));
+
+        transfers
+            .merge(incoming)
+            .process(() -> new SpendingProcessor(retentionMonths), SpendingProcessor.STORE);
+
+        return transfers;
+    }
+}
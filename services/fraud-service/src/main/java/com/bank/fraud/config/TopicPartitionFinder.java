@@ -0,0 +1,39 @@
+package com.bank.fraud.config;
+
+import java.util.List;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.PartitionInfo;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Lists a topic's partitions for listeners that assign themselves every partition instead of joining
+ * a consumer group, e.g. {@code partitions = "#{@topicPartitionFinder.partitions('topic')}"}. The list
+ * is read once at startup; partitions added later are picked up on the next restart. A topic that
+ * does not exist yet fails startup instead of leaving the listener with nothing assigned.
+ */
+@Component
+public class TopicPartitionFinder {
+
+    private final ConsumerFactory<?, ?> consumerFactory;
+
+    public TopicPartitionFinder(ConsumerFactory<?, ?> consumerFactory) {
+        this.consumerFactory = consumerFactory;
+    }
+
+    public String[] partitions(String topic) {
+        try (Consumer<?, ?> consumer = consumerFactory.createConsumer()) {
+            List<PartitionInfo> partitions = consumer.partitionsFor(topic);
+            if (partitions == null || partitions.isEmpty()) {
+                throw new IllegalStateException(
+                    "Topic " + topic + " has no partitions yet; create it before starting fraud-service"
+                );
+            }
+            return partitions.stream()
+                .map(PartitionInfo::partition)
+                .map(String::valueOf)
+                .toArray(String[]::new);
+        }
+    }
+}
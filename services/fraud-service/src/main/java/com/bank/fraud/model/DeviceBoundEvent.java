@@ -0,0 +1,13 @@
+package com.bank.fraud.model;
+
+import java.time.Instant;
+
+/**
+ * A device newly bound to a user, as published by auth-service on {@code auth.device-events.v1}.
+ */
+public record DeviceBoundEvent(
+    String userId,
+    String deviceId,
+    Instant boundAt
+) {
+}
@@ -2,13 +2,24 @@ package com.bank.fraud.model;
 
 import java.time.Instant;
 
+/**
+ * A fraud finding. User-level rules set {@code userId}; destination-side detectors (mule accounts)
+ * set {@code accountId} instead, since the receiving account's owner is not known here. Detectors
+ * that grade their findings set {@code riskScore} (0-100).
+ */
 public record FraudAlert(
     String userId,
+    Long accountId,
     String reason,
     String severity,
+    Integer riskScore,
     Instant detectedAt
 ) {
     public FraudAlert(String userId, String reason) {
         this(userId, reason, "HIGH", Instant.now());
     }
+
+    public FraudAlert(String userId, String reason, String severity, Instant detectedAt) {
+        this(userId, null, reason, severity, null, detectedAt);
+    }
 }
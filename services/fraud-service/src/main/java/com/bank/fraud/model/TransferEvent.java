@@ -0,0 +1,37 @@
+package com.bank.fraud.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+
+/**
+ * Typed view of account-service's {@code TransactionCompletedEvent}. Money is kept as a long number of
+ * minor units at {@link #AMOUNT_SCALE}, the scale account-service books balances at, so sums are exact.
+ * Finer amounts are rounded half-up, as account-service rounds them when booking.
+ */
+public record TransferEvent(
+    String transferId,
+    String userId,
+    String recipientUserId,
+    Long fromAccountId,
+    Long toAccountId,
+    long amountMinor,
+    String currency,
+    Instant committedAt
+) {
+
+    public static final int AMOUNT_SCALE = 4;
+
+    /** Throws {@link ArithmeticException} if the amount does not fit a long of minor units. */
+    public static long toMinorUnits(BigDecimal amount) {
+        return amount.setScale(AMOUNT_SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal fromMinorUnits(long amountMinor) {
+        return BigDecimal.valueOf(amountMinor, AMOUNT_SCALE);
+    }
+
+    public BigDecimal amount() {
+        return fromMinorUnits(amountMinor);
+    }
+}
@@ -0,0 +1,114 @@
+package com.bank.fraud.mule;
+
+import java.util.Arrays;
+
+/**
+ * HyperLogLog over caller-owned byte arrays, so sketches can be stored as plain bytes and merged in
+ * place. {@link #REGISTERS} one-byte registers give about 3% standard error whatever the cardinality.
+ *
+ * <p>A stored sketch runs from an offset to the end of its array and starts sparse: three bytes
+ * (register index, rank) per register set, so a sketch of a few values costs a few bytes. Once the
+ * sparse form would reach {@link #REGISTERS} bytes it switches to the dense form of one byte per
+ * register; the length tells the two apart. Merge targets and {@link #estimate} are always dense.
+ */
+public final class HyperLogLog {
+
+    public static final int PRECISION = 10;
+    public static final int REGISTERS = 1 << PRECISION;
+
+    private static final int SPARSE_ENTRY_BYTES = 3;
+    private static final double ALPHA = 0.7213 / (1 + 1.079 / REGISTERS);
+
+    private HyperLogLog() {
+    }
+
+    /**
+     * Adds {@code value} to the sketch stored from {@code offset} on. Returns the array now holding it,
+     * a grown copy (bytes before {@code offset} included) when the sketch needed more room.
+     */
+    public static byte[] add(byte[] sketch, int offset, long value) {
+        long hash = mix(value);
+        int index = (int) (hash >>> (Long.SIZE - PRECISION));
+        byte rank = (byte) (Long.numberOfLeadingZeros((hash << PRECISION) | (1L << (PRECISION - 1))) + 1);
+
+        int length = sketch.length - offset;
+        if (length == REGISTERS) {
+            raise(sketch, offset + index, rank);
+            return sketch;
+        }
+        for (int entry = offset; entry < sketch.length; entry += SPARSE_ENTRY_BYTES) {
+            if (sparseIndex(sketch, entry) == index) {
+                raise(sketch, entry + 2, rank);
+                return sketch;
+            }
+        }
+        if (length + SPARSE_ENTRY_BYTES < REGISTERS) {
+            byte[] grown = Arrays.copyOf(sketch, sketch.length + SPARSE_ENTRY_BYTES);
+            grown[sketch.length] = (byte) (index >>> 8);
+            grown[sketch.length + 1] = (byte) index;
+            grown[sketch.length + 2] = rank;
+            return grown;
+        }
+        byte[] dense = Arrays.copyOf(sketch, offset + REGISTERS);
+        Arrays.fill(dense, offset, dense.length, (byte) 0);
+        merge(dense, offset, sketch, offset);
+        raise(dense, offset + index, rank);
+        return dense;
+    }
+
+    /**
+     * Folds the sketch stored from {@code sourceOffset} on, sparse or dense, into the dense sketch at
+     * {@code targetOffset} of {@code target} (register-wise max).
+     */
+    public static void merge(byte[] target, int targetOffset, byte[] source, int sourceOffset) {
+        if (source.length - sourceOffset == REGISTERS) {
+            for (int i = 0; i < REGISTERS; i++) {
+                raise(target, targetOffset + i, source[sourceOffset + i]);
+            }
+            return;
+        }
+        for (int entry = sourceOffset; entry < source.length; entry += SPARSE_ENTRY_BYTES) {
+            raise(target, targetOffset + sparseIndex(source, entry), source[entry + 2]);
+        }
+    }
+
+    /** Estimates the cardinality of the dense sketch at {@code offset}. */
+    public static long estimate(byte[] sketch, int offset) {
+        double inverseSum = 0;
+        int zeros = 0;
+        for (int i = 0; i < REGISTERS; i++) {
+            byte rank = sketch[offset + i];
+            inverseSum += 1.0 / (1L << rank);
+            if (rank == 0) {
+                zeros++;
+            }
+        }
+        double raw = ALPHA * REGISTERS * REGISTERS / inverseSum;
+        // Linear counting is far more accurate while many registers are still empty.
+        if (raw <= 2.5 * REGISTERS && zeros > 0) {
+            return Math.round(REGISTERS * Math.log((double) REGISTERS / zeros));
+        }
+        return Math.round(raw);
+    }
+
+    private static void raise(byte[] registers, int position, byte rank) {
+        if (registers[position] < rank) {
+            registers[position] = rank;
+        }
+    }
+
+    private static int sparseIndex(byte[] sketch, int entry) {
+        return (sketch[entry] & 0xFF) << 8 | sketch[entry + 1] & 0xFF;
+    }
+
+    // murmur3 fmix64: account ids are sequential, so they need a full avalanche before bucketing.
+    private static long mix(long value) {
+        long hash = value;
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb93e7f35b63dL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,133 @@
+package com.bank.fraud.mule;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.Arrays;
+
+import org.apache.kafka.streams.processor.api.Processor;
+import org.apache.kafka.streams.processor.api.ProcessorContext;
+import org.apache.kafka.streams.processor.api.Record;
+import org.apache.kafka.streams.state.WindowStore;
+import org.apache.kafka.streams.state.WindowStoreIterator;
+
+import com.bank.fraud.model.FraudAlert;
+import com.bank.fraud.model.TransferEvent;
+
+/**
+ * Fan-in tracking for destination accounts, fed by transfers re-keyed by {@code toAccountId}. Every
+ * bucket holds the amount received plus a {@link HyperLogLog} of the sending accounts. Sketches stay
+ * sparse while they are small, so a bucket with a few senders is a few dozen bytes, and no bucket
+ * grows past about 1 KiB however many senders it sees. The current window and the baseline are
+ * unions of their buckets.
+ */
+public class MuleDetectionProcessor implements Processor<String, TransferEvent, String, FraudAlert> {
+
+    public static final String WINDOW_STORE = "mule-fan-in";
+    public static final String BASELINE_STORE = "mule-fan-in-baseline";
+    public static final String ALERTED_STORE = "mule-alerted";
+
+    private static final int SUM_BYTES = Long.BYTES;
+
+    private final MuleDetectionProperties properties;
+    private final long windowMs;
+    private final long bucketMs;
+    private final long baselineWindowMs;
+    private final long baselineBucketMs;
+    private final long maxReceivedMinor;
+    private final byte[] windowSketch = new byte[HyperLogLog.REGISTERS];
+    private final byte[] baselineSketch = new byte[HyperLogLog.REGISTERS];
+    private ProcessorContext<String, FraudAlert> context;
+    private WindowStore<String, byte[]> windowStore;
+    private WindowStore<String, byte[]> baselineStore;
+    private WindowStore<String, Long> alertedStore;
+
+    public MuleDetectionProcessor(MuleDetectionProperties properties) {
+        this.properties = properties;
+        this.windowMs = properties.getWindow().toMillis();
+        this.bucketMs = properties.bucket().toMillis();
+        this.baselineWindowMs = properties.getBaselineWindow().toMillis();
+        this.baselineBucketMs = properties.baselineBucket().toMillis();
+        this.maxReceivedMinor = properties.getMaxReceivedAmount() == null
+            || properties.getMaxReceivedAmount().signum() <= 0
+            ? 0
+            : TransferEvent.toMinorUnits(properties.getMaxReceivedAmount());
+    }
+
+    public static String[] storeNames() {
+        return new String[] {WINDOW_STORE, BASELINE_STORE, ALERTED_STORE};
+    }
+
+    @Override
+    public void init(ProcessorContext<String, FraudAlert> context) {
+        this.context = context;
+        this.windowStore = context.getStateStore(WINDOW_STORE);
+        this.baselineStore = context.getStateStore(BASELINE_STORE);
+        this.alertedStore = context.getStateStore(ALERTED_STORE);
+    }
+
+    @Override
+    public void process(Record<String, TransferEvent> record) {
+        TransferEvent event = record.value();
+        String accountId = record.key();
+        long eventTime = event.committedAt().toEpochMilli();
+        long sender = event.fromAccountId() != null ? event.fromAccountId() : event.userId().hashCode();
+
+        long bucketStart = eventTime - Math.floorMod(eventTime, bucketMs);
+        long baselineBucketStart = eventTime - Math.floorMod(eventTime, baselineBucketMs);
+        addToBucket(windowStore, accountId, bucketStart, sender, event.amountMinor());
+        addToBucket(baselineStore, accountId, baselineBucketStart, sender, event.amountMinor());
+
+        long windowStart = bucketStart - windowMs + bucketMs;
+        long receivedMinor = union(windowStore, accountId, windowStart, bucketStart, windowSketch);
+        union(baselineStore, accountId, baselineBucketStart - baselineWindowMs + baselineBucketMs,
+            baselineBucketStart, baselineSketch);
+
+        long senders = HyperLogLog.estimate(windowSketch, 0);
+        double usualSenders = HyperLogLog.estimate(baselineSketch, 0) * ((double) windowMs / baselineWindowMs);
+        if (senders >= properties.getMinDistinctSenders() && senders >= properties.getSpikeFactor() * usualSenders) {
+            alertOnce(record, "fan-in", windowStart, bucketStart, "Mule pattern: spike in distinct senders");
+        }
+        if (maxReceivedMinor > 0 && receivedMinor > maxReceivedMinor) {
+            alertOnce(record, "received-amount", windowStart, bucketStart,
+                "Mule pattern: received amount limit exceeded");
+        }
+    }
+
+    private static void addToBucket(WindowStore<String, byte[]> store, String accountId, long bucketStart,
+                                    long sender, long amountMinor) {
+        byte[] bucket = store.fetch(accountId, bucketStart);
+        if (bucket == null) {
+            bucket = new byte[SUM_BYTES];
+        }
+        ByteBuffer view = ByteBuffer.wrap(bucket);
+        view.putLong(0, Math.addExact(view.getLong(0), amountMinor));
+        store.put(accountId, HyperLogLog.add(bucket, SUM_BYTES, sender), bucketStart);
+    }
+
+    // Merges the buckets' sketches into the reused target and returns their summed amount.
+    private static long union(WindowStore<String, byte[]> store, String accountId, long from, long to, byte[] target) {
+        Arrays.fill(target, (byte) 0);
+        long sumMinor = 0;
+        try (WindowStoreIterator<byte[]> buckets = store.fetch(accountId, from, to)) {
+            while (buckets.hasNext()) {
+                byte[] bucket = buckets.next().value;
+                sumMinor += ByteBuffer.wrap(bucket).getLong(0);
+                HyperLogLog.merge(target, 0, bucket, SUM_BYTES);
+            }
+        }
+        return sumMinor;
+    }
+
+    private void alertOnce(Record<String, TransferEvent> record, String feature, long windowStart, long bucketStart,
+                           String reason) {
+        String alertKey = record.key() + '|' + feature;
+        try (WindowStoreIterator<Long> previous = alertedStore.fetch(alertKey, windowStart, bucketStart)) {
+            if (previous.hasNext()) {
+                return;
+            }
+        }
+        alertedStore.put(alertKey, bucketStart, bucketStart);
+        FraudAlert alert = new FraudAlert(null, Long.valueOf(record.key()), reason, "HIGH", null, Instant.now());
+        context.forward(record.withValue(alert));
+    }
+}
@@ -0,0 +1,97 @@
+package com.bank.fraud.mule;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Fan-in thresholds for destination accounts. An account alerts when its distinct senders over
+ * {@code window} reach {@code minDistinctSenders} and are {@code spikeFactor} times its usual rate over
+ * {@code baselineWindow}, or when it receives more than {@code maxReceivedAmount} in {@code window}
+ * (unset or zero disables the amount alert).
+ */
+@ConfigurationProperties(prefix = "app.fraud.mule")
+public class MuleDetectionProperties {
+
+    private boolean enabled = true;
+    private Duration window = Duration.ofHours(1);
+    private Duration baselineWindow = Duration.ofHours(24);
+    private int bucketsPerWindow = 12;
+    private Duration grace = Duration.ofMinutes(5);
+    private long minDistinctSenders = 10;
+    private double spikeFactor = 4.0;
+    private BigDecimal maxReceivedAmount;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getWindow() {
+        return window;
+    }
+
+    public void setWindow(Duration window) {
+        this.window = window;
+    }
+
+    public Duration getBaselineWindow() {
+        return baselineWindow;
+    }
+
+    public void setBaselineWindow(Duration baselineWindow) {
+        this.baselineWindow = baselineWindow;
+    }
+
+    public int getBucketsPerWindow() {
+        return bucketsPerWindow;
+    }
+
+    public void setBucketsPerWindow(int bucketsPerWindow) {
+        this.bucketsPerWindow = bucketsPerWindow;
+    }
+
+    public Duration getGrace() {
+        return grace;
+    }
+
+    public void setGrace(Duration grace) {
+        this.grace = grace;
+    }
+
+    public long getMinDistinctSenders() {
+        return minDistinctSenders;
+    }
+
+    public void setMinDistinctSenders(long minDistinctSenders) {
+        this.minDistinctSenders = minDistinctSenders;
+    }
+
+    public double getSpikeFactor() {
+        return spikeFactor;
+    }
+
+    public void setSpikeFactor(double spikeFactor) {
+        this.spikeFactor = spikeFactor;
+    }
+
+    public BigDecimal getMaxReceivedAmount() {
+        return maxReceivedAmount;
+    }
+
+    public void setMaxReceivedAmount(BigDecimal maxReceivedAmount) {
+        this.maxReceivedAmount = maxReceivedAmount;
+    }
+
+    public Duration bucket() {
+        return window.dividedBy(Math.max(bucketsPerWindow, 1));
+    }
+
+    public Duration baselineBucket() {
+        return window;
+    }
+}
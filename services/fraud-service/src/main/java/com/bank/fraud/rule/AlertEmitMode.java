@@ -0,0 +1,10 @@
+package com.bank.fraud.rule;
+
+public enum AlertEmitMode {
+
+    /** One alert per rule, user and window: emitted as soon as the window total first crosses the rule. */
+    FIRST_CROSSING,
+
+    /** An alert for every transfer that leaves the window total above the rule. */
+    EVERY_UPDATE
+}
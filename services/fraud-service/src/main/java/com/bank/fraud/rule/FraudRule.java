@@ -0,0 +1,48 @@
+package com.bank.fraud.rule;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+import com.bank.fraud.model.TransferEvent;
+
+/**
+ * A windowed per-user fraud rule. {@link FraudRuleProcessor} evaluates every registered rule against
+ * each deserialized event in one pass; each rule accumulates a long per user and tumbling window in a
+ * window store of its own.
+ */
+public interface FraudRule {
+
+    /** Stable id; also names the rule's state store, so changing it resets the rule's state. */
+    String id();
+
+    Duration windowSize();
+
+    /** Whether the event counts towards this rule at all. */
+    boolean appliesTo(TransferEvent event);
+
+    /** How much the event adds to the window total, e.g. the amount in minor units or 1 for counts. */
+    long contribution(TransferEvent event);
+
+    /** Compiled default limit, in the same unit as the window total; live config may override it. */
+    long threshold();
+
+    default boolean isViolatedBy(long windowTotal, long threshold) {
+        return windowTotal > threshold;
+    }
+
+    String reason();
+
+    /** Window total in the rule's natural unit, e.g. money for amount sums. */
+    default BigDecimal displayTotal(long windowTotal) {
+        return BigDecimal.valueOf(windowTotal);
+    }
+
+    /** Inverse of {@link #displayTotal(long)}, used for thresholds given in the natural unit. */
+    default long toTotalUnits(BigDecimal value) {
+        return value.longValueExact();
+    }
+
+    default String severity() {
+        return "HIGH";
+    }
+}
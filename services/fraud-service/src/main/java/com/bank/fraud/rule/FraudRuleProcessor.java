@@ -0,0 +1,124 @@
+package com.bank.fraud.rule;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import org.apache.kafka.streams.processor.PunctuationType;
+import org.apache.kafka.streams.processor.api.Processor;
+import org.apache.kafka.streams.processor.api.ProcessorContext;
+import org.apache.kafka.streams.processor.api.Record;
+import org.apache.kafka.streams.state.ReadOnlyKeyValueStore;
+import org.apache.kafka.streams.state.ValueAndTimestamp;
+import org.apache.kafka.streams.state.WindowStore;
+
+import com.bank.fraud.model.FraudAlert;
+import com.bank.fraud.model.TransferEvent;
+
+/**
+ * Runs every {@link FraudRule} over each transfer in a single pass. The input must be keyed by
+ * userId; window boundaries come from the transfer's commit time, so replays produce the same
+ * windows as live traffic. In {@link AlertEmitMode#FIRST_CROSSING} mode a per-rule dedup store
+ * remembers which user windows already alerted, so alert volume follows incidents, not transfers.
+ *
+ * <p>Enabled flags and thresholds come from the rule config global store and are re-read on a
+ * wall-clock schedule, so retuning takes effect within one refresh interval without touching the
+ * window stores. Window sizes define those stores and stay compiled in.
+ */
+public class FraudRuleProcessor implements Processor<String, TransferEvent, String, FraudAlert> {
+
+    private final List<FraudRule> rules;
+    private final AlertEmitMode emitMode;
+    private final String ruleConfigStoreName;
+    private final Duration ruleConfigRefreshInterval;
+    private ProcessorContext<String, FraudAlert> context;
+    private ReadOnlyKeyValueStore<String, ValueAndTimestamp<byte[]>> ruleConfigStore;
+    private RuleSettings settings;
+    private WindowStore<String, Long>[] stores;
+    private WindowStore<String, Long>[] alertedStores;
+
+    public FraudRuleProcessor(
+        List<FraudRule> rules,
+        AlertEmitMode emitMode,
+        String ruleConfigStoreName,
+        Duration ruleConfigRefreshInterval
+    ) {
+        this.rules = rules;
+        this.emitMode = emitMode;
+        this.ruleConfigStoreName = ruleConfigStoreName;
+        this.ruleConfigRefreshInterval = ruleConfigRefreshInterval;
+        this.settings = RuleSettings.defaults(rules);
+    }
+
+    public static String storeName(FraudRule rule) {
+        return "fraud-rule-" + rule.id();
+    }
+
+    public static String alertedStoreName(FraudRule rule) {
+        return "fraud-rule-" + rule.id() + "-alerted";
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void init(ProcessorContext<String, FraudAlert> context) {
+        this.context = context;
+        this.stores = new WindowStore[rules.size()];
+        this.alertedStores = new WindowStore[rules.size()];
+        for (int i = 0; i < rules.size(); i++) {
+            stores[i] = context.getStateStore(storeName(rules.get(i)));
+            if (emitMode == AlertEmitMode.FIRST_CROSSING) {
+                alertedStores[i] = context.getStateStore(alertedStoreName(rules.get(i)));
+            }
+        }
+
+        this.ruleConfigStore = context.getStateStore(ruleConfigStoreName);
+        refreshSettings();
+        context.schedule(ruleConfigRefreshInterval, PunctuationType.WALL_CLOCK_TIME, timestamp -> refreshSettings());
+    }
+
+    private void refreshSettings() {
+        settings = settings.refresh(rules, ruleId -> {
+            ValueAndTimestamp<byte[]> parameters = ruleConfigStore.get(ruleId);
+            return parameters == null ? null : parameters.value();
+        });
+    }
+
+    @Override
+    public void process(Record<String, TransferEvent> record) {
+        TransferEvent event = record.value();
+        if (record.key() == null || event == null) {
+            return;
+        }
+
+        long eventTime = event.committedAt().toEpochMilli();
+        for (int i = 0; i < rules.size(); i++) {
+            FraudRule rule = rules.get(i);
+            if (!settings.isEnabled(i) || !rule.appliesTo(event)) {
+                continue;
+            }
+
+            long windowSizeMs = rule.windowSize().toMillis();
+            long windowStart = eventTime - Math.floorMod(eventTime, windowSizeMs);
+            Long previous = stores[i].fetch(record.key(), windowStart);
+            long total = (previous == null ? 0L : previous) + rule.contribution(event);
+            stores[i].put(record.key(), total, windowStart);
+
+            if (rule.isViolatedBy(total, settings.threshold(i)) && claimAlert(i, record.key(), windowStart)) {
+                FraudAlert alert = new FraudAlert(record.key(), rule.reason(), rule.severity(), Instant.now());
+                context.forward(record.withValue(alert));
+            }
+        }
+    }
+
+    private boolean claimAlert(int ruleIndex, String userId, long windowStart) {
+        if (emitMode == AlertEmitMode.EVERY_UPDATE) {
+            return true;
+        }
+        WindowStore<String, Long> alerted = alertedStores[ruleIndex];
+        if (alerted.fetch(userId, windowStart) != null) {
+            return false;
+        }
+        alerted.put(userId, System.currentTimeMillis(), windowStart);
+        return true;
+    }
+}
@@ -0,0 +1,60 @@
+package com.bank.fraud.rule;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.ZoneOffset;
+
+import org.springframework.stereotype.Component;
+
+import com.bank.fraud.model.TransferEvent;
+
+/**
+ * Night transfers (00:00-06:00 UTC) summing to more than the limit (50,000 unless retuned through
+ * the rule config topic) within one hour.
+ */
+@Component
+public class NightTransferSumRule implements FraudRule {
+
+    private static final long NIGHT_WINDOW_LIMIT = TransferEvent.toMinorUnits(new BigDecimal("50000"));
+
+    @Override
+    public String id() {
+        return "night-transfer-sum";
+    }
+
+    @Override
+    public Duration windowSize() {
+        return Duration.ofHours(1);
+    }
+
+    @Override
+    public boolean appliesTo(TransferEvent event) {
+        int hour = event.committedAt().atZone(ZoneOffset.UTC).getHour();
+        return hour >= 0 && hour < 6;
+    }
+
+    @Override
+    public long contribution(TransferEvent event) {
+        return event.amountMinor();
+    }
+
+    @Override
+    public long threshold() {
+        return NIGHT_WINDOW_LIMIT;
+    }
+
+    @Override
+    public String reason() {
+        return "Night transfers exceeded the limit in a 1-hour window";
+    }
+
+    @Override
+    public BigDecimal displayTotal(long windowTotal) {
+        return TransferEvent.fromMinorUnits(windowTotal);
+    }
+
+    @Override
+    public long toTotalUnits(BigDecimal value) {
+        return TransferEvent.toMinorUnits(value);
+    }
+}
@@ -0,0 +1,65 @@
+package com.bank.fraud.rule;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * Live parameters for one {@link FraudRule}, read from the compacted rule config topic keyed by rule
+ * id, e.g. {@code {"version": 7, "enabled": true, "threshold": 30000}}. The threshold is in the rule's
+ * display unit (money for amount rules); a missing threshold keeps the rule's compiled default.
+ */
+public record RuleParameters(
+    long version,
+    boolean enabled,
+    BigDecimal threshold
+) {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RuleParameters.class);
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    /** Lenient: anything unreadable yields {@code null}, which leaves the rule on its current settings. */
+    public static RuleParameters read(byte[] data) {
+        if (data == null || data.length == 0) {
+            return null;
+        }
+
+        Long version = null;
+        boolean enabled = true;
+        BigDecimal threshold = null;
+
+        try (JsonParser parser = JSON_FACTORY.createParser(data)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken token = parser.nextToken();
+                if (token == JsonToken.VALUE_NULL) {
+                    continue;
+                }
+                switch (field) {
+                    case "version" -> version = parser.getValueAsLong();
+                    case "enabled" -> enabled = parser.getValueAsBoolean();
+                    case "threshold" -> threshold = token.isNumeric()
+                        ? parser.getDecimalValue()
+                        : new BigDecimal(parser.getValueAsString());
+                    default -> parser.skipChildren();
+                }
+            }
+            if (version == null || threshold != null && threshold.signum() < 0) {
+                return null;
+            }
+            return new RuleParameters(version, enabled, threshold);
+        } catch (IOException | RuntimeException ex) {
+            LOGGER.warn("Ignoring unreadable fraud rule parameters", ex);
+            return null;
+        }
+    }
+}
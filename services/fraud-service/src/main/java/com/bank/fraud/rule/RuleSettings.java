@@ -0,0 +1,79 @@
+package com.bank.fraud.rule;
+
+import java.util.List;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Immutable snapshot of the effective enabled flag and threshold of every rule, indexed like the rule
+ * list it was built from. A refresh only moves a rule forward: parameters with a version below the one
+ * already applied are ignored, and unreadable ones or thresholds the rule cannot represent (a fractional
+ * count, an amount beyond a long of minor units) keep the current settings.
+ */
+public final class RuleSettings {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RuleSettings.class);
+
+    private final long[] versions;
+    private final boolean[] enabled;
+    private final long[] thresholds;
+
+    private RuleSettings(long[] versions, boolean[] enabled, long[] thresholds) {
+        this.versions = versions;
+        this.enabled = enabled;
+        this.thresholds = thresholds;
+    }
+
+    public static RuleSettings defaults(List<FraudRule> rules) {
+        long[] versions = new long[rules.size()];
+        boolean[] enabled = new boolean[rules.size()];
+        long[] thresholds = new long[rules.size()];
+        for (int i = 0; i < rules.size(); i++) {
+            versions[i] = -1;
+            enabled[i] = true;
+            thresholds[i] = rules.get(i).threshold();
+        }
+        return new RuleSettings(versions, enabled, thresholds);
+    }
+
+    /** Applies newer parameters looked up by rule id; returns this snapshot if nothing changed. */
+    public RuleSettings refresh(List<FraudRule> rules, Function<String, byte[]> parametersByRuleId) {
+        RuleSettings next = null;
+        for (int i = 0; i < rules.size(); i++) {
+            FraudRule rule = rules.get(i);
+            RuleParameters parameters = RuleParameters.read(parametersByRuleId.apply(rule.id()));
+            if (parameters == null || parameters.version() <= versions[i]) {
+                continue;
+            }
+            if (next == null) {
+                next = new RuleSettings(versions.clone(), enabled.clone(), thresholds.clone());
+            }
+            // The version is consumed either way, so a bad record is reported once, not on every refresh.
+            next.versions[i] = parameters.version();
+            try {
+                next.thresholds[i] = parameters.threshold() == null
+                    ? rule.threshold()
+                    : rule.toTotalUnits(parameters.threshold());
+                next.enabled[i] = parameters.enabled();
+            } catch (ArithmeticException ex) {
+                LOGGER.warn("Ignoring fraud rule {} parameters version {}: threshold {} is not usable ({})",
+                    rule.id(), parameters.version(), parameters.threshold(), ex.getMessage());
+            }
+        }
+        return next == null ? this : next;
+    }
+
+    public long version(int ruleIndex) {
+        return versions[ruleIndex];
+    }
+
+    public boolean isEnabled(int ruleIndex) {
+        return enabled[ruleIndex];
+    }
+
+    public long threshold(int ruleIndex) {
+        return thresholds[ruleIndex];
+    }
+}
@@ -0,0 +1,103 @@
+package com.bank.fraud.serde;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.Serializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.bank.fraud.model.DeviceBoundEvent;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * Streaming JSON serde for auth-service device events. Like {@link TransferEventSerde} it is lenient:
+ * other event types and unreadable payloads become {@code null} and are dropped by the topology. So
+ * is the first device a user binds while signing up: a new customer's first transfers are not an
+ * account takeover.
+ */
+public class DeviceBoundEventSerde implements Serde<DeviceBoundEvent> {
+
+    public static final String EVENT_TYPE = "DEVICE_BOUND";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DeviceBoundEventSerde.class);
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    @Override
+    public Serializer<DeviceBoundEvent> serializer() {
+        return (topic, event) -> event == null ? null : write(event);
+    }
+
+    @Override
+    public Deserializer<DeviceBoundEvent> deserializer() {
+        return (topic, data) -> read(data);
+    }
+
+    static DeviceBoundEvent read(byte[] data) {
+        if (data == null || data.length == 0) {
+            return null;
+        }
+
+        String eventType = null;
+        String userId = null;
+        String deviceId = null;
+        boolean firstDevice = false;
+        Instant occurredAt = null;
+
+        try (JsonParser parser = JSON_FACTORY.createParser(data)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken token = parser.nextToken();
+                if (token == JsonToken.VALUE_NULL) {
+                    continue;
+                }
+                switch (field) {
+                    case "eventType" -> eventType = parser.getValueAsString();
+                    case "userId" -> userId = parser.getValueAsString();
+                    case "deviceId" -> deviceId = parser.getValueAsString();
+                    case "firstDevice" -> firstDevice = parser.getValueAsBoolean();
+                    case "occurredAt" -> occurredAt = token.isNumeric()
+                        ? Instant.ofEpochMilli(parser.getLongValue())
+                        : Instant.parse(parser.getValueAsString());
+                    default -> parser.skipChildren();
+                }
+            }
+
+            if (!EVENT_TYPE.equals(eventType) || firstDevice) {
+                return null;
+            }
+            if (userId == null || userId.isBlank() || occurredAt == null) {
+                return null;
+            }
+            return new DeviceBoundEvent(userId, deviceId, occurredAt);
+        } catch (IOException | RuntimeException ex) {
+            LOGGER.debug("Skipping unreadable device event", ex);
+            return null;
+        }
+    }
+
+    static byte[] write(DeviceBoundEvent event) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(128);
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(out)) {
+            generator.writeStartObject();
+            generator.writeStringField("eventType", EVENT_TYPE);
+            generator.writeStringField("userId", event.userId());
+            generator.writeStringField("deviceId", event.deviceId());
+            generator.writeStringField("occurredAt", event.boundAt().toString());
+            generator.writeEndObject();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return out.toByteArray();
+    }
+}
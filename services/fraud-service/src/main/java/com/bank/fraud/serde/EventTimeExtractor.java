@@ -0,0 +1,26 @@
+package com.bank.fraud.serde;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.streams.processor.TimestampExtractor;
+
+import com.bank.fraud.model.DeviceBoundEvent;
+import com.bank.fraud.model.TransferEvent;
+
+/**
+ * Timestamps transfers by {@code committedAt} and device bindings by {@code boundAt}. The Kafka record
+ * timestamp is when the outbox relay published the event, which trails the business time by any
+ * retry backoff and would skew windows and joins. Values the serdes dropped keep the record timestamp.
+ */
+public class EventTimeExtractor implements TimestampExtractor {
+
+    @Override
+    public long extract(ConsumerRecord<Object, Object> record, long partitionTime) {
+        if (record.value() instanceof TransferEvent transfer && transfer.committedAt() != null) {
+            return transfer.committedAt().toEpochMilli();
+        }
+        if (record.value() instanceof DeviceBoundEvent binding && binding.boundAt() != null) {
+            return binding.boundAt().toEpochMilli();
+        }
+        return record.timestamp();
+    }
+}
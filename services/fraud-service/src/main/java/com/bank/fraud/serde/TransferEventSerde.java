@@ -0,0 +1,146 @@
+package com.bank.fraud.serde;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.Serializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.bank.fraud.model.TransferEvent;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * Streaming JSON serde for {@link TransferEvent}. The deserializer reads the payload in one pass
+ * without building a tree and is lenient: anything that is not a usable completed transfer (other
+ * event types, malformed JSON, missing fields, non-positive or over-precise amounts) becomes
+ * {@code null} so the topology can drop it instead of failing the stream thread.
+ */
+public class TransferEventSerde implements Serde<TransferEvent> {
+
+    public static final String EVENT_TYPE_HEADER = "eventType";
+    public static final String EVENT_TYPE = "TransactionCompletedEvent";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TransferEventSerde.class);
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    @Override
+    public Serializer<TransferEvent> serializer() {
+        return (topic, event) -> event == null ? null : write(event);
+    }
+
+    @Override
+    public Deserializer<TransferEvent> deserializer() {
+        return new Deserializer<>() {
+            @Override
+            public TransferEvent deserialize(String topic, byte[] data) {
+                return read(data);
+            }
+
+            @Override
+            public TransferEvent deserialize(String topic, Headers headers, byte[] data) {
+                Header eventType = headers == null ? null : headers.lastHeader(EVENT_TYPE_HEADER);
+                if (eventType != null && !EVENT_TYPE.equals(new String(eventType.value(), StandardCharsets.UTF_8))) {
+                    return null;
+                }
+                return read(data);
+            }
+        };
+    }
+
+    public static TransferEvent read(byte[] data) {
+        if (data == null || data.length == 0) {
+            return null;
+        }
+
+        String transferId = null;
+        String userId = null;
+        String recipientUserId = null;
+        Long fromAccountId = null;
+        Long toAccountId = null;
+        BigDecimal amount = null;
+        String currency = null;
+        Instant committedAt = null;
+
+        try (JsonParser parser = JSON_FACTORY.createParser(data)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken token = parser.nextToken();
+                if (token == JsonToken.VALUE_NULL) {
+                    continue;
+                }
+                switch (field) {
+                    case "transferId" -> transferId = parser.getValueAsString();
+                    case "userId" -> userId = parser.getValueAsString();
+                    case "recipientUserId" -> recipientUserId = parser.getValueAsString();
+                    case "fromAccountId" -> fromAccountId = parser.getValueAsLong();
+                    case "toAccountId" -> toAccountId = parser.getValueAsLong();
+                    case "amount" -> amount = token.isNumeric()
+                        ? parser.getDecimalValue()
+                        : new BigDecimal(parser.getValueAsString());
+                    case "currency" -> currency = parser.getValueAsString();
+                    case "committedAt" -> committedAt = token.isNumeric()
+                        ? Instant.ofEpochMilli(parser.getLongValue())
+                        : Instant.parse(parser.getValueAsString());
+                    default -> parser.skipChildren();
+                }
+            }
+
+            if (userId == null || userId.isBlank() || amount == null || amount.signum() <= 0 || committedAt == null) {
+                return null;
+            }
+            return new TransferEvent(
+                transferId,
+                userId,
+                recipientUserId,
+                fromAccountId,
+                toAccountId,
+                TransferEvent.toMinorUnits(amount),
+                currency,
+                committedAt
+            );
+        } catch (IOException | RuntimeException ex) {
+            LOGGER.debug("Skipping unreadable transfer event", ex);
+            return null;
+        }
+    }
+
+    static byte[] write(TransferEvent event) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(out)) {
+            generator.writeStartObject();
+            generator.writeStringField("transferId", event.transferId());
+            generator.writeStringField("userId", event.userId());
+            if (event.recipientUserId() != null) {
+                generator.writeStringField("recipientUserId", event.recipientUserId());
+            }
+            if (event.fromAccountId() != null) {
+                generator.writeNumberField("fromAccountId", event.fromAccountId());
+            }
+            if (event.toAccountId() != null) {
+                generator.writeNumberField("toAccountId", event.toAccountId());
+            }
+            generator.writeNumberField("amount", event.amount());
+            generator.writeStringField("currency", event.currency());
+            generator.writeStringField("committedAt", event.committedAt().toString());
+            generator.writeEndObject();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return out.toByteArray();
+    }
+}
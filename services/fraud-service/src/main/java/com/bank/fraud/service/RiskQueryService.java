@@ -0,0 +1,136 @@
+package com.bank.fraud.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.errors.InvalidStateStoreException;
+import org.apache.kafka.streams.state.HostInfo;
+import org.apache.kafka.streams.state.QueryableStoreTypes;
+import org.apache.kafka.streams.state.ReadOnlyWindowStore;
+import org.apache.kafka.streams.state.WindowStoreIterator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.kafka.streams.KafkaStreamsInteractiveQueryService;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.bank.fraud.api.UserRiskResponse;
+import com.bank.fraud.rule.FraudRule;
+import com.bank.fraud.rule.FraudRuleProcessor;
+import com.bank.fraud.rule.RuleSettings;
+
+/**
+ * Reads a user's live window aggregates from the fraud rule stores. All rule stores are fed by the
+ * same userId-keyed stream, so one instance owns every store for a given user; requests for users
+ * owned elsewhere are forwarded to that instance's internal endpoint.
+ */
+@Service
+public class RiskQueryService {
+
+    private static final StringSerializer KEY_SERIALIZER = new StringSerializer();
+
+    private final KafkaStreamsInteractiveQueryService queryService;
+    private final List<FraudRule> rules;
+    private final RuleSettingsService ruleSettingsService;
+    private final RestTemplate restTemplate;
+    private final String internalApiKey;
+
+    public RiskQueryService(
+        KafkaStreamsInteractiveQueryService queryService,
+        List<FraudRule> rules,
+        RuleSettingsService ruleSettingsService,
+        RestTemplate restTemplate,
+        @Value("${app.internal-api-key:}") String internalApiKey
+    ) {
+        this.queryService = queryService;
+        this.rules = List.copyOf(rules);
+        this.ruleSettingsService = ruleSettingsService;
+        this.restTemplate = restTemplate;
+        this.internalApiKey = internalApiKey;
+    }
+
+    public UserRiskResponse findUserRisk(String userId) {
+        if (rules.isEmpty()) {
+            return new UserRiskResponse(userId, "NORMAL", List.of());
+        }
+
+        HostInfo owner;
+        try {
+            owner = queryService.getKafkaStreamsApplicationHostInfo(
+                FraudRuleProcessor.storeName(rules.get(0)), userId, KEY_SERIALIZER
+            );
+        } catch (IllegalStateException | InvalidStateStoreException ex) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Risk state is not available yet");
+        }
+
+        if (owner == null || owner.equals(queryService.getCurrentKafkaStreamsApplicationHostInfo())) {
+            return findLocalUserRisk(userId);
+        }
+        return fetchRemote(owner, userId);
+    }
+
+    public UserRiskResponse findLocalUserRisk(String userId) {
+        Instant now = Instant.now();
+        RuleSettings settings = ruleSettingsService.current();
+        List<UserRiskResponse.RuleWindow> windows = new ArrayList<>();
+        boolean violated = false;
+
+        try {
+            for (int i = 0; i < rules.size(); i++) {
+                FraudRule rule = rules.get(i);
+                ReadOnlyWindowStore<String, Long> store = queryService.retrieveQueryableStore(
+                    FraudRuleProcessor.storeName(rule),
+                    QueryableStoreTypes.windowStore()
+                );
+                try (WindowStoreIterator<Long> iterator = store.fetch(userId, now.minus(rule.windowSize()), now)) {
+                    while (iterator.hasNext()) {
+                        KeyValue<Long, Long> window = iterator.next();
+                        boolean windowViolated = settings.isEnabled(i)
+                            && rule.isViolatedBy(window.value, settings.threshold(i));
+                        violated |= windowViolated;
+                        Instant windowStart = Instant.ofEpochMilli(window.key);
+                        windows.add(new UserRiskResponse.RuleWindow(
+                            rule.id(),
+                            windowStart,
+                            windowStart.plus(rule.windowSize()),
+                            rule.displayTotal(window.value),
+                            windowViolated
+                        ));
+                    }
+                }
+            }
+        } catch (InvalidStateStoreException ex) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Risk state is migrating, retry shortly");
+        }
+
+        return new UserRiskResponse(userId, violated ? "HIGH" : "NORMAL", windows);
+    }
+
+    private UserRiskResponse fetchRemote(HostInfo owner, String userId) {
+        HttpHeaders headers = new HttpHeaders();
+        if (internalApiKey != null && !internalApiKey.isBlank()) {
+            headers.set("X-Internal-Api-Key", internalApiKey);
+        }
+        try {
+            return restTemplate.exchange(
+                "http://{host}:{port}/internal/v1/risk/users/{userId}",
+                HttpMethod.GET,
+                new HttpEntity<>(headers),
+                UserRiskResponse.class,
+                owner.host(),
+                owner.port(),
+                userId
+            ).getBody();
+        } catch (RestClientException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_GATEWAY, "Risk state owner is unreachable", ex);
+        }
+    }
+}
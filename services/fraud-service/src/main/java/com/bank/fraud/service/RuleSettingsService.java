@@ -0,0 +1,68 @@
+package com.bank.fraud.service;
+
+import java.util.List;
+
+import org.apache.kafka.streams.errors.InvalidStateStoreException;
+import org.apache.kafka.streams.state.QueryableStoreTypes;
+import org.apache.kafka.streams.state.ReadOnlyKeyValueStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.streams.KafkaStreamsInteractiveQueryService;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.bank.fraud.config.FraudTopologyConfig;
+import com.bank.fraud.rule.FraudRule;
+import com.bank.fraud.rule.RuleSettings;
+
+/**
+ * Live rule settings for code outside the topology (inline scoring, risk queries), read from the same
+ * rule config global store the processors use. Until the store is queryable the compiled defaults apply.
+ */
+@Service
+public class RuleSettingsService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RuleSettingsService.class);
+
+    private final KafkaStreamsInteractiveQueryService queryService;
+    private final List<FraudRule> rules;
+    private volatile RuleSettings current;
+
+    public RuleSettingsService(KafkaStreamsInteractiveQueryService queryService, List<FraudRule> rules) {
+        this.queryService = queryService;
+        this.rules = List.copyOf(rules);
+        this.current = RuleSettings.defaults(this.rules);
+    }
+
+    /** Rule settings indexed like the injected {@code List<FraudRule>}. */
+    public RuleSettings current() {
+        return current;
+    }
+
+    @Scheduled(fixedDelayString = "${app.fraud.rule-config.refresh-interval:1000}")
+    public void refresh() {
+        ReadOnlyKeyValueStore<String, byte[]> store;
+        try {
+            store = queryService.retrieveQueryableStore(
+                FraudTopologyConfig.RULE_CONFIG_STORE,
+                QueryableStoreTypes.keyValueStore()
+            );
+        } catch (IllegalStateException | InvalidStateStoreException ex) {
+            return;
+        }
+
+        RuleSettings previous = current;
+        RuleSettings next = previous.refresh(rules, store::get);
+        if (next == previous) {
+            return;
+        }
+        current = next;
+        for (int i = 0; i < rules.size(); i++) {
+            if (next.version(i) != previous.version(i)) {
+                LOGGER.info("Applied fraud rule config version {} to rule={} (enabled={}, threshold={})",
+                    next.version(i), rules.get(i).id(), next.isEnabled(i),
+                    rules.get(i).displayTotal(next.threshold(i)));
+            }
+        }
+    }
+}
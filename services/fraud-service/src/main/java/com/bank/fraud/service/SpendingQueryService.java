@@ -0,0 +1,118 @@
+package com.bank.fraud.service;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.errors.InvalidStateStoreException;
+import org.apache.kafka.streams.state.HostInfo;
+import org.apache.kafka.streams.state.KeyValueIterator;
+import org.apache.kafka.streams.state.QueryableStoreTypes;
+import org.apache.kafka.streams.state.ReadOnlyKeyValueStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.kafka.streams.KafkaStreamsInteractiveQueryService;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.bank.fraud.analytics.SpendingProcessor;
+import com.bank.fraud.analytics.SpendingTotals;
+import com.bank.fraud.api.SpendingSummaryResponse;
+import com.bank.fraud.model.TransferEvent;
+
+/**
+ * Serves monthly spending totals from the {@link SpendingProcessor#STORE} store. The store is fed by a
+ * userId-keyed stream, so one instance owns all of a user's months; other instances forward to it.
+ */
+@Service
+public class SpendingQueryService {
+
+    private static final StringSerializer KEY_SERIALIZER = new StringSerializer();
+
+    private final KafkaStreamsInteractiveQueryService queryService;
+    private final RestTemplate restTemplate;
+    private final String internalApiKey;
+
+    public SpendingQueryService(
+        KafkaStreamsInteractiveQueryService queryService,
+        RestTemplate restTemplate,
+        @Value("${app.internal-api-key:}") String internalApiKey
+    ) {
+        this.queryService = queryService;
+        this.restTemplate = restTemplate;
+        this.internalApiKey = internalApiKey;
+    }
+
+    public SpendingSummaryResponse findMonthlySpending(String userId, YearMonth month) {
+        HostInfo owner;
+        try {
+            owner = queryService.getKafkaStreamsApplicationHostInfo(SpendingProcessor.STORE, userId, KEY_SERIALIZER);
+        } catch (IllegalStateException | InvalidStateStoreException ex) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Spending state is not available yet");
+        }
+
+        if (owner == null || owner.equals(queryService.getCurrentKafkaStreamsApplicationHostInfo())) {
+            return findLocalMonthlySpending(userId, month);
+        }
+        return fetchRemote(owner, userId, month);
+    }
+
+    public SpendingSummaryResponse findLocalMonthlySpending(String userId, YearMonth month) {
+        List<SpendingSummaryResponse.CurrencyTotals> totals = new ArrayList<>();
+        try {
+            ReadOnlyKeyValueStore<String, byte[]> store = queryService.retrieveQueryableStore(
+                SpendingProcessor.STORE,
+                QueryableStoreTypes.keyValueStore()
+            );
+            try (KeyValueIterator<String, byte[]> entries = store.prefixScan(
+                SpendingProcessor.monthPrefix(userId, month), KEY_SERIALIZER
+            )) {
+                while (entries.hasNext()) {
+                    KeyValue<String, byte[]> entry = entries.next();
+                    SpendingTotals monthTotals = SpendingTotals.read(entry.value);
+                    totals.add(new SpendingSummaryResponse.CurrencyTotals(
+                        SpendingProcessor.currencyOf(entry.key),
+                        TransferEvent.fromMinorUnits(monthTotals.outgoingMinor()),
+                        monthTotals.outgoingCount(),
+                        TransferEvent.fromMinorUnits(monthTotals.incomingMinor()),
+                        monthTotals.incomingCount()
+                    ));
+                }
+            }
+        } catch (InvalidStateStoreException ex) {
+            throw new ResponseStatusException(
+                HttpStatus.SERVICE_UNAVAILABLE, "Spending state is migrating, retry shortly"
+            );
+        }
+
+        return new SpendingSummaryResponse(userId, month.toString(), totals);
+    }
+
+    private SpendingSummaryResponse fetchRemote(HostInfo owner, String userId, YearMonth month) {
+        HttpHeaders headers = new HttpHeaders();
+        if (internalApiKey != null && !internalApiKey.isBlank()) {
+            headers.set("X-Internal-Api-Key", internalApiKey);
+        }
+        try {
+            return restTemplate.exchange(
+                "http://{host}:{port}/internal/v1/spending/users/{userId}?month={month}",
+                HttpMethod.GET,
+                new HttpEntity<>(headers),
+                SpendingSummaryResponse.class,
+                owner.host(),
+                owner.port(),
+                userId,
+                month
+            ).getBody();
+        } catch (RestClientException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_GATEWAY, "Spending state owner is unreachable", ex);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.bank.fraud.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.bank.fraud.model.TransferEvent;
+import com.bank.fraud.rule.FraudRule;
+import com.bank.fraud.serde.TransferEventSerde;
+
+/**
+ * Per-instance, in-memory history of each user's recent transfers, used for inline scoring. Every
+ * instance assigns itself all partitions of the topic, without group membership, and on assignment
+ * rewinds by the longest rule window so it is warm right after startup. The group id only names the
+ * (shared, never relied upon) committed offsets, so restarts do not leave orphaned groups behind.
+ */
+@Component
+public class TransferFeatureStore implements ConsumerSeekAware {
+
+    private final Duration horizon;
+    private final int maxTransfersPerUser;
+    private final Map<String, Deque<TransferEvent>> recentTransfers = new ConcurrentHashMap<>();
+    private final TransferEventSerde transferEventSerde = new TransferEventSerde();
+
+    public TransferFeatureStore(
+        List<FraudRule> rules,
+        @Value("${app.fraud.scoring.max-transfers-per-user:1000}") int maxTransfersPerUser
+    ) {
+        this.horizon = rules.stream().map(FraudRule::windowSize).max(Duration::compareTo).orElse(Duration.ofHours(1));
+        this.maxTransfersPerUser = maxTransfersPerUser;
+    }
+
+    @KafkaListener(
+        groupId = "${spring.application.name:fraud-service}-features",
+        topicPartitions = @org.springframework.kafka.annotation.TopicPartition(
+            topic = "${app.kafka.topics.outbox-events:account.events.v1}",
+            partitions = "#{@topicPartitionFinder.partitions('${app.kafka.topics.outbox-events:account.events.v1}')}"
+        ),
+        properties = {
+            "key.deserializer=org.apache.kafka.common.serialization.StringDeserializer",
+            "value.deserializer=org.apache.kafka.common.serialization.ByteArrayDeserializer"
+        }
+    )
+    public void onAccountEvent(ConsumerRecord<String, byte[]> record) {
+        TransferEvent event = transferEventSerde.deserializer().deserialize(record.topic(), record.headers(), record.value());
+        if (event != null) {
+            record(event);
+        }
+    }
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        callback.seekToTimestamp(assignments.keySet(), Instant.now().minus(horizon).toEpochMilli());
+    }
+
+    public void record(TransferEvent event) {
+        Deque<TransferEvent> transfers = recentTransfers.computeIfAbsent(event.userId(), ignored -> new ArrayDeque<>());
+        synchronized (transfers) {
+            transfers.addLast(event);
+            while (transfers.size() > maxTransfersPerUser) {
+                transfers.removeFirst();
+            }
+        }
+    }
+
+    /** Transfers of {@code userId} committed at or after {@code since}, oldest first. */
+    public List<TransferEvent> recentTransfers(String userId, Instant since) {
+        Deque<TransferEvent> transfers = recentTransfers.get(userId);
+        if (transfers == null) {
+            return List.of();
+        }
+        List<TransferEvent> result = new ArrayList<>();
+        synchronized (transfers) {
+            for (TransferEvent transfer : transfers) {
+                if (!transfer.committedAt().isBefore(since)) {
+                    result.add(transfer);
+                }
+            }
+        }
+        return result;
+    }
+
+    @Scheduled(fixedDelayString = "${app.fraud.scoring.eviction-interval:60000}")
+    public void evictExpired() {
+        Instant cutoff = Instant.now().minus(horizon);
+        Collection<String> users = new ArrayList<>(recentTransfers.keySet());
+        for (String userId : users) {
+            recentTransfers.computeIfPresent(userId, (ignored, transfers) -> {
+                synchronized (transfers) {
+                    while (!transfers.isEmpty() && transfers.peekFirst().committedAt().isBefore(cutoff)) {
+                        transfers.removeFirst();
+                    }
+                    return transfers.isEmpty() ? null : transfers;
+                }
+            });
+        }
+    }
+}
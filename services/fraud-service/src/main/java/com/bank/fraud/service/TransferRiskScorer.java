@@ -0,0 +1,73 @@
+package com.bank.fraud.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.stereotype.Service;
+
+import com.bank.fraud.api.RiskScoreRequest;
+import com.bank.fraud.api.RiskScoreResponse;
+import com.bank.fraud.model.TransferEvent;
+import com.bank.fraud.rule.FraudRule;
+import com.bank.fraud.rule.RuleSettings;
+
+/**
+ * Inline pre-transfer check: evaluates every {@link FraudRule} as if the candidate transfer had
+ * already been committed, against the user's recent transfers from {@link TransferFeatureStore}.
+ * A transfer that would make any rule fire is blocked before it is booked.
+ */
+@Service
+public class TransferRiskScorer {
+
+    private final List<FraudRule> rules;
+    private final TransferFeatureStore featureStore;
+    private final RuleSettingsService ruleSettingsService;
+
+    public TransferRiskScorer(
+        List<FraudRule> rules,
+        TransferFeatureStore featureStore,
+        RuleSettingsService ruleSettingsService
+    ) {
+        this.rules = List.copyOf(rules);
+        this.featureStore = featureStore;
+        this.ruleSettingsService = ruleSettingsService;
+    }
+
+    public RiskScoreResponse score(RiskScoreRequest request) {
+        Instant now = Instant.now();
+        TransferEvent candidate = new TransferEvent(
+            null,
+            request.userId(),
+            null,
+            request.fromAccountId(),
+            request.toAccountId(),
+            TransferEvent.toMinorUnits(request.amount()),
+            request.currency(),
+            now
+        );
+
+        RuleSettings settings = ruleSettingsService.current();
+        List<String> reasons = new ArrayList<>();
+        for (int i = 0; i < rules.size(); i++) {
+            FraudRule rule = rules.get(i);
+            if (!settings.isEnabled(i) || !rule.appliesTo(candidate)) {
+                continue;
+            }
+            long windowSizeMs = rule.windowSize().toMillis();
+            Instant windowStart = Instant.ofEpochMilli(now.toEpochMilli() - Math.floorMod(now.toEpochMilli(), windowSizeMs));
+
+            long total = rule.contribution(candidate);
+            for (TransferEvent transfer : featureStore.recentTransfers(request.userId(), windowStart)) {
+                if (rule.appliesTo(transfer)) {
+                    total += rule.contribution(transfer);
+                }
+            }
+            if (rule.isViolatedBy(total, settings.threshold(i))) {
+                reasons.add(rule.reason());
+            }
+        }
+
+        return new RiskScoreResponse(reasons.isEmpty() ? RiskScoreResponse.ALLOW : RiskScoreResponse.BLOCK, reasons);
+    }
+}
@@ -0,0 +1,54 @@
+package com.bank.fraud.takeover;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import org.apache.kafka.streams.kstream.ValueJoiner;
+
+import com.bank.fraud.model.DeviceBoundEvent;
+import com.bank.fraud.model.FraudAlert;
+import com.bank.fraud.model.TransferEvent;
+
+/**
+ * Scores a large transfer joined with a device binding that preceded it. Crossing the amount floor is
+ * worth 40 points; up to 30 more come from the amount (saturating at four times the floor) and up to
+ * 30 from how soon after the binding the transfer happened.
+ */
+public class DeviceTakeoverJoiner implements ValueJoiner<TransferEvent, DeviceBoundEvent, FraudAlert> {
+
+    public static final String REASON = "Large transfer shortly after a new device was bound";
+
+    private static final int BASE_SCORE = 40;
+    private static final int AMOUNT_POINTS = 30;
+    private static final int RECENCY_POINTS = 30;
+    private static final int AMOUNT_SATURATION = 4;
+
+    private final long minAmountMinor;
+    private final long windowMs;
+    private final int highSeverityScore;
+
+    public DeviceTakeoverJoiner(DeviceTakeoverProperties properties) {
+        this.minAmountMinor = Math.max(TransferEvent.toMinorUnits(properties.getMinAmount()), 1);
+        this.windowMs = Math.max(properties.getWindow().toMillis(), 1);
+        this.highSeverityScore = properties.getHighSeverityScore();
+    }
+
+    public long minAmountMinor() {
+        return minAmountMinor;
+    }
+
+    @Override
+    public FraudAlert apply(TransferEvent transfer, DeviceBoundEvent binding) {
+        long sinceBindingMs = Math.max(Duration.between(binding.boundAt(), transfer.committedAt()).toMillis(), 0);
+        double amountRatio = Math.min((double) transfer.amountMinor() / minAmountMinor - 1, AMOUNT_SATURATION - 1);
+        double recency = 1 - Math.min((double) sinceBindingMs / windowMs, 1);
+
+        int score = (int) Math.round(
+            BASE_SCORE
+                + AMOUNT_POINTS * Math.max(amountRatio, 0) / (AMOUNT_SATURATION - 1)
+                + RECENCY_POINTS * recency
+        );
+        String severity = score >= highSeverityScore ? "HIGH" : "MEDIUM";
+        return new FraudAlert(transfer.userId(), null, REASON, severity, score, Instant.now());
+    }
+}
@@ -0,0 +1,60 @@
+package com.bank.fraud.takeover;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Transfers of at least {@code minAmount} within {@code window} after a new device was bound are
+ * scored and alerted; scores at or above {@code highSeverityScore} are raised as HIGH.
+ */
+@ConfigurationProperties(prefix = "app.fraud.device-takeover")
+public class DeviceTakeoverProperties {
+
+    private boolean enabled = true;
+    private Duration window = Duration.ofMinutes(30);
+    private Duration grace = Duration.ofMinutes(1);
+    private BigDecimal minAmount = new BigDecimal("5000");
+    private int highSeverityScore = 70;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getWindow() {
+        return window;
+    }
+
+    public void setWindow(Duration window) {
+        this.window = window;
+    }
+
+    public Duration getGrace() {
+        return grace;
+    }
+
+    public void setGrace(Duration grace) {
+        this.grace = grace;
+    }
+
+    public BigDecimal getMinAmount() {
+        return minAmount;
+    }
+
+    public void setMinAmount(BigDecimal minAmount) {
+        this.minAmount = minAmount;
+    }
+
+    public int getHighSeverityScore() {
+        return highSeverityScore;
+    }
+
+    public void setHighSeverityScore(int highSeverityScore) {
+        this.highSeverityScore = highSeverityScore;
+    }
+}
@@ -0,0 +1,242 @@
+package com.bank.fraud.velocity;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.processor.PunctuationType;
+import org.apache.kafka.streams.processor.api.Processor;
+import org.apache.kafka.streams.processor.api.ProcessorContext;
+import org.apache.kafka.streams.processor.api.Record;
+import org.apache.kafka.streams.state.KeyValueIterator;
+import org.apache.kafka.streams.state.KeyValueStore;
+import org.apache.kafka.streams.state.WindowStore;
+import org.apache.kafka.streams.state.WindowStoreIterator;
+
+import com.bank.fraud.model.FraudAlert;
+import com.bank.fraud.model.TransferEvent;
+
+/**
+ * Per-user velocity features over every {@link VelocityWindow}, at all hours: transfer count, amount
+ * sum in exact minor units, and distinct destination accounts.
+ *
+ * <p>Count and sum live in one bucket store per window, 16 bytes per user and bucket, and a window is
+ * the sum of its buckets up to the current one. Distinct destinations come from a single per-user list
+ * of (account, last seen) pairs pruned to the longest window and capped at
+ * {@link VelocityProperties#getMaxTrackedDestinations()}. A list is only rewritten when its user
+ * transfers, so a stream-time punctuator deletes the lists of users idle for longer than a day plus
+ * grace. Each feature alerts at most once per window.
+ */
+public class VelocityProcessor implements Processor<String, TransferEvent, String, FraudAlert> {
+
+    public static final String DESTINATIONS_STORE = "velocity-destinations";
+    public static final String ALERTED_STORE = "velocity-alerted";
+
+    private static final String SEVERITY = "MEDIUM";
+    private static final int PAIR_BYTES = 2 * Long.BYTES;
+
+    private final VelocityProperties properties;
+    private final VelocityWindow[] windows = VelocityWindow.values();
+    private final long[] minAmountMinor;
+    private ProcessorContext<String, FraudAlert> context;
+    private WindowStore<String, byte[]>[] bucketStores;
+    private KeyValueStore<String, byte[]> destinationStore;
+    private WindowStore<String, Long> alertedStore;
+
+    public VelocityProcessor(VelocityProperties properties) {
+        this.properties = properties;
+        this.minAmountMinor = new long[windows.length];
+        for (int i = 0; i < windows.length; i++) {
+            VelocityProperties.Limits limits = properties.limitsFor(windows[i]);
+            minAmountMinor[i] = limits.getAmount() == null || limits.getAmount().signum() <= 0
+                ? 0
+                : TransferEvent.toMinorUnits(limits.getAmount());
+        }
+    }
+
+    public static String[] storeNames() {
+        VelocityWindow[] windows = VelocityWindow.values();
+        String[] names = new String[windows.length + 2];
+        for (int i = 0; i < windows.length; i++) {
+            names[i] = windows[i].storeName();
+        }
+        names[windows.length] = DESTINATIONS_STORE;
+        names[windows.length + 1] = ALERTED_STORE;
+        return names;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void init(ProcessorContext<String, FraudAlert> context) {
+        this.context = context;
+        this.bucketStores = new WindowStore[windows.length];
+        for (int i = 0; i < windows.length; i++) {
+            bucketStores[i] = context.getStateStore(windows[i].storeName());
+        }
+        this.destinationStore = context.getStateStore(DESTINATIONS_STORE);
+        this.alertedStore = context.getStateStore(ALERTED_STORE);
+        context.schedule(properties.getPurgeInterval(), PunctuationType.STREAM_TIME, this::purgeIdleUsers);
+    }
+
+    @Override
+    public void process(Record<String, TransferEvent> record) {
+        TransferEvent event = record.value();
+        long eventTime = event.committedAt().toEpochMilli();
+        long[] destinations = updateDestinations(record.key(), event.toAccountId(), eventTime);
+
+        for (int i = 0; i < windows.length; i++) {
+            VelocityWindow window = windows[i];
+            long bucketMs = window.bucket().toMillis();
+            long bucketStart = eventTime - Math.floorMod(eventTime, bucketMs);
+            long windowStart = bucketStart - window.size().toMillis() + bucketMs;
+
+            WindowStore<String, byte[]> store = bucketStores[i];
+            ByteBuffer bucket = ByteBuffer.allocate(PAIR_BYTES);
+            byte[] current = store.fetch(record.key(), bucketStart);
+            if (current != null) {
+                bucket.put(current).flip();
+            }
+            store.put(record.key(), bucket
+                .putLong(0, bucket.getLong(0) + 1)
+                .putLong(Long.BYTES, Math.addExact(bucket.getLong(Long.BYTES), event.amountMinor()))
+                .array(), bucketStart);
+
+            long count = 0;
+            long sumMinor = 0;
+            try (WindowStoreIterator<byte[]> buckets = store.fetch(record.key(), windowStart, bucketStart)) {
+                while (buckets.hasNext()) {
+                    ByteBuffer value = ByteBuffer.wrap(buckets.next().value);
+                    count += value.getLong(0);
+                    sumMinor += value.getLong(Long.BYTES);
+                }
+            }
+
+            VelocityProperties.Limits limits = properties.limitsFor(window);
+            if (limits.getCount() > 0 && count > limits.getCount()) {
+                alertOnce(record, window, "count", windowStart, bucketStart,
+                    "Velocity limit exceeded: " + window.label() + " transfer count");
+            }
+            if (minAmountMinor[i] > 0 && sumMinor > minAmountMinor[i]) {
+                alertOnce(record, window, "amount", windowStart, bucketStart,
+                    "Velocity limit exceeded: " + window.label() + " transfer amount");
+            }
+            int distinct = countSeenSince(destinations, eventTime - window.size().toMillis());
+            if (limits.getDistinctDestinations() > 0 && distinct > limits.getDistinctDestinations()) {
+                alertOnce(record, window, "destinations", windowStart, bucketStart,
+                    "Velocity limit exceeded: " + window.label() + " distinct destinations");
+            }
+        }
+    }
+
+    private void alertOnce(
+        Record<String, TransferEvent> record,
+        VelocityWindow window,
+        String feature,
+        long windowStart,
+        long bucketStart,
+        String reason
+    ) {
+        String alertKey = record.key() + '|' + window.label() + '|' + feature;
+        try (WindowStoreIterator<Long> previous = alertedStore.fetch(alertKey, windowStart, bucketStart)) {
+            if (previous.hasNext()) {
+                return;
+            }
+        }
+        alertedStore.put(alertKey, bucketStart, bucketStart);
+        context.forward(record.withValue(new FraudAlert(record.key(), reason, SEVERITY, Instant.now())));
+    }
+
+    /**
+     * Records the destination and returns the user's tracked destinations as alternating
+     * {@code accountId, lastSeenMillis} pairs. Pairs older than the longest window are dropped, and
+     * beyond the cap the least recently seen go first.
+     */
+    private long[] updateDestinations(String userId, Long destination, long eventTime) {
+        long horizon = eventTime - VelocityWindow.ONE_DAY.size().toMillis();
+        byte[] stored = destinationStore.get(userId);
+        int storedPairs = stored == null ? 0 : stored.length / PAIR_BYTES;
+
+        long[] pairs = new long[(storedPairs + 1) * 2];
+        int size = 0;
+        boolean seen = false;
+        ByteBuffer in = stored == null ? ByteBuffer.allocate(0) : ByteBuffer.wrap(stored);
+        for (int i = 0; i < storedPairs; i++) {
+            long accountId = in.getLong();
+            long lastSeen = in.getLong();
+            if (destination != null && accountId == destination) {
+                lastSeen = Math.max(lastSeen, eventTime);
+                seen = true;
+            }
+            if (lastSeen > horizon) {
+                pairs[size++] = accountId;
+                pairs[size++] = lastSeen;
+            }
+        }
+        if (destination != null && !seen) {
+            pairs[size++] = destination;
+            pairs[size++] = eventTime;
+        }
+
+        int maxPairs = Math.max(properties.getMaxTrackedDestinations(), 1);
+        while (size / 2 > maxPairs) {
+            int oldest = 0;
+            for (int i = 2; i < size; i += 2) {
+                if (pairs[i + 1] < pairs[oldest + 1]) {
+                    oldest = i;
+                }
+            }
+            pairs[oldest] = pairs[size - 2];
+            pairs[oldest + 1] = pairs[size - 1];
+            size -= 2;
+        }
+
+        ByteBuffer out = ByteBuffer.allocate(size * Long.BYTES);
+        for (int i = 0; i < size; i++) {
+            out.putLong(pairs[i]);
+        }
+        destinationStore.put(userId, out.array());
+
+        long[] tracked = new long[size];
+        System.arraycopy(pairs, 0, tracked, 0, size);
+        return tracked;
+    }
+
+    /** Deletes the destination lists whose newest entry is older than the longest window plus grace. */
+    void purgeIdleUsers(long streamTime) {
+        long cutoff = streamTime - VelocityWindow.ONE_DAY.size().toMillis() - properties.getGrace().toMillis();
+        List<String> idle = new ArrayList<>();
+        try (KeyValueIterator<String, byte[]> lists = destinationStore.all()) {
+            while (lists.hasNext()) {
+                KeyValue<String, byte[]> list = lists.next();
+                if (lastSeen(list.value) <= cutoff) {
+                    idle.add(list.key);
+                }
+            }
+        }
+        for (String userId : idle) {
+            destinationStore.delete(userId);
+        }
+    }
+
+    private static long lastSeen(byte[] stored) {
+        long lastSeen = Long.MIN_VALUE;
+        ByteBuffer in = ByteBuffer.wrap(stored);
+        while (in.remaining() >= PAIR_BYTES) {
+            in.getLong();
+            lastSeen = Math.max(lastSeen, in.getLong());
+        }
+        return lastSeen;
+    }
+
+    private static int countSeenSince(long[] destinations, long since) {
+        int distinct = 0;
+        for (int i = 1; i < destinations.length; i += 2) {
+            if (destinations[i] > since) {
+                distinct++;
+            }
+        }
+        return distinct;
+    }
+}
@@ -0,0 +1,97 @@
+package com.bank.fraud.velocity;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Thresholds for the velocity features. A limit left unset (or zero) disables that feature's alert.
+ */
+@ConfigurationProperties(prefix = "app.fraud.velocity")
+public class VelocityProperties {
+
+    private boolean enabled = true;
+    private Duration grace = Duration.ofMinutes(5);
+    private int maxTrackedDestinations = 256;
+    private Duration purgeInterval = Duration.ofHours(1);
+    private Map<VelocityWindow, Limits> limits = new EnumMap<>(VelocityWindow.class);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getGrace() {
+        return grace;
+    }
+
+    public void setGrace(Duration grace) {
+        this.grace = grace;
+    }
+
+    public int getMaxTrackedDestinations() {
+        return maxTrackedDestinations;
+    }
+
+    public void setMaxTrackedDestinations(int maxTrackedDestinations) {
+        this.maxTrackedDestinations = maxTrackedDestinations;
+    }
+
+    public Duration getPurgeInterval() {
+        return purgeInterval;
+    }
+
+    public void setPurgeInterval(Duration purgeInterval) {
+        this.purgeInterval = purgeInterval;
+    }
+
+    public Map<VelocityWindow, Limits> getLimits() {
+        return limits;
+    }
+
+    public void setLimits(Map<VelocityWindow, Limits> limits) {
+        this.limits = limits;
+    }
+
+    public Limits limitsFor(VelocityWindow window) {
+        Limits windowLimits = limits.get(window);
+        return windowLimits == null ? new Limits() : windowLimits;
+    }
+
+    public static class Limits {
+
+        private long count;
+        private BigDecimal amount;
+        private int distinctDestinations;
+
+        public long getCount() {
+            return count;
+        }
+
+        public void setCount(long count) {
+            this.count = count;
+        }
+
+        public BigDecimal getAmount() {
+            return amount;
+        }
+
+        public void setAmount(BigDecimal amount) {
+            this.amount = amount;
+        }
+
+        public int getDistinctDestinations() {
+            return distinctDestinations;
+        }
+
+        public void setDistinctDestinations(int distinctDestinations) {
+            this.distinctDestinations = distinctDestinations;
+        }
+    }
+}
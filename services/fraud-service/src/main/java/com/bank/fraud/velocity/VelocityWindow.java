@@ -0,0 +1,40 @@
+package com.bank.fraud.velocity;
+
+import java.time.Duration;
+
+/**
+ * Velocity windows kept around the clock. Each is a hopping window assembled from fixed buckets, so
+ * the features always cover the last {@code size} up to the current bucket.
+ */
+public enum VelocityWindow {
+
+    FIVE_MINUTES("5m", Duration.ofMinutes(5), Duration.ofMinutes(1)),
+    ONE_HOUR("1h", Duration.ofHours(1), Duration.ofMinutes(5)),
+    ONE_DAY("24h", Duration.ofHours(24), Duration.ofHours(1));
+
+    private final String label;
+    private final Duration size;
+    private final Duration bucket;
+
+    VelocityWindow(String label, Duration size, Duration bucket) {
+        this.label = label;
+        this.size = size;
+        this.bucket = bucket;
+    }
+
+    public String label() {
+        return label;
+    }
+
+    public Duration size() {
+        return size;
+    }
+
+    public Duration bucket() {
+        return bucket;
+    }
+
+    public String storeName() {
+        return "velocity-buckets-" + label;
+    }
+}
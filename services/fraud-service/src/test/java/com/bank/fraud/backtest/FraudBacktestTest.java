@@ -0,0 +1,45 @@
+package com.bank.fraud.backtest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class FraudBacktestTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void ndjsonDumpShouldBeReplayedThroughTheRules() throws Exception {
+        Path events = dir.resolve("events.ndjson");
+        Files.writeString(events, """
+            {"transferId": "t-1", "userId": "alice", "amount": 30000, "committedAt": "2026-03-02T02:00:00Z"}
+            {"transferId": "t-2", "userId": "alice", "amount": 30000, "committedAt": "2026-03-02T02:10:00Z"}
+            not json
+            """);
+
+        String report = run(events.toString());
+
+        assertTrue(report.contains("events replayed: 2 (skipped 1 unreadable)"), report);
+        assertTrue(report.matches("(?s).*night-transfer-sum\\s+1 alerts.*"), report);
+    }
+
+    private static String run(String... args) throws Exception {
+        PrintStream stdout = System.out;
+        ByteArrayOutputStream captured = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(captured, true, StandardCharsets.UTF_8));
+        try {
+            FraudBacktest.main(args);
+        } finally {
+            System.setOut(stdout);
+        }
+        return captured.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,54 @@
+package com.bank.fraud.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.PartitionInfo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.ConsumerFactory;
+
+class TopicPartitionFinderTest {
+
+    private static final String TOPIC = "account.events.v1";
+
+    private final Consumer<Object, Object> consumer = mock(Consumer.class);
+    private TopicPartitionFinder finder;
+
+    @BeforeEach
+    void setUp() {
+        ConsumerFactory<Object, Object> consumerFactory = mock(ConsumerFactory.class);
+        when(consumerFactory.createConsumer()).thenReturn(consumer);
+        finder = new TopicPartitionFinder(consumerFactory);
+    }
+
+    @Test
+    void partitionsShouldBeListedByNumber() {
+        when(consumer.partitionsFor(TOPIC)).thenReturn(List.of(
+            new PartitionInfo(TOPIC, 0, null, null, null),
+            new PartitionInfo(TOPIC, 1, null, null, null)
+        ));
+
+        assertArrayEquals(new String[] {"0", "1"}, finder.partitions(TOPIC));
+        verify(consumer).close();
+    }
+
+    @Test
+    void missingTopicShouldFailWithItsName() {
+        when(consumer.partitionsFor(TOPIC)).thenReturn(List.of());
+
+        IllegalStateException ex = assertThrows(IllegalStateException.class, () -> finder.partitions(TOPIC));
+        assertTrue(ex.getMessage().contains(TOPIC));
+        verify(consumer).close();
+    }
+
+    @Test
+    void nullMetadataShouldFailTheSameWay() {
+        when(consumer.partitionsFor(TOPIC)).thenReturn(null);
+
+        assertThrows(IllegalStateException.class, () -> finder.partitions(TOPIC));
+    }
+}
@@ -0,0 +1,88 @@
+package com.bank.fraud.mule;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class HyperLogLogTest {
+
+    private static final int PREFIX = Long.BYTES;
+
+    @Test
+    void smallSketchShouldStaySparse() {
+        byte[] sketch = new byte[PREFIX];
+        for (long value = 1; value <= 5; value++) {
+            sketch = HyperLogLog.add(sketch, PREFIX, value);
+        }
+
+        assertTrue(sketch.length <= PREFIX + 5 * 3);
+        assertEquals(5, estimate(sketch));
+    }
+
+    @Test
+    void repeatedValueShouldNotGrowSketch() {
+        byte[] sketch = HyperLogLog.add(new byte[PREFIX], PREFIX, 42);
+        int length = sketch.length;
+
+        sketch = HyperLogLog.add(sketch, PREFIX, 42);
+
+        assertEquals(length, sketch.length);
+        assertEquals(1, estimate(sketch));
+    }
+
+    @Test
+    void addShouldKeepBytesBeforeOffset() {
+        byte[] sketch = new byte[PREFIX];
+        sketch[0] = 7;
+        for (long value = 0; value < 2_000; value++) {
+            sketch = HyperLogLog.add(sketch, PREFIX, value);
+        }
+
+        assertEquals(7, sketch[0]);
+    }
+
+    @Test
+    void largeSketchShouldSwitchToDenseAndStayBounded() {
+        byte[] sketch = new byte[PREFIX];
+        for (long value = 0; value < 100_000; value++) {
+            sketch = HyperLogLog.add(sketch, PREFIX, value);
+        }
+
+        assertEquals(PREFIX + HyperLogLog.REGISTERS, sketch.length);
+        assertEquals(100_000, estimate(sketch), 100_000 * 0.1);
+    }
+
+    @Test
+    void estimateShouldStayAccurateAcrossSparseToDenseSwitch() {
+        byte[] sketch = new byte[PREFIX];
+        for (long value = 0; value < 1_000; value++) {
+            sketch = HyperLogLog.add(sketch, PREFIX, value);
+            long expected = value + 1;
+            assertEquals(expected, estimate(sketch), Math.max(2, expected * 0.1), "after " + expected + " values");
+        }
+    }
+
+    @Test
+    void mergeShouldUnionSparseAndDenseSketches() {
+        byte[] sparse = new byte[PREFIX];
+        for (long value = 0; value < 50; value++) {
+            sparse = HyperLogLog.add(sparse, PREFIX, value);
+        }
+        byte[] dense = new byte[PREFIX];
+        for (long value = 25; value < 5_025; value++) {
+            dense = HyperLogLog.add(dense, PREFIX, value);
+        }
+
+        byte[] union = new byte[HyperLogLog.REGISTERS];
+        HyperLogLog.merge(union, 0, sparse, PREFIX);
+        HyperLogLog.merge(union, 0, dense, PREFIX);
+
+        assertEquals(5_025, HyperLogLog.estimate(union, 0), 5_025 * 0.1);
+    }
+
+    private static long estimate(byte[] sketch) {
+        byte[] dense = new byte[HyperLogLog.REGISTERS];
+        HyperLogLog.merge(dense, 0, sketch, PREFIX);
+        return HyperLogLog.estimate(dense, 0);
+    }
+}
@@ -0,0 +1,174 @@
+package com.bank.fraud.mule;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Properties;
+import java.util.UUID;
+
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.TestInputTopic;
+import org.apache.kafka.streams.TestOutputTopic;
+import org.apache.kafka.streams.TopologyTestDriver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import com.bank.fraud.config.FraudTopologyConfig;
+import com.bank.fraud.model.FraudAlert;
+import com.bank.fraud.model.TransferEvent;
+import com.bank.fraud.rule.AlertEmitMode;
+import com.bank.fraud.serde.TransferEventSerde;
+import com.bank.fraud.takeover.DeviceTakeoverProperties;
+import com.bank.fraud.velocity.VelocityProperties;
+
+class MuleDetectionProcessorTest {
+
+    private static final String TRANSFERS_TOPIC = "account.events.v1";
+    private static final String ALERTS_TOPIC = "fraud.alerts";
+    private static final Instant START = Instant.parse("2026-03-02T00:00:00Z");
+    private static final long MULE_ACCOUNT = 900L;
+
+    @TempDir
+    Path stateDir;
+
+    private TopologyTestDriver driver;
+    private TestInputTopic<String, TransferEvent> transfers;
+    private TestOutputTopic<String, FraudAlert> alerts;
+
+    @BeforeEach
+    void setUp() {
+        MuleDetectionProperties properties = new MuleDetectionProperties();
+        properties.setMinDistinctSenders(5);
+        properties.setSpikeFactor(4.0);
+        properties.setMaxReceivedAmount(new BigDecimal("1000"));
+        VelocityProperties velocity = new VelocityProperties();
+        velocity.setEnabled(false);
+        DeviceTakeoverProperties deviceTakeover = new DeviceTakeoverProperties();
+        deviceTakeover.setEnabled(false);
+
+        StreamsBuilder streamsBuilder = new StreamsBuilder();
+        new FraudTopologyConfig(
+            List.of(),
+            AlertEmitMode.FIRST_CROSSING,
+            velocity,
+            properties,
+            deviceTakeover,
+            TRANSFERS_TOPIC,
+            "auth.device-events.v1",
+            "fraud.rule-config.v1",
+            Duration.ofSeconds(1),
+            ALERTS_TOPIC
+        ).fraudDetectionTopology(streamsBuilder);
+        Properties config = new Properties();
+        config.put(StreamsConfig.APPLICATION_ID_CONFIG, "mule-detection-test");
+        config.put(StreamsConfig.BOOTSTRAP_SERVERS_CONFIG, "test:9092");
+        config.put(StreamsConfig.STATE_DIR_CONFIG, stateDir.toString());
+        driver = new TopologyTestDriver(streamsBuilder.build(), config);
+        transfers = driver.createInputTopic(
+            TRANSFERS_TOPIC, new StringSerializer(), new TransferEventSerde().serializer()
+        );
+        alerts = driver.createOutputTopic(
+            ALERTS_TOPIC, new StringDeserializer(), new JsonDeserializer<>(FraudAlert.class, false)
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        driver.close();
+    }
+
+    // Senders are told apart by userId when the event carries no source account.
+    private void transfer(String senderId, Long toAccountId, String amount, Instant committedAt) {
+        TransferEvent event = new TransferEvent(
+            UUID.randomUUID().toString(),
+            senderId,
+            null,
+            null,
+            toAccountId,
+            TransferEvent.toMinorUnits(new BigDecimal(amount)),
+            "KZT",
+            committedAt
+        );
+        transfers.pipeInput(senderId, event, committedAt);
+    }
+
+    @Test
+    void fanInFromManySendersShouldAlertOnceForTheReceivingAccount() {
+        for (int i = 0; i < 8; i++) {
+            transfer("sender-" + i, MULE_ACCOUNT, "10", START.plus(Duration.ofMinutes(i)));
+        }
+
+        List<KeyValue<String, FraudAlert>> raised = alerts.readKeyValuesToList();
+        assertEquals(1, raised.size());
+        assertEquals(String.valueOf(MULE_ACCOUNT), raised.get(0).key);
+        FraudAlert alert = raised.get(0).value;
+        assertNull(alert.userId());
+        assertEquals(MULE_ACCOUNT, alert.accountId());
+        assertEquals("Mule pattern: spike in distinct senders", alert.reason());
+        assertEquals("HIGH", alert.severity());
+    }
+
+    @Test
+    void repeatedSenderShouldNotCountAsFanIn() {
+        for (int i = 0; i < 8; i++) {
+            transfer("sender-1", MULE_ACCOUNT, "10", START.plus(Duration.ofMinutes(i)));
+        }
+
+        assertTrue(alerts.isEmpty());
+    }
+
+    @Test
+    void fanInAtTheAccountsUsualRateShouldNotAlert() {
+        for (int hour = 0; hour < 23; hour++) {
+            for (int i = 0; i < 4; i++) {
+                transfer("sender-" + hour + "-" + i, MULE_ACCOUNT, "1", START.plus(Duration.ofHours(hour)));
+            }
+        }
+        for (int i = 0; i < 6; i++) {
+            transfer("sender-23-" + i, MULE_ACCOUNT, "1", START.plus(Duration.ofHours(23)));
+        }
+
+        assertTrue(alerts.isEmpty());
+    }
+
+    @Test
+    void receivedAmountAboveLimitShouldAlert() {
+        transfer("sender-1", MULE_ACCOUNT, "600", START);
+        transfer("sender-2", MULE_ACCOUNT, "400", START.plus(Duration.ofMinutes(20)));
+        assertTrue(alerts.isEmpty());
+
+        transfer("sender-1", MULE_ACCOUNT, "1", START.plus(Duration.ofMinutes(40)));
+
+        List<FraudAlert> raised = alerts.readValuesToList();
+        assertEquals(1, raised.size());
+        assertEquals("Mule pattern: received amount limit exceeded", raised.get(0).reason());
+    }
+
+    @Test
+    void receivedAmountShouldOnlyCountTheWindow() {
+        transfer("sender-1", MULE_ACCOUNT, "600", START);
+        transfer("sender-2", MULE_ACCOUNT, "600", START.plus(Duration.ofMinutes(65)));
+
+        assertTrue(alerts.isEmpty());
+    }
+
+    @Test
+    void transfersWithoutDestinationAccountShouldBeIgnored() {
+        for (int i = 0; i < 8; i++) {
+            transfer("sender-" + i, null, "500", START.plus(Duration.ofMinutes(i)));
+        }
+
+        assertTrue(alerts.isEmpty());
+    }
+}
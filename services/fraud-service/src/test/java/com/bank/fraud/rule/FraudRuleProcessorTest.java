@@ -0,0 +1,244 @@
+package com.bank.fraud.rule;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Properties;
+import java.util.UUID;
+
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.TestInputTopic;
+import org.apache.kafka.streams.TestOutputTopic;
+import org.apache.kafka.streams.TopologyTestDriver;
+import org.apache.kafka.streams.state.WindowStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import com.bank.fraud.config.FraudTopologyConfig;
+import com.bank.fraud.model.FraudAlert;
+import com.bank.fraud.model.TransferEvent;
+import com.bank.fraud.mule.MuleDetectionProperties;
+import com.bank.fraud.serde.TransferEventSerde;
+import com.bank.fraud.takeover.DeviceTakeoverProperties;
+import com.bank.fraud.velocity.VelocityProperties;
+
+class FraudRuleProcessorTest {
+
+    private static final String TRANSFERS_TOPIC = "account.events.v1";
+    private static final String RULE_CONFIG_TOPIC = "fraud.rule-config.v1";
+    private static final String ALERTS_TOPIC = "fraud.alerts";
+    private static final Duration REFRESH_INTERVAL = Duration.ofSeconds(1);
+    private static final Instant NIGHT = Instant.parse("2026-03-02T02:00:00Z");
+
+    private final FraudRule rule = new NightTransferSumRule();
+    private final TransferEventSerde serde = new TransferEventSerde();
+
+    @TempDir
+    Path stateDir;
+
+    private TopologyTestDriver driver;
+    private TestInputTopic<String, byte[]> transfers;
+    private TestInputTopic<String, String> ruleConfig;
+    private TestOutputTopic<String, FraudAlert> alerts;
+
+    @AfterEach
+    void tearDown() {
+        driver.close();
+    }
+
+    private void start(AlertEmitMode emitMode) {
+        VelocityProperties velocity = new VelocityProperties();
+        velocity.setEnabled(false);
+        MuleDetectionProperties mule = new MuleDetectionProperties();
+        mule.setEnabled(false);
+        DeviceTakeoverProperties deviceTakeover = new DeviceTakeoverProperties();
+        deviceTakeover.setEnabled(false);
+
+        StreamsBuilder streamsBuilder = new StreamsBuilder();
+        new FraudTopologyConfig(
+            List.of(rule),
+            emitMode,
+            velocity,
+            mule,
+            deviceTakeover,
+            TRANSFERS_TOPIC,
+            "auth.device-events.v1",
+            RULE_CONFIG_TOPIC,
+            REFRESH_INTERVAL,
+            ALERTS_TOPIC
+        ).fraudDetectionTopology(streamsBuilder);
+        Properties config = new Properties();
+        config.put(StreamsConfig.APPLICATION_ID_CONFIG, "fraud-rule-test");
+        config.put(StreamsConfig.BOOTSTRAP_SERVERS_CONFIG, "test:9092");
+        config.put(StreamsConfig.STATE_DIR_CONFIG, stateDir.toString());
+        driver = new TopologyTestDriver(streamsBuilder.build(), config);
+        transfers = driver.createInputTopic(TRANSFERS_TOPIC, new StringSerializer(), new ByteArraySerializer());
+        ruleConfig = driver.createInputTopic(RULE_CONFIG_TOPIC, new StringSerializer(), new StringSerializer());
+        alerts = driver.createOutputTopic(
+            ALERTS_TOPIC, new StringDeserializer(), new JsonDeserializer<>(FraudAlert.class, false)
+        );
+    }
+
+    private void transfer(String key, String amount, Instant committedAt) {
+        TransferEvent event = new TransferEvent(
+            UUID.randomUUID().toString(),
+            "alice",
+            null,
+            null,
+            1L,
+            TransferEvent.toMinorUnits(new BigDecimal(amount)),
+            "KZT",
+            committedAt
+        );
+        transfers.pipeInput(key, serde.serializer().serialize(TRANSFERS_TOPIC, event), committedAt);
+    }
+
+    private void transfer(String amount, Instant committedAt) {
+        transfer("alice", amount, committedAt);
+    }
+
+    // Publishes rule parameters and lets the processor's refresh punctuation pick them up.
+    private void configure(String parameters) {
+        ruleConfig.pipeInput(rule.id(), parameters);
+        driver.advanceWallClockTime(REFRESH_INTERVAL);
+    }
+
+    @Test
+    void firstCrossingShouldAlertOncePerWindow() {
+        start(AlertEmitMode.FIRST_CROSSING);
+
+        transfer("30000", NIGHT);
+        transfer("30000", NIGHT.plus(Duration.ofMinutes(10)));
+        transfer("10000", NIGHT.plus(Duration.ofMinutes(20)));
+
+        List<FraudAlert> raised = alerts.readValuesToList();
+        assertEquals(1, raised.size());
+        assertEquals("alice", raised.get(0).userId());
+        assertEquals(rule.reason(), raised.get(0).reason());
+        assertEquals("HIGH", raised.get(0).severity());
+
+        transfer("60000", NIGHT.plus(Duration.ofHours(1)));
+        assertEquals(1, alerts.readValuesToList().size());
+    }
+
+    @Test
+    void alertShouldCarryAnEventIdOfTheTransferThatRaisedIt() {
+        start(AlertEmitMode.FIRST_CROSSING);
+
+        transfer("30000", NIGHT);
+        transfer("30000", NIGHT.plus(Duration.ofMinutes(10)));
+
+        Header eventId = alerts.readRecord().headers().lastHeader("eventId");
+        assertEquals(
+            TRANSFERS_TOPIC + "-0@1/" + rule.reason(),
+            new String(eventId.value(), StandardCharsets.UTF_8)
+        );
+    }
+
+    @Test
+    void everyUpdateShouldAlertOnEachTransferAboveTheLimit() {
+        start(AlertEmitMode.EVERY_UPDATE);
+
+        transfer("30000", NIGHT);
+        transfer("30000", NIGHT.plus(Duration.ofMinutes(10)));
+        transfer("10000", NIGHT.plus(Duration.ofMinutes(20)));
+
+        assertEquals(2, alerts.readValuesToList().size());
+    }
+
+    @Test
+    void windowTotalShouldBeKeptInExactMinorUnits() {
+        start(AlertEmitMode.FIRST_CROSSING);
+
+        transfer("0.0001", NIGHT.plus(Duration.ofMinutes(5)));
+        transfer("25000.5", NIGHT.plus(Duration.ofMinutes(50)));
+
+        WindowStore<String, Long> store = driver.getWindowStore(FraudRuleProcessor.storeName(rule));
+        assertEquals(250_005_001L, store.fetch("alice", NIGHT.toEpochMilli()));
+        assertTrue(alerts.isEmpty());
+    }
+
+    @Test
+    void totalAtTheLimitOrDuringTheDayShouldNotAlert() {
+        start(AlertEmitMode.FIRST_CROSSING);
+
+        transfer("50000", NIGHT);
+        transfer("60000", Instant.parse("2026-03-02T12:00:00Z"));
+
+        assertTrue(alerts.isEmpty());
+    }
+
+    @Test
+    void legacyKeyedAndUnreadableEventsShouldBeDropped() {
+        start(AlertEmitMode.FIRST_CROSSING);
+
+        transfer("transfer-1", "60000", NIGHT);
+        transfers.pipeInput("alice", "not json".getBytes(StandardCharsets.UTF_8), NIGHT);
+        transfers.pipeInput("alice", """
+            {"userId": "alice", "amount": 1e30, "committedAt": "2026-03-02T02:00:00Z"}
+            """.getBytes(StandardCharsets.UTF_8), NIGHT);
+
+        assertTrue(alerts.isEmpty());
+        WindowStore<String, Long> store = driver.getWindowStore(FraudRuleProcessor.storeName(rule));
+        assertNull(store.fetch("alice", NIGHT.toEpochMilli()));
+    }
+
+    @Test
+    void retunedThresholdShouldApplyWithoutRestart() {
+        start(AlertEmitMode.FIRST_CROSSING);
+
+        configure("{\"version\": 1, \"threshold\": 10000}");
+        transfer("15000", NIGHT);
+
+        assertEquals(1, alerts.readValuesToList().size());
+    }
+
+    @Test
+    void olderConfigVersionShouldBeIgnored() {
+        start(AlertEmitMode.FIRST_CROSSING);
+
+        configure("{\"version\": 2, \"threshold\": 10000}");
+        configure("{\"version\": 1, \"threshold\": 100000}");
+        transfer("15000", NIGHT);
+
+        assertEquals(1, alerts.readValuesToList().size());
+    }
+
+    @Test
+    void disabledRuleShouldNeitherAggregateNorAlertUntilReEnabled() {
+        start(AlertEmitMode.FIRST_CROSSING);
+
+        configure("{\"version\": 1, \"enabled\": false}");
+        transfer("60000", NIGHT);
+        assertTrue(alerts.isEmpty());
+
+        configure("{\"version\": 2, \"enabled\": true}");
+        transfer("1", NIGHT.plus(Duration.ofMinutes(1)));
+        assertTrue(alerts.isEmpty());
+        transfer("60000", NIGHT.plus(Duration.ofMinutes(2)));
+        assertEquals(1, alerts.readValuesToList().size());
+    }
+
+    @Test
+    void unreadableConfigShouldKeepTheCurrentSettings() {
+        start(AlertEmitMode.FIRST_CROSSING);
+
+        configure("{\"version\": 1, \"threshold\": 10000}");
+        configure("{\"threshold\": 100000}");
+        transfer("15000", NIGHT);
+
+        assertEquals(1, alerts.readValuesToList().size());
+    }
+}
@@ -0,0 +1,48 @@
+package com.bank.fraud.rule;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+class RuleParametersTest {
+
+    private static RuleParameters read(String json) {
+        return RuleParameters.read(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void shouldReadAllFields() {
+        RuleParameters parameters = read("{\"version\": 7, \"enabled\": false, \"threshold\": 30000.5}");
+
+        assertEquals(7, parameters.version());
+        assertFalse(parameters.enabled());
+        assertEquals(new BigDecimal("30000.5"), parameters.threshold());
+    }
+
+    @Test
+    void shouldDefaultToEnabledWithoutThreshold() {
+        RuleParameters parameters = read("{\"version\": 1, \"comment\": {\"by\": \"ops\"}}");
+
+        assertTrue(parameters.enabled());
+        assertNull(parameters.threshold());
+    }
+
+    @Test
+    void shouldAcceptThresholdAsString() {
+        assertEquals(new BigDecimal("12.25"), read("{\"version\": 1, \"threshold\": \"12.25\"}").threshold());
+    }
+
+    @Test
+    void shouldRejectUnusableRecords() {
+        assertNull(RuleParameters.read(null));
+        assertNull(RuleParameters.read(new byte[0]));
+        assertNull(read("[1, 2]"));
+        assertNull(read("{\"enabled\": true}"));
+        assertNull(read("{\"version\": 1, \"threshold\": -5}"));
+        assertNull(read("{\"version\": 1, \"threshold\": \"lots\"}"));
+        assertNull(read("{\"version\": 1, \"threshold\": "));
+    }
+}
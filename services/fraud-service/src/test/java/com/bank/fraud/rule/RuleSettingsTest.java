@@ -0,0 +1,110 @@
+package com.bank.fraud.rule;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.bank.fraud.model.TransferEvent;
+
+class RuleSettingsTest {
+
+    private final FraudRule amountRule = new NightTransferSumRule();
+    private final FraudRule countRule = new CountRule();
+    private final List<FraudRule> rules = List.of(amountRule, countRule);
+    private final Map<String, byte[]> config = new HashMap<>();
+
+    private void configure(FraudRule rule, String json) {
+        config.put(rule.id(), json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void defaultsShouldUseCompiledThresholds() {
+        RuleSettings settings = RuleSettings.defaults(rules);
+
+        assertTrue(settings.isEnabled(0));
+        assertEquals(amountRule.threshold(), settings.threshold(0));
+        assertEquals(-1, settings.version(0));
+    }
+
+    @Test
+    void refreshShouldApplyNewerVersionsOnly() {
+        RuleSettings settings = RuleSettings.defaults(rules);
+        configure(amountRule, "{\"version\": 2, \"threshold\": 1000}");
+        configure(countRule, "{\"version\": 1, \"enabled\": false}");
+
+        RuleSettings refreshed = settings.refresh(rules, config::get);
+
+        assertEquals(TransferEvent.toMinorUnits(new BigDecimal("1000")), refreshed.threshold(0));
+        assertFalse(refreshed.isEnabled(1));
+        assertEquals(5, refreshed.threshold(1));
+
+        configure(amountRule, "{\"version\": 1, \"threshold\": 5}");
+        assertSame(refreshed, refreshed.refresh(rules, config::get));
+    }
+
+    @Test
+    void amountThresholdShouldBeRoundedToMinorUnits() {
+        configure(amountRule, "{\"version\": 1, \"threshold\": 0.000051}");
+
+        RuleSettings refreshed = RuleSettings.defaults(rules).refresh(rules, config::get);
+
+        assertEquals(1, refreshed.threshold(0));
+    }
+
+    @Test
+    void unusableThresholdShouldKeepPreviousSettings() {
+        configure(amountRule, "{\"version\": 1, \"threshold\": 700}");
+        RuleSettings settings = RuleSettings.defaults(rules).refresh(rules, config::get);
+
+        configure(amountRule, "{\"version\": 2, \"enabled\": false, \"threshold\": 1e30}");
+        configure(countRule, "{\"version\": 1, \"threshold\": 2.5}");
+        RuleSettings refreshed = settings.refresh(rules, config::get);
+
+        assertEquals(settings.threshold(0), refreshed.threshold(0));
+        assertTrue(refreshed.isEnabled(0));
+        assertEquals(5, refreshed.threshold(1));
+        // Consumed, so the same bad record is not reported again on the next refresh.
+        assertEquals(2, refreshed.version(0));
+        assertSame(refreshed, refreshed.refresh(rules, config::get));
+    }
+
+    private static final class CountRule implements FraudRule {
+
+        @Override
+        public String id() {
+            return "test-count";
+        }
+
+        @Override
+        public Duration windowSize() {
+            return Duration.ofMinutes(10);
+        }
+
+        @Override
+        public boolean appliesTo(TransferEvent event) {
+            return true;
+        }
+
+        @Override
+        public long contribution(TransferEvent event) {
+            return 1;
+        }
+
+        @Override
+        public long threshold() {
+            return 5;
+        }
+
+        @Override
+        public String reason() {
+            return "Too many transfers";
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.bank.fraud.serde;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+
+import com.bank.fraud.model.DeviceBoundEvent;
+
+class DeviceBoundEventSerdeTest {
+
+    private static final Instant BOUND_AT = Instant.parse("2026-03-02T10:00:00Z");
+
+    private static DeviceBoundEvent read(String json) {
+        return DeviceBoundEventSerde.read(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void bindingShouldRoundTrip() {
+        DeviceBoundEvent binding = new DeviceBoundEvent("alice", "device-2", BOUND_AT);
+
+        assertEquals(binding, DeviceBoundEventSerde.read(DeviceBoundEventSerde.write(binding)));
+    }
+
+    @Test
+    void publishedBindingShouldBeRead() {
+        DeviceBoundEvent binding = read("""
+            {"eventType": "DEVICE_BOUND", "userId": "alice", "deviceId": "device-2", "firstDevice": false,
+             "occurredAt": "2026-03-02T10:00:00Z", "platform": {"os": "android"}}
+            """);
+
+        assertEquals(new DeviceBoundEvent("alice", "device-2", BOUND_AT), binding);
+    }
+
+    @Test
+    void epochMillisOccurredAtShouldBeRead() {
+        DeviceBoundEvent binding = read(
+            "{\"eventType\": \"DEVICE_BOUND\", \"userId\": \"alice\", \"occurredAt\": " + BOUND_AT.toEpochMilli() + "}"
+        );
+
+        assertEquals(BOUND_AT, binding.boundAt());
+    }
+
+    @Test
+    void signUpBindingShouldBeDropped() {
+        assertNull(read("""
+            {"eventType": "DEVICE_BOUND", "userId": "alice", "firstDevice": true, "occurredAt": "2026-03-02T10:00:00Z"}
+            """));
+    }
+
+    @Test
+    void otherEventTypesShouldBeDropped() {
+        assertNull(read("""
+            {"eventType": "DEVICE_REVOKED", "userId": "alice", "occurredAt": "2026-03-02T10:00:00Z"}
+            """));
+    }
+
+    @Test
+    void incompleteOrUnreadablePayloadsShouldBeDropped() {
+        assertNull(read("{\"eventType\": \"DEVICE_BOUND\", \"userId\": \"alice\"}"));
+        assertNull(read("{\"eventType\": \"DEVICE_BOUND\", \"occurredAt\": \"2026-03-02T10:00:00Z\"}"));
+        assertNull(read("{\"eventType\": \"DEVICE_BOUND\", \"userId\": \"alice\", \"occurredAt\": \"yesterday\"}"));
+        assertNull(read("not json"));
+        assertNull(DeviceBoundEventSerde.read(null));
+    }
+}
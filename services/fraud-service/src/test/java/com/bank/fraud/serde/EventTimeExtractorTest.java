@@ -0,0 +1,48 @@
+package com.bank.fraud.serde;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.junit.jupiter.api.Test;
+
+import com.bank.fraud.model.DeviceBoundEvent;
+import com.bank.fraud.model.TransferEvent;
+
+class EventTimeExtractorTest {
+
+    private static final Instant BUSINESS_TIME = Instant.parse("2026-03-02T10:00:00Z");
+    private static final long PUBLISHED_AT = BUSINESS_TIME.plusSeconds(90).toEpochMilli();
+
+    private final EventTimeExtractor extractor = new EventTimeExtractor();
+
+    private long extract(Object value) {
+        ConsumerRecord<Object, Object> record = new ConsumerRecord<>(
+            "topic", 0, 0L, PUBLISHED_AT, TimestampType.CREATE_TIME, 0, 0, "alice", value,
+            new RecordHeaders(), Optional.empty()
+        );
+        return extractor.extract(record, -1L);
+    }
+
+    @Test
+    void transferShouldBeTimedByCommitTime() {
+        TransferEvent transfer = new TransferEvent("t-1", "alice", null, 1L, 2L, 10_000, "KZT", BUSINESS_TIME);
+
+        assertEquals(BUSINESS_TIME.toEpochMilli(), extract(transfer));
+    }
+
+    @Test
+    void bindingShouldBeTimedByBindTime() {
+        assertEquals(BUSINESS_TIME.toEpochMilli(), extract(new DeviceBoundEvent("alice", "device-2", BUSINESS_TIME)));
+    }
+
+    @Test
+    void droppedValuesShouldKeepTheRecordTimestamp() {
+        assertEquals(PUBLISHED_AT, extract(null));
+        assertEquals(PUBLISHED_AT, extract("unrelated"));
+    }
+}
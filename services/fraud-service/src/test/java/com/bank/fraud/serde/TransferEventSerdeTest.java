@@ -0,0 +1,81 @@
+package com.bank.fraud.serde;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.Test;
+
+import com.bank.fraud.model.TransferEvent;
+
+class TransferEventSerdeTest {
+
+    private static final Instant COMMITTED_AT = Instant.parse("2026-03-02T02:00:00Z");
+
+    private final TransferEventSerde serde = new TransferEventSerde();
+
+    private static TransferEvent read(String json) {
+        return TransferEventSerde.read(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void transferShouldRoundTrip() {
+        TransferEvent transfer = new TransferEvent("t-1", "alice", "bob", 1L, 2L, 1_234_567, "KZT", COMMITTED_AT);
+
+        byte[] payload = serde.serializer().serialize("topic", transfer);
+
+        assertEquals(transfer, serde.deserializer().deserialize("topic", payload));
+    }
+
+    @Test
+    void accountServicePayloadShouldBeRead() {
+        TransferEvent transfer = read("""
+            {"transferId": "t-1", "userId": "alice", "recipientUserId": null, "fromAccountId": 1,
+             "toAccountId": "2", "amount": "150.50", "currency": "KZT", "committedAt": "2026-03-02T02:00:00Z",
+             "metadata": {"channel": "mobile", "tags": ["p2p"]}}
+            """);
+
+        assertEquals(new TransferEvent("t-1", "alice", null, 1L, 2L, 1_505_000, "KZT", COMMITTED_AT), transfer);
+    }
+
+    @Test
+    void finerAmountsShouldBeRoundedHalfUp() {
+        TransferEvent transfer = read(
+            "{\"userId\": \"alice\", \"amount\": 10.00005, \"committedAt\": " + COMMITTED_AT.toEpochMilli() + "}"
+        );
+
+        assertEquals(100_001, transfer.amountMinor());
+        assertEquals(COMMITTED_AT, transfer.committedAt());
+    }
+
+    @Test
+    void unusableTransfersShouldBeDropped() {
+        assertNull(read("{\"userId\": \"alice\", \"amount\": 1e30, \"committedAt\": \"2026-03-02T02:00:00Z\"}"));
+        assertNull(read("{\"userId\": \"alice\", \"amount\": 0, \"committedAt\": \"2026-03-02T02:00:00Z\"}"));
+        assertNull(read("{\"userId\": \"alice\", \"amount\": -5, \"committedAt\": \"2026-03-02T02:00:00Z\"}"));
+        assertNull(read("{\"userId\": \" \", \"amount\": 5, \"committedAt\": \"2026-03-02T02:00:00Z\"}"));
+        assertNull(read("{\"userId\": \"alice\", \"amount\": 5}"));
+        assertNull(read("{\"userId\": \"alice\", \"amount\": \"five\", \"committedAt\": \"2026-03-02T02:00:00Z\"}"));
+        assertNull(read("[1, 2]"));
+        assertNull(read("not json"));
+        assertNull(TransferEventSerde.read(new byte[0]));
+    }
+
+    @Test
+    void otherEventTypesShouldBeDroppedByHeader() {
+        byte[] payload = serde.serializer().serialize(
+            "topic", new TransferEvent("t-1", "alice", null, 1L, 2L, 10_000, "KZT", COMMITTED_AT)
+        );
+        RecordHeaders opened = new RecordHeaders();
+        opened.add(TransferEventSerde.EVENT_TYPE_HEADER, "AccountOpenedEvent".getBytes(StandardCharsets.UTF_8));
+        RecordHeaders completed = new RecordHeaders();
+        completed.add(
+            TransferEventSerde.EVENT_TYPE_HEADER, TransferEventSerde.EVENT_TYPE.getBytes(StandardCharsets.UTF_8)
+        );
+
+        assertNull(serde.deserializer().deserialize("topic", opened, payload));
+        assertNotNull(serde.deserializer().deserialize("topic", completed, payload));
+    }
+}
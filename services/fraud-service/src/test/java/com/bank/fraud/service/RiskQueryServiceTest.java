@@ -0,0 +1,192 @@
+package com.bank.fraud.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Properties;
+import java.util.UUID;
+
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.TestInputTopic;
+import org.apache.kafka.streams.TopologyTestDriver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.kafka.streams.KafkaStreamsInteractiveQueryService;
+import org.springframework.web.client.RestTemplate;
+
+import com.bank.fraud.api.UserRiskResponse;
+import com.bank.fraud.config.FraudTopologyConfig;
+import com.bank.fraud.model.TransferEvent;
+import com.bank.fraud.mule.MuleDetectionProperties;
+import com.bank.fraud.rule.AlertEmitMode;
+import com.bank.fraud.rule.FraudRule;
+import com.bank.fraud.rule.FraudRuleProcessor;
+import com.bank.fraud.rule.RuleSettings;
+import com.bank.fraud.serde.TransferEventSerde;
+import com.bank.fraud.takeover.DeviceTakeoverProperties;
+import com.bank.fraud.velocity.VelocityProperties;
+
+class RiskQueryServiceTest {
+
+    private static final String TRANSFERS_TOPIC = "account.events.v1";
+
+    private final FraudRule rule = new CountRule();
+    private final List<FraudRule> rules = List.of(rule);
+    private final Instant now = Instant.now();
+
+    @TempDir
+    Path stateDir;
+
+    private TopologyTestDriver driver;
+    private TestInputTopic<String, TransferEvent> transfers;
+    private RuleSettingsService ruleSettingsService;
+    private RiskQueryService service;
+
+    @BeforeEach
+    void setUp() {
+        VelocityProperties velocity = new VelocityProperties();
+        velocity.setEnabled(false);
+        MuleDetectionProperties mule = new MuleDetectionProperties();
+        mule.setEnabled(false);
+        DeviceTakeoverProperties deviceTakeover = new DeviceTakeoverProperties();
+        deviceTakeover.setEnabled(false);
+
+        StreamsBuilder streamsBuilder = new StreamsBuilder();
+        new FraudTopologyConfig(
+            rules,
+            AlertEmitMode.FIRST_CROSSING,
+            velocity,
+            mule,
+            deviceTakeover,
+            TRANSFERS_TOPIC,
+            "auth.device-events.v1",
+            "fraud.rule-config.v1",
+            Duration.ofSeconds(1),
+            "fraud.alerts"
+        ).fraudDetectionTopology(streamsBuilder);
+        Properties config = new Properties();
+        config.put(StreamsConfig.APPLICATION_ID_CONFIG, "risk-query-test");
+        config.put(StreamsConfig.BOOTSTRAP_SERVERS_CONFIG, "test:9092");
+        config.put(StreamsConfig.STATE_DIR_CONFIG, stateDir.toString());
+        driver = new TopologyTestDriver(streamsBuilder.build(), config);
+        transfers = driver.createInputTopic(
+            TRANSFERS_TOPIC, new StringSerializer(), new TransferEventSerde().serializer()
+        );
+
+        KafkaStreamsInteractiveQueryService queryService = mock(KafkaStreamsInteractiveQueryService.class);
+        doReturn(driver.getWindowStore(FraudRuleProcessor.storeName(rule)))
+            .when(queryService).retrieveQueryableStore(eq(FraudRuleProcessor.storeName(rule)), any());
+        ruleSettingsService = mock(RuleSettingsService.class);
+        when(ruleSettingsService.current()).thenReturn(RuleSettings.defaults(rules));
+        service = new RiskQueryService(queryService, rules, ruleSettingsService, mock(RestTemplate.class), "key");
+    }
+
+    @AfterEach
+    void tearDown() {
+        driver.close();
+    }
+
+    private void transfer(String userId) {
+        TransferEvent event = new TransferEvent(
+            UUID.randomUUID().toString(), userId, null, 1L, 2L, TransferEvent.toMinorUnits(BigDecimal.TEN), "KZT", now
+        );
+        transfers.pipeInput(userId, event, now);
+    }
+
+    @Test
+    void userWithoutTransfersShouldBeNormal() {
+        UserRiskResponse risk = service.findLocalUserRisk("alice");
+
+        assertEquals("NORMAL", risk.riskStatus());
+        assertTrue(risk.windows().isEmpty());
+    }
+
+    @Test
+    void windowTotalShouldComeFromTheRuleStore() {
+        transfer("alice");
+        transfer("alice");
+        transfer("bob");
+
+        UserRiskResponse risk = service.findLocalUserRisk("alice");
+
+        assertEquals("NORMAL", risk.riskStatus());
+        assertEquals(1, risk.windows().size());
+        UserRiskResponse.RuleWindow window = risk.windows().get(0);
+        assertEquals(rule.id(), window.ruleId());
+        assertEquals(BigDecimal.valueOf(2), window.total());
+        assertFalse(window.violated());
+        long windowMs = rule.windowSize().toMillis();
+        assertEquals(Instant.ofEpochMilli(now.toEpochMilli() / windowMs * windowMs), window.windowStart());
+        assertEquals(window.windowStart().plus(rule.windowSize()), window.windowEnd());
+    }
+
+    @Test
+    void windowAboveThresholdShouldReportHighRisk() {
+        for (int i = 0; i < 3; i++) {
+            transfer("alice");
+        }
+
+        UserRiskResponse risk = service.findLocalUserRisk("alice");
+
+        assertEquals("HIGH", risk.riskStatus());
+        assertTrue(risk.windows().get(0).violated());
+    }
+
+    @Test
+    void disabledRuleShouldNotMarkWindowsViolated() {
+        byte[] disabled = "{\"version\": 1, \"enabled\": false}".getBytes(StandardCharsets.UTF_8);
+        when(ruleSettingsService.current()).thenReturn(RuleSettings.defaults(rules).refresh(rules, id -> disabled));
+        for (int i = 0; i < 3; i++) {
+            transfer("alice");
+        }
+
+        UserRiskResponse risk = service.findLocalUserRisk("alice");
+
+        assertEquals("NORMAL", risk.riskStatus());
+        assertEquals(BigDecimal.valueOf(3), risk.windows().get(0).total());
+    }
+
+    private static final class CountRule implements FraudRule {
+
+        @Override
+        public String id() {
+            return "test-count";
+        }
+
+        @Override
+        public Duration windowSize() {
+            return Duration.ofHours(1);
+        }
+
+        @Override
+        public boolean appliesTo(TransferEvent event) {
+            return true;
+        }
+
+        @Override
+        public long contribution(TransferEvent event) {
+            return 1;
+        }
+
+        @Override
+        public long threshold() {
+            return 2;
+        }
+
+        @Override
+        public String reason() {
+            return "Too many transfers";
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.bank.fraud.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Properties;
+import java.util.UUID;
+
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.TestInputTopic;
+import org.apache.kafka.streams.TopologyTestDriver;
+import org.apache.kafka.streams.kstream.KStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.kafka.streams.KafkaStreamsInteractiveQueryService;
+import org.springframework.web.client.RestTemplate;
+
+import com.bank.fraud.analytics.SpendingProcessor;
+import com.bank.fraud.api.SpendingSummaryResponse;
+import com.bank.fraud.api.SpendingSummaryResponse.CurrencyTotals;
+import com.bank.fraud.config.FraudTopologyConfig;
+import com.bank.fraud.config.SpendingAnalyticsTopologyConfig;
+import com.bank.fraud.model.TransferEvent;
+import com.bank.fraud.mule.MuleDetectionProperties;
+import com.bank.fraud.rule.AlertEmitMode;
+import com.bank.fraud.serde.TransferEventSerde;
+import com.bank.fraud.takeover.DeviceTakeoverProperties;
+import com.bank.fraud.velocity.VelocityProperties;
+
+class SpendingQueryServiceTest {
+
+    private static final String TRANSFERS_TOPIC = "account.events.v1";
+    private static final YearMonth MARCH = YearMonth.of(2026, 3);
+    private static final Instant IN_MARCH = Instant.parse("2026-03-15T12:00:00Z");
+
+    @TempDir
+    Path stateDir;
+
+    private TopologyTestDriver driver;
+    private TestInputTopic<String, TransferEvent> transfers;
+    private SpendingQueryService service;
+
+    @BeforeEach
+    void setUp() {
+        VelocityProperties velocity = new VelocityProperties();
+        velocity.setEnabled(false);
+        MuleDetectionProperties mule = new MuleDetectionProperties();
+        mule.setEnabled(false);
+        DeviceTakeoverProperties deviceTakeover = new DeviceTakeoverProperties();
+        deviceTakeover.setEnabled(false);
+
+        StreamsBuilder streamsBuilder = new StreamsBuilder();
+        KStream<String, TransferEvent> source = new FraudTopologyConfig(
+            List.of(),
+            AlertEmitMode.FIRST_CROSSING,
+            velocity,
+            mule,
+            deviceTakeover,
+            TRANSFERS_TOPIC,
+            "auth.device-events.v1",
+            "fraud.rule-config.v1",
+            Duration.ofSeconds(1),
+            "fraud.alerts"
+        ).fraudDetectionTopology(streamsBuilder);
+        new SpendingAnalyticsTopologyConfig().spendingAnalyticsTopology(streamsBuilder, source, 13);
+        Properties config = new Properties();
+        config.put(StreamsConfig.APPLICATION_ID_CONFIG, "spending-test");
+        config.put(StreamsConfig.BOOTSTRAP_SERVERS_CONFIG, "test:9092");
+        config.put(StreamsConfig.STATE_DIR_CONFIG, stateDir.toString());
+        driver = new TopologyTestDriver(streamsBuilder.build(), config);
+        transfers = driver.createInputTopic(
+            TRANSFERS_TOPIC, new StringSerializer(), new TransferEventSerde().serializer()
+        );
+
+        KafkaStreamsInteractiveQueryService queryService = mock(KafkaStreamsInteractiveQueryService.class);
+        doReturn(driver.getKeyValueStore(SpendingProcessor.STORE))
+            .when(queryService).retrieveQueryableStore(eq(SpendingProcessor.STORE), any());
+        service = new SpendingQueryService(queryService, mock(RestTemplate.class), "key");
+    }
+
+    @AfterEach
+    void tearDown() {
+        driver.close();
+    }
+
+    private void transfer(String userId, String recipientUserId, String amount, String currency, Instant at) {
+        TransferEvent event = new TransferEvent(
+            UUID.randomUUID().toString(),
+            userId,
+            recipientUserId,
+            1L,
+            2L,
+            TransferEvent.toMinorUnits(new BigDecimal(amount)),
+            currency,
+            at
+        );
+        transfers.pipeInput(userId, event, at);
+    }
+
+    @Test
+    void monthShouldSumOutgoingAndIncomingPerCurrency() {
+        transfer("alice", "bob", "100", "KZT", IN_MARCH);
+        transfer("alice", "bob", "50.25", "KZT", IN_MARCH.plus(Duration.ofDays(1)));
+        transfer("bob", "alice", "30", "KZT", IN_MARCH);
+        transfer("alice", "carol", "10", "USD", IN_MARCH);
+
+        SpendingSummaryResponse alice = service.findLocalMonthlySpending("alice", MARCH);
+
+        assertEquals("2026-03", alice.month());
+        assertEquals(List.of(
+            new CurrencyTotals("KZT", new BigDecimal("150.2500"), 2, new BigDecimal("30.0000"), 1),
+            new CurrencyTotals("USD", new BigDecimal("10.0000"), 1, new BigDecimal("0.0000"), 0)
+        ), alice.totals());
+        assertEquals(List.of(
+            new CurrencyTotals("KZT", new BigDecimal("30.0000"), 1, new BigDecimal("150.2500"), 2)
+        ), service.findLocalMonthlySpending("bob", MARCH).totals());
+    }
+
+    @Test
+    void transfersBetweenOwnAccountsShouldBeSkipped() {
+        transfer("alice", "alice", "100", "KZT", IN_MARCH);
+
+        assertTrue(service.findLocalMonthlySpending("alice", MARCH).totals().isEmpty());
+    }
+
+    @Test
+    void transferWithoutKnownRecipientShouldOnlyCountAsOutgoing() {
+        transfer("alice", null, "100", "KZT", IN_MARCH);
+
+        assertEquals(List.of(
+            new CurrencyTotals("KZT", new BigDecimal("100.0000"), 1, new BigDecimal("0.0000"), 0)
+        ), service.findLocalMonthlySpending("alice", MARCH).totals());
+    }
+
+    @Test
+    void monthsShouldBeKeptApart() {
+        transfer("alice", "bob", "100", "KZT", Instant.parse("2026-02-28T23:59:59Z"));
+        transfer("alice", "bob", "40", "KZT", Instant.parse("2026-03-01T00:00:00Z"));
+
+        List<CurrencyTotals> march = service.findLocalMonthlySpending("alice", MARCH).totals();
+
+        assertEquals(1, march.size());
+        assertEquals(new BigDecimal("40.0000"), march.get(0).outgoingTotal());
+    }
+
+    @Test
+    void monthsPastRetentionShouldBePurgedDaily() {
+        YearMonth current = YearMonth.now(ZoneOffset.UTC);
+        YearMonth expired = current.minusMonths(14);
+        transfer("alice", "bob", "100", "KZT", expired.atDay(10).atStartOfDay(ZoneOffset.UTC).toInstant());
+        transfer("alice", "bob", "100", "KZT", current.atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant());
+
+        driver.advanceWallClockTime(Duration.ofDays(1));
+
+        assertTrue(service.findLocalMonthlySpending("alice", expired).totals().isEmpty());
+        assertEquals(1, service.findLocalMonthlySpending("alice", current).totals().size());
+    }
+}
@@ -0,0 +1,181 @@
+package com.bank.fraud.takeover;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Properties;
+import java.util.UUID;
+
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.TestInputTopic;
+import org.apache.kafka.streams.TestOutputTopic;
+import org.apache.kafka.streams.TopologyTestDriver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import com.bank.fraud.config.FraudTopologyConfig;
+import com.bank.fraud.model.FraudAlert;
+import com.bank.fraud.model.TransferEvent;
+import com.bank.fraud.mule.MuleDetectionProperties;
+import com.bank.fraud.rule.AlertEmitMode;
+import com.bank.fraud.serde.TransferEventSerde;
+import com.bank.fraud.velocity.VelocityProperties;
+
+class DeviceTakeoverJoinerTest {
+
+    private static final String TRANSFERS_TOPIC = "account.events.v1";
+    private static final String DEVICE_EVENTS_TOPIC = "auth.device-events.v1";
+    private static final String ALERTS_TOPIC = "fraud.alerts";
+    private static final Instant BOUND_AT = Instant.parse("2026-03-02T10:00:00Z");
+
+    @TempDir
+    Path stateDir;
+
+    private TopologyTestDriver driver;
+    private TestInputTopic<String, TransferEvent> transfers;
+    private TestInputTopic<String, String> deviceEvents;
+    private TestOutputTopic<String, FraudAlert> alerts;
+
+    @BeforeEach
+    void setUp() {
+        VelocityProperties velocity = new VelocityProperties();
+        velocity.setEnabled(false);
+        MuleDetectionProperties mule = new MuleDetectionProperties();
+        mule.setEnabled(false);
+
+        StreamsBuilder streamsBuilder = new StreamsBuilder();
+        new FraudTopologyConfig(
+            List.of(),
+            AlertEmitMode.FIRST_CROSSING,
+            velocity,
+            mule,
+            new DeviceTakeoverProperties(),
+            TRANSFERS_TOPIC,
+            DEVICE_EVENTS_TOPIC,
+            "fraud.rule-config.v1",
+            Duration.ofSeconds(1),
+            ALERTS_TOPIC
+        ).fraudDetectionTopology(streamsBuilder);
+        Properties config = new Properties();
+        config.put(StreamsConfig.APPLICATION_ID_CONFIG, "device-takeover-test");
+        config.put(StreamsConfig.BOOTSTRAP_SERVERS_CONFIG, "test:9092");
+        config.put(StreamsConfig.STATE_DIR_CONFIG, stateDir.toString());
+        driver = new TopologyTestDriver(streamsBuilder.build(), config);
+        transfers = driver.createInputTopic(
+            TRANSFERS_TOPIC, new StringSerializer(), new TransferEventSerde().serializer()
+        );
+        deviceEvents = driver.createInputTopic(DEVICE_EVENTS_TOPIC, new StringSerializer(), new StringSerializer());
+        alerts = driver.createOutputTopic(
+            ALERTS_TOPIC, new StringDeserializer(), new JsonDeserializer<>(FraudAlert.class, false)
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        driver.close();
+    }
+
+    private void bind(String userId, Instant boundAt, Instant publishedAt, boolean firstDevice) {
+        deviceEvents.pipeInput(userId, """
+            {"eventType": "DEVICE_BOUND", "userId": "%s", "deviceId": "device-2", "firstDevice": %s,
+             "occurredAt": "%s"}
+            """.formatted(userId, firstDevice, boundAt), publishedAt);
+    }
+
+    private void transfer(String userId, String amount, Instant committedAt) {
+        TransferEvent event = new TransferEvent(
+            UUID.randomUUID().toString(),
+            userId,
+            null,
+            null,
+            1L,
+            TransferEvent.toMinorUnits(new BigDecimal(amount)),
+            "KZT",
+            committedAt
+        );
+        transfers.pipeInput(userId, event, committedAt);
+    }
+
+    @Test
+    void largeTransferRightAfterNewDeviceShouldAlertWithHighScore() {
+        bind("alice", BOUND_AT, BOUND_AT, false);
+        transfer("alice", "20000", BOUND_AT.plus(Duration.ofMinutes(1)));
+
+        List<FraudAlert> raised = alerts.readValuesToList();
+        assertEquals(1, raised.size());
+        FraudAlert alert = raised.get(0);
+        assertEquals("alice", alert.userId());
+        assertEquals(DeviceTakeoverJoiner.REASON, alert.reason());
+        assertEquals(99, alert.riskScore());
+        assertEquals("HIGH", alert.severity());
+    }
+
+    @Test
+    void transferAtTheFloorLateInTheWindowShouldScoreMedium() {
+        bind("alice", BOUND_AT, BOUND_AT, false);
+        transfer("alice", "5000", BOUND_AT.plus(Duration.ofMinutes(15)));
+
+        List<FraudAlert> raised = alerts.readValuesToList();
+        assertEquals(1, raised.size());
+        assertEquals(55, raised.get(0).riskScore());
+        assertEquals("MEDIUM", raised.get(0).severity());
+    }
+
+    @Test
+    void transferBelowTheFloorShouldNotAlert() {
+        bind("alice", BOUND_AT, BOUND_AT, false);
+        transfer("alice", "4999.9999", BOUND_AT.plus(Duration.ofMinutes(1)));
+
+        assertTrue(alerts.isEmpty());
+    }
+
+    @Test
+    void transferBeforeTheBindingShouldNotAlert() {
+        transfer("alice", "20000", BOUND_AT.minus(Duration.ofMinutes(1)));
+        bind("alice", BOUND_AT, BOUND_AT, false);
+
+        assertTrue(alerts.isEmpty());
+    }
+
+    @Test
+    void transferAfterTheWindowShouldNotAlert() {
+        bind("alice", BOUND_AT, BOUND_AT, false);
+        transfer("alice", "20000", BOUND_AT.plus(Duration.ofMinutes(31)));
+
+        assertTrue(alerts.isEmpty());
+    }
+
+    @Test
+    void anotherUsersBindingShouldNotAlert() {
+        bind("bob", BOUND_AT, BOUND_AT, false);
+        transfer("alice", "20000", BOUND_AT.plus(Duration.ofMinutes(1)));
+
+        assertTrue(alerts.isEmpty());
+    }
+
+    @Test
+    void signUpDeviceShouldNotAlert() {
+        bind("alice", BOUND_AT, BOUND_AT, true);
+        transfer("alice", "20000", BOUND_AT.plus(Duration.ofMinutes(1)));
+
+        assertTrue(alerts.isEmpty());
+    }
+
+    @Test
+    void bindingPublishedLateShouldJoinByBoundAt() {
+        transfer("alice", "20000", BOUND_AT.plus(Duration.ofMinutes(5)));
+        bind("alice", BOUND_AT, BOUND_AT.plus(Duration.ofHours(2)), false);
+
+        assertEquals(1, alerts.readValuesToList().size());
+    }
+}
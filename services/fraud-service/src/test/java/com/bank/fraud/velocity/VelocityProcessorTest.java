@@ -0,0 +1,178 @@
+package com.bank.fraud.velocity;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Properties;
+import java.util.UUID;
+
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.TestInputTopic;
+import org.apache.kafka.streams.TestOutputTopic;
+import org.apache.kafka.streams.TopologyTestDriver;
+import org.apache.kafka.streams.state.KeyValueStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import com.bank.fraud.config.FraudTopologyConfig;
+import com.bank.fraud.model.FraudAlert;
+import com.bank.fraud.model.TransferEvent;
+import com.bank.fraud.mule.MuleDetectionProperties;
+import com.bank.fraud.rule.AlertEmitMode;
+import com.bank.fraud.serde.TransferEventSerde;
+import com.bank.fraud.takeover.DeviceTakeoverProperties;
+
+class VelocityProcessorTest {
+
+    private static final String TRANSFERS_TOPIC = "account.events.v1";
+    private static final String ALERTS_TOPIC = "fraud.alerts";
+    private static final Instant START = Instant.parse("2026-03-02T10:00:00Z");
+
+    @TempDir
+    Path stateDir;
+
+    private TopologyTestDriver driver;
+    private TestInputTopic<String, TransferEvent> transfers;
+    private TestOutputTopic<String, FraudAlert> alerts;
+
+    @BeforeEach
+    void setUp() {
+        VelocityProperties.Limits limits = new VelocityProperties.Limits();
+        limits.setCount(4);
+        limits.setAmount(new BigDecimal("1000"));
+        limits.setDistinctDestinations(2);
+        VelocityProperties properties = new VelocityProperties();
+        properties.getLimits().put(VelocityWindow.FIVE_MINUTES, limits);
+        MuleDetectionProperties mule = new MuleDetectionProperties();
+        mule.setEnabled(false);
+        DeviceTakeoverProperties deviceTakeover = new DeviceTakeoverProperties();
+        deviceTakeover.setEnabled(false);
+
+        StreamsBuilder streamsBuilder = new StreamsBuilder();
+        new FraudTopologyConfig(
+            List.of(),
+            AlertEmitMode.FIRST_CROSSING,
+            properties,
+            mule,
+            deviceTakeover,
+            TRANSFERS_TOPIC,
+            "auth.device-events.v1",
+            "fraud.rule-config.v1",
+            Duration.ofSeconds(1),
+            ALERTS_TOPIC
+        ).fraudDetectionTopology(streamsBuilder);
+        Properties config = new Properties();
+        config.put(StreamsConfig.APPLICATION_ID_CONFIG, "velocity-test");
+        config.put(StreamsConfig.BOOTSTRAP_SERVERS_CONFIG, "test:9092");
+        config.put(StreamsConfig.STATE_DIR_CONFIG, stateDir.toString());
+        driver = new TopologyTestDriver(streamsBuilder.build(), config);
+        transfers = driver.createInputTopic(
+            TRANSFERS_TOPIC, new StringSerializer(), new TransferEventSerde().serializer()
+        );
+        alerts = driver.createOutputTopic(
+            ALERTS_TOPIC, new StringDeserializer(), new JsonDeserializer<>(FraudAlert.class, false)
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        driver.close();
+    }
+
+    private void transfer(String userId, long toAccountId, String amount, Instant committedAt) {
+        TransferEvent event = new TransferEvent(
+            UUID.randomUUID().toString(),
+            userId,
+            null,
+            null,
+            toAccountId,
+            TransferEvent.toMinorUnits(new BigDecimal(amount)),
+            "KZT",
+            committedAt
+        );
+        transfers.pipeInput(userId, event, committedAt);
+    }
+
+    @Test
+    void countAboveLimitShouldAlertOncePerWindow() {
+        for (int i = 0; i < 6; i++) {
+            transfer("alice", 1L, "10", START.plusSeconds(10L * i));
+        }
+
+        List<FraudAlert> raised = alerts.readValuesToList();
+        assertEquals(1, raised.size());
+        assertEquals("alice", raised.get(0).userId());
+        assertEquals("Velocity limit exceeded: 5m transfer count", raised.get(0).reason());
+        assertEquals("MEDIUM", raised.get(0).severity());
+    }
+
+    @Test
+    void transfersSpreadBeyondTheWindowShouldNotAlert() {
+        for (int i = 0; i < 6; i++) {
+            transfer("alice", 1L, "10", START.plus(Duration.ofMinutes(2L * i)));
+        }
+
+        assertTrue(alerts.isEmpty());
+    }
+
+    @Test
+    void amountAboveLimitShouldAlert() {
+        transfer("alice", 1L, "600", START);
+        transfer("alice", 1L, "400", START.plusSeconds(30));
+        assertTrue(alerts.isEmpty());
+
+        transfer("alice", 1L, "0.0001", START.plusSeconds(60));
+
+        List<FraudAlert> raised = alerts.readValuesToList();
+        assertEquals(1, raised.size());
+        assertEquals("Velocity limit exceeded: 5m transfer amount", raised.get(0).reason());
+    }
+
+    @Test
+    void distinctDestinationsAboveLimitShouldAlert() {
+        transfer("alice", 1L, "10", START);
+        transfer("alice", 2L, "10", START.plusSeconds(10));
+        transfer("alice", 1L, "10", START.plusSeconds(20));
+        assertTrue(alerts.isEmpty());
+
+        transfer("alice", 3L, "10", START.plusSeconds(30));
+
+        List<FraudAlert> raised = alerts.readValuesToList();
+        assertEquals(1, raised.size());
+        assertEquals("Velocity limit exceeded: 5m distinct destinations", raised.get(0).reason());
+    }
+
+    @Test
+    void usersShouldBeCountedSeparately() {
+        for (int i = 0; i < 3; i++) {
+            transfer("alice", 1L, "10", START.plusSeconds(i));
+            transfer("bob", 1L, "10", START.plusSeconds(i));
+        }
+
+        assertTrue(alerts.isEmpty());
+    }
+
+    @Test
+    void destinationsOfIdleUsersShouldBePurged() {
+        transfer("alice", 1L, "10", START);
+        transfer("bob", 1L, "10", START.plus(Duration.ofHours(12)));
+        KeyValueStore<String, byte[]> destinations = driver.getKeyValueStore(VelocityProcessor.DESTINATIONS_STORE);
+        assertNotNull(destinations.get("alice"));
+
+        transfer("carol", 1L, "10", START.plus(Duration.ofHours(27)));
+
+        assertNull(destinations.get("alice"));
+        assertNotNull(destinations.get("bob"));
+        assertNotNull(destinations.get("carol"));
+    }
+}